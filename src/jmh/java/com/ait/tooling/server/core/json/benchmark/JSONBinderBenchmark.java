@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.ParserException;
+import com.ait.tooling.server.core.json.benchmark.JSONFixtures.Order;
+import com.ait.tooling.server.core.json.binder.BinderFactory;
+import com.ait.tooling.server.core.json.binder.IBinder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONBinderBenchmark
+{
+    private IBinder    m_binder;
+
+    private Order      m_order;
+
+    private JSONObject m_tree;
+
+    private String     m_text;
+
+    @Setup
+    public void setup() throws ParserException
+    {
+        m_binder = BinderFactory.getBinder();
+
+        m_order = JSONFixtures.getOrder();
+
+        m_tree = m_binder.toJSONObject(m_order);
+
+        m_text = m_binder.toString(m_order);
+    }
+
+    @Benchmark
+    public Order bindJSONObject() throws ParserException
+    {
+        return m_binder.bind(m_tree, Order.class);
+    }
+
+    @Benchmark
+    public Order bindString() throws ParserException
+    {
+        return m_binder.bind(m_text, Order.class);
+    }
+
+    @Benchmark
+    public JSONObject toJSONObject() throws ParserException
+    {
+        return m_binder.toJSONObject(m_order);
+    }
+
+    @Benchmark
+    public Order asType()
+    {
+        return m_tree.asType(Order.class);
+    }
+}
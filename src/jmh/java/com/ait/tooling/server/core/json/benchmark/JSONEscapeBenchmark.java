@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ait.tooling.server.core.io.NoSyncStringBuilderWriter;
+import com.ait.tooling.server.core.json.JSONUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONEscapeBenchmark
+{
+    @Param({ "plain", "mixed" })
+    public String                     text;
+
+    private String                    m_text;
+
+    private NoSyncStringBuilderWriter m_out;
+
+    @Setup
+    public void setup()
+    {
+        // The string escaper is internal, writing a String value goes through it and nothing else.
+
+        final String part = "plain".equals(text) ? "The quick brown fox jumps over the lazy dog. " : "Line \"one\"\tthen\\two\n</script> caf\u00e9 \u2028\u0001. ";
+
+        final StringBuilder buff = new StringBuilder(4096);
+
+        while (buff.length() < 4000)
+        {
+            buff.append(part);
+        }
+        m_text = buff.toString();
+
+        m_out = new NoSyncStringBuilderWriter(m_text.length() * 2);
+    }
+
+    @Benchmark
+    public int escape() throws IOException
+    {
+        m_out.getStringBuilder().setLength(0);
+
+        JSONUtils.writeJSONString(m_text, m_out, null, false);
+
+        return m_out.length();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+public final class JSONFixtures
+{
+    public static final String  SMALL        = "small";
+
+    public static final String  MEDIUM       = "medium";
+
+    public static final String  HUGE         = "huge";
+
+    private static final String RESOURCES    = "/com/ait/tooling/server/core/test/";
+
+    private static final int    HUGE_REPEATS = 48;
+
+    private JSONFixtures()
+    {
+    }
+
+    public static final String getText(final String size) throws IOException
+    {
+        // Small is a typical API record, medium is the lion scene graph, and huge is about 10MB of both scenes in one array.
+
+        switch (size)
+        {
+            case SMALL:
+                return "{\"id\":1234,\"type\":\"order\",\"status\":\"ACTIVE\",\"name\":\"D\\u00eban \\\"quoted\\\" name\",\"amount\":129.95,\"tags\":[\"new\",\"priority\",\"gift\"],\"created\":\"2017-02-11T10:15:30Z\",\"active\":true,\"owner\":{\"id\":77,\"name\":\"Bob\"}}";
+            case MEDIUM:
+                return getResource("lion.json");
+            case HUGE:
+                return getHugeText();
+            default:
+                throw new IllegalArgumentException("unknown fixture size " + size);
+        }
+    }
+
+    public static final byte[] getBytes(final String size) throws IOException
+    {
+        return getText(size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static final Order getOrder()
+    {
+        final Order order = new Order();
+
+        order.setId(1234L);
+
+        order.setStatus("ACTIVE");
+
+        order.setName("Dean \"quoted\" name");
+
+        order.setAmount(129.95d);
+
+        order.setTags(Arrays.asList("new", "priority", "gift"));
+
+        order.setOwner(new Owner(77, "Bob"));
+
+        return order;
+    }
+
+    private static final String getHugeText() throws IOException
+    {
+        final String lion = getResource("lion.json");
+
+        final String tiger = getResource("tiger.json");
+
+        final StringBuilder buff = new StringBuilder((lion.length() + tiger.length() + 2) * HUGE_REPEATS + 16);
+
+        buff.append("{\"list\":[");
+
+        for (int i = 0; i < HUGE_REPEATS; i++)
+        {
+            if (i > 0)
+            {
+                buff.append(',');
+            }
+            buff.append(lion).append(',').append(tiger);
+        }
+        return buff.append("]}").toString();
+    }
+
+    private static final String getResource(final String name) throws IOException
+    {
+        try (InputStream stream = JSONFixtures.class.getResourceAsStream(RESOURCES + name))
+        {
+            if (null == stream)
+            {
+                throw new IOException("missing fixture " + name);
+            }
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static class Order
+    {
+        private long         m_id;
+
+        private String       m_status;
+
+        private String       m_name;
+
+        private double       m_amount;
+
+        private List<String> m_tags   = new ArrayList<String>();
+
+        private Owner        m_owner;
+
+        public long getId()
+        {
+            return m_id;
+        }
+
+        public void setId(final long id)
+        {
+            m_id = id;
+        }
+
+        public String getStatus()
+        {
+            return m_status;
+        }
+
+        public void setStatus(final String status)
+        {
+            m_status = status;
+        }
+
+        public String getName()
+        {
+            return m_name;
+        }
+
+        public void setName(final String name)
+        {
+            m_name = name;
+        }
+
+        public double getAmount()
+        {
+            return m_amount;
+        }
+
+        public void setAmount(final double amount)
+        {
+            m_amount = amount;
+        }
+
+        public List<String> getTags()
+        {
+            return m_tags;
+        }
+
+        public void setTags(final List<String> tags)
+        {
+            m_tags = tags;
+        }
+
+        public Owner getOwner()
+        {
+            return m_owner;
+        }
+
+        public void setOwner(final Owner owner)
+        {
+            m_owner = owner;
+        }
+    }
+
+    public static class Owner
+    {
+        private int    m_id;
+
+        private String m_name;
+
+        public Owner()
+        {
+        }
+
+        public Owner(final int id, final String name)
+        {
+            m_id = id;
+
+            m_name = name;
+        }
+
+        public int getId()
+        {
+            return m_id;
+        }
+
+        public void setId(final int id)
+        {
+            m_id = id;
+        }
+
+        public String getName()
+        {
+            return m_name;
+        }
+
+        public void setName(final String name)
+        {
+            m_name = name;
+        }
+    }
+}
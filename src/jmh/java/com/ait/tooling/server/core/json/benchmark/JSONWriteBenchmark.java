@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ait.tooling.server.core.io.NoSyncStringBuilderWriter;
+import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.JSONUtils;
+import com.ait.tooling.server.core.json.ParserException;
+import com.ait.tooling.server.core.json.parser.JSONParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONWriteBenchmark
+{
+    @Param({ JSONFixtures.SMALL, JSONFixtures.MEDIUM, JSONFixtures.HUGE })
+    public String      size;
+
+    private JSONObject m_json;
+
+    private int        m_room;
+
+    @Setup
+    public void setup() throws IOException, ParserException
+    {
+        final String text = JSONFixtures.getText(size);
+
+        m_json = new JSONParser().parse(text);
+
+        m_room = text.length();
+    }
+
+    @Benchmark
+    public NoSyncStringBuilderWriter writeJSONString() throws IOException
+    {
+        final NoSyncStringBuilderWriter out = new NoSyncStringBuilderWriter(m_room);
+
+        JSONUtils.writeJSONString(m_json, out, null, false);
+
+        return out;
+    }
+
+    @Benchmark
+    public String toJSONString()
+    {
+        return m_json.toJSONString();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public class ByteBufferInputStream extends InputStream
+{
+    private final ByteBuffer m_buffer;
+
+    public ByteBufferInputStream(final ByteBuffer buffer)
+    {
+        m_buffer = Objects.requireNonNull(buffer);
+    }
+
+    public ByteBuffer getByteBuffer()
+    {
+        return m_buffer;
+    }
+
+    @Override
+    public int read()
+    {
+        if (false == m_buffer.hasRemaining())
+        {
+            return -1;
+        }
+        return (m_buffer.get() & 0xFF);
+    }
+
+    @Override
+    public int read(final byte buf[], final int off, final int len)
+    {
+        if (0 == len)
+        {
+            return 0;
+        }
+        final int size = Math.min(len, m_buffer.remaining());
+
+        if (size <= 0)
+        {
+            return -1;
+        }
+        m_buffer.get(buf, off, size);
+
+        return size;
+    }
+
+    @Override
+    public long skip(final long n)
+    {
+        final int size = (int) Math.max(0L, Math.min(n, m_buffer.remaining()));
+
+        m_buffer.position(m_buffer.position() + size);
+
+        return size;
+    }
+
+    @Override
+    public int available()
+    {
+        return m_buffer.remaining();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public class ByteBufferOutputStream extends OutputStream
+{
+    private final ByteBuffer m_buffer;
+
+    public ByteBufferOutputStream(final ByteBuffer buffer)
+    {
+        m_buffer = Objects.requireNonNull(buffer);
+    }
+
+    public ByteBuffer getByteBuffer()
+    {
+        return m_buffer;
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        try
+        {
+            m_buffer.put((byte) b);
+        }
+        catch (BufferOverflowException e)
+        {
+            throw new IOException("ByteBuffer overflow", e);
+        }
+    }
+
+    @Override
+    public void write(final byte buf[], final int off, final int len) throws IOException
+    {
+        try
+        {
+            m_buffer.put(buf, off, len);
+        }
+        catch (BufferOverflowException e)
+        {
+            throw new IOException("ByteBuffer overflow", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+public final class FileChannelIO
+{
+    public static final long     DEFAULT_MAPPED_THRESHOLD = 8L * 1024L * 1024L;
+
+    public static final int      DEFAULT_BUFFER_CAPACITY  = 64 * 1024;
+
+    private static volatile long MAPPED_THRESHOLD         = Long.getLong("core.io.mapped.threshold", DEFAULT_MAPPED_THRESHOLD);
+
+    private FileChannelIO()
+    {
+    }
+
+    public static final long getMappedThreshold()
+    {
+        return MAPPED_THRESHOLD;
+    }
+
+    public static final void setMappedThreshold(final long threshold)
+    {
+        MAPPED_THRESHOLD = threshold;
+    }
+
+    public static final boolean isMappable(final File file)
+    {
+        // Mapping has a fixed setup cost, so small files read faster through a stream. A mapped file also stays locked on Windows
+        // until the buffer is collected, so only large files are mapped by default. A single mapping tops out at 2GB.
+
+        final long size = file.length();
+
+        return ((MAPPED_THRESHOLD >= 0) && (size >= MAPPED_THRESHOLD) && (size <= Integer.MAX_VALUE));
+    }
+
+    private static final FileChannel open(final File file, final OpenOption... options) throws IOException
+    {
+        // A missing file is reported as FileNotFoundException, the same as the java.io streams this replaced.
+
+        try
+        {
+            return FileChannel.open(file.toPath(), options);
+        }
+        catch (NoSuchFileException e)
+        {
+            final FileNotFoundException fail = new FileNotFoundException(file.getPath());
+
+            fail.initCause(e);
+
+            throw fail;
+        }
+    }
+
+    public static final MappedByteBuffer map(final File file) throws IOException
+    {
+        // The mapping outlives the channel and is only released when the buffer is garbage collected. Until then the file stays
+        // open, and on Windows it can't be deleted, renamed or truncated. A threshold of -1 turns mapping off in input().
+
+        try (FileChannel channel = open(file, StandardOpenOption.READ))
+        {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    public static final InputStream input(final File file) throws IOException
+    {
+        Objects.requireNonNull(file);
+
+        if (isMappable(file))
+        {
+            return new ByteBufferInputStream(map(file));
+        }
+        return new BufferedInputStream(Channels.newInputStream(open(file, StandardOpenOption.READ)), DEFAULT_BUFFER_CAPACITY);
+    }
+
+    public static final OutputStream output(final File file) throws IOException
+    {
+        return Channels.newOutputStream(open(Objects.requireNonNull(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    public static final Writer writer(final File file) throws IOException
+    {
+        return new NoSyncUTF8OutputStreamWriter(output(file), DEFAULT_BUFFER_CAPACITY);
+    }
+}
@@ -94,7 +94,7 @@ public class NoSyncStringBuilderWriter extends Writer implements CharSequence
     {
         if (null != str)
         {
-            m_builder.append(str.substring(off, off + len));
+            m_builder.append(str, off, off + len);
         }
     }
 
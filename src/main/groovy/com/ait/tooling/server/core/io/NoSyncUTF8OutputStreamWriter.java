@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Objects;
+
+public class NoSyncUTF8OutputStreamWriter extends Writer
+{
+    private final static int MINIMUM_CAPACITY = 16;
+
+    private final static int DEFAULT_CAPACITY = 8192;
+
+    private final static int BOUNDRY_CAPACITY = Integer.MAX_VALUE - MINIMUM_CAPACITY;
+
+    private final static int ENCODE_HEADROOM  = 6;
+
+    private static final int toMinimumCapacity(int capacity)
+    {
+        if (capacity <= MINIMUM_CAPACITY)
+        {
+            return MINIMUM_CAPACITY;
+        }
+        if (capacity >= BOUNDRY_CAPACITY)
+        {
+            capacity = capacity - DEFAULT_CAPACITY;
+        }
+        return capacity + (capacity % MINIMUM_CAPACITY);
+    }
+
+    private OutputStream m_stream;
+
+    private byte         m_buffer[];
+
+    private int  m_sizeof;
+
+    private int  m_nextby;
+
+    private char m_hisurr;
+
+    public NoSyncUTF8OutputStreamWriter(final OutputStream stream)
+    {
+        this(stream, DEFAULT_CAPACITY);
+    }
+
+    public NoSyncUTF8OutputStreamWriter(final OutputStream stream, final int capacity)
+    {
+        this(stream, new byte[toMinimumCapacity(capacity)]);
+    }
+
+    public NoSyncUTF8OutputStreamWriter(final OutputStream stream, final byte[] buffer)
+    {
+        m_stream = Objects.requireNonNull(stream);
+
+        m_buffer = Objects.requireNonNull(buffer);
+
+        if (m_buffer.length < MINIMUM_CAPACITY)
+        {
+            m_buffer = new byte[MINIMUM_CAPACITY];
+        }
+        m_sizeof = m_buffer.length;
+    }
+
+    public byte[] getBuffer()
+    {
+        return m_buffer;
+    }
+
+    protected void doEnsuredOpen() throws IOException
+    {
+        if (isClosed())
+        {
+            throw new IOException("Writer closed");
+        }
+    }
+
+    protected void doFlushBuffer() throws IOException
+    {
+        doEnsuredOpen();
+
+        if (0 == m_nextby)
+        {
+            return;
+        }
+        m_stream.write(m_buffer, 0, m_nextby);
+
+        m_nextby = 0;
+    }
+
+    @Override
+    public void write(final int c) throws IOException
+    {
+        doEnsuredOpen();
+
+        if (m_nextby >= (m_sizeof - ENCODE_HEADROOM))
+        {
+            doFlushBuffer();
+        }
+        encode((char) c);
+    }
+
+    @Override
+    public void write(final char buf[], final int off, final int len) throws IOException
+    {
+        doEnsuredOpen();
+
+        if ((off < 0) || (off > buf.length) || (len < 0) || ((off + len) > buf.length) || ((off + len) < 0))
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        final int last = off + len;
+
+        int i = off;
+
+        while (i < last)
+        {
+            if (m_nextby >= (m_sizeof - ENCODE_HEADROOM))
+            {
+                doFlushBuffer();
+            }
+            // ASCII runs are copied straight through without the per-character encode checks.
+
+            if (0 == m_hisurr)
+            {
+                final int stop = Math.min(last, i + (m_sizeof - ENCODE_HEADROOM - m_nextby));
+
+                char c;
+
+                while ((i < stop) && ((c = buf[i]) < 0x80))
+                {
+                    m_buffer[m_nextby++] = ((byte) c);
+
+                    i++;
+                }
+                if ((i >= last) || (i >= stop))
+                {
+                    continue;
+                }
+            }
+            encode(buf[i++]);
+        }
+    }
+
+    @Override
+    public void write(final String str) throws IOException
+    {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException
+    {
+        doEnsuredOpen();
+
+        final int last = off + len;
+
+        int i = off;
+
+        while (i < last)
+        {
+            if (m_nextby >= (m_sizeof - ENCODE_HEADROOM))
+            {
+                doFlushBuffer();
+            }
+            if (0 == m_hisurr)
+            {
+                final int stop = Math.min(last, i + (m_sizeof - ENCODE_HEADROOM - m_nextby));
+
+                char c;
+
+                while ((i < stop) && ((c = str.charAt(i)) < 0x80))
+                {
+                    m_buffer[m_nextby++] = ((byte) c);
+
+                    i++;
+                }
+                if ((i >= last) || (i >= stop))
+                {
+                    continue;
+                }
+            }
+            encode(str.charAt(i++));
+        }
+    }
+
+    public void writeBytes(final byte buf[], final int off, final int len) throws IOException
+    {
+        doEnsuredOpen();
+
+        if ((off < 0) || (off > buf.length) || (len < 0) || ((off + len) > buf.length) || ((off + len) < 0))
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        doFinishSurrogate();
+
+        if (len > (m_sizeof - m_nextby))
+        {
+            doFlushBuffer();
+
+            if (len >= m_sizeof)
+            {
+                m_stream.write(buf, off, len);
+
+                return;
+            }
+        }
+        System.arraycopy(buf, off, m_buffer, m_nextby, len);
+
+        m_nextby = m_nextby + len;
+    }
+
+    private final void encode(final char c)
+    {
+        if (0 != m_hisurr)
+        {
+            final char h = m_hisurr;
+
+            m_hisurr = 0;
+
+            if (Character.isLowSurrogate(c))
+            {
+                final int p = Character.toCodePoint(h, c);
+
+                m_buffer[m_nextby++] = ((byte) (0xF0 | (p >> 18)));
+
+                m_buffer[m_nextby++] = ((byte) (0x80 | ((p >> 12) & 0x3F)));
+
+                m_buffer[m_nextby++] = ((byte) (0x80 | ((p >> 6) & 0x3F)));
+
+                m_buffer[m_nextby++] = ((byte) (0x80 | (p & 0x3F)));
+
+                return;
+            }
+            replace();
+        }
+        if (c < 0x80)
+        {
+            m_buffer[m_nextby++] = ((byte) c);
+        }
+        else if (c < 0x800)
+        {
+            m_buffer[m_nextby++] = ((byte) (0xC0 | (c >> 6)));
+
+            m_buffer[m_nextby++] = ((byte) (0x80 | (c & 0x3F)));
+        }
+        else if (Character.isHighSurrogate(c))
+        {
+            m_hisurr = c;
+        }
+        else if (Character.isLowSurrogate(c))
+        {
+            replace();
+        }
+        else
+        {
+            m_buffer[m_nextby++] = ((byte) (0xE0 | (c >> 12)));
+
+            m_buffer[m_nextby++] = ((byte) (0x80 | ((c >> 6) & 0x3F)));
+
+            m_buffer[m_nextby++] = ((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private final void replace()
+    {
+        // An unpaired surrogate has no UTF-8 form, it goes out as U+FFFD.
+
+        m_buffer[m_nextby++] = ((byte) 0xEF);
+
+        m_buffer[m_nextby++] = ((byte) 0xBF);
+
+        m_buffer[m_nextby++] = ((byte) 0xBD);
+    }
+
+    protected void doFinishSurrogate() throws IOException
+    {
+        if (0 != m_hisurr)
+        {
+            if (m_nextby >= (m_sizeof - ENCODE_HEADROOM))
+            {
+                doFlushBuffer();
+            }
+            m_hisurr = 0;
+
+            replace();
+        }
+    }
+
+    public void finish() throws IOException
+    {
+        // A high surrogate is held back in case its low half comes in the next write - finish ends the text, so a dangling
+        // one is written out instead of being lost.
+
+        doEnsuredOpen();
+
+        doFinishSurrogate();
+
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        doFlushBuffer();
+
+        m_stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (isClosed())
+        {
+            return;
+        }
+        try
+        {
+            finish();
+
+            m_stream.close();
+        }
+        finally
+        {
+            clean();
+        }
+    }
+
+    protected boolean isClosed()
+    {
+        return (null == m_stream);
+    }
+
+    protected void clean()
+    {
+        m_nextby = 0;
+
+        m_sizeof = 0;
+
+        m_hisurr = 0;
+
+        m_stream = null;
+    }
+}
@@ -25,9 +25,11 @@ import java.util.Objects;
 
 public abstract class AbstractJSONKeysObjectReplacer implements IJSONObjectKeysReplacer
 {
-    private boolean               m_mode;
+    private boolean                 m_mode;
 
-    private final HashSet<String> m_keys = new HashSet<String>();
+    private final HashSet<String>   m_keys    = new HashSet<String>();
+
+    private volatile JSONKeyMatcher m_matcher;
 
     AbstractJSONKeysObjectReplacer()
     {
@@ -62,6 +64,8 @@ public abstract class AbstractJSONKeysObjectReplacer implements IJSONObjectKeysR
     public final void add(final Collection<String> keys)
     {
         m_keys.addAll(Objects.requireNonNull(keys));
+
+        m_matcher = null;
     }
 
     @Override
@@ -71,6 +75,7 @@ public abstract class AbstractJSONKeysObjectReplacer implements IJSONObjectKeysR
         {
             m_keys.add(pkey);
         }
+        m_matcher = null;
     }
 
     @Override
@@ -86,6 +91,21 @@ public abstract class AbstractJSONKeysObjectReplacer implements IJSONObjectKeysR
         {
             return UNDEFINED;
         }
-        return (m_keys.contains(Objects.requireNonNull(name)) == m_mode) ? value : UNDEFINED;
+        return (getMatcher().contains(Objects.requireNonNull(name)) == m_mode) ? value : UNDEFINED;
+    }
+
+    private final JSONKeyMatcher getMatcher()
+    {
+        // Compiled on first use after the keys change - serialization then hits the perfect hash table, not the HashSet.
+
+        JSONKeyMatcher matcher = m_matcher;
+
+        if (null == matcher)
+        {
+            matcher = new JSONKeyMatcher(m_keys);
+
+            m_matcher = matcher;
+        }
+        return matcher;
     }
 }
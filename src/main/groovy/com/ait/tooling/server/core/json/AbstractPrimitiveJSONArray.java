@@ -0,0 +1,898 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+public abstract class AbstractPrimitiveJSONArray extends JSONArray
+{
+    private static final long serialVersionUID = 5034207375913584446L;
+
+    private static final int  DEFAULT_CAPACITY = 10;
+
+    transient int             m_size;
+
+    transient boolean         m_boxed;
+
+    AbstractPrimitiveJSONArray()
+    {
+    }
+
+    abstract int capacity();
+
+    abstract void resize(int capacity);
+
+    abstract Object storage();
+
+    abstract void detach();
+
+    abstract void release();
+
+    abstract boolean accepts(Object value);
+
+    abstract Object box(int index);
+
+    abstract void store(int index, Object value);
+
+    abstract void sortNatural();
+
+    abstract void writeValues(Writer out, boolean strict) throws IOException;
+
+    public boolean isBoxed()
+    {
+        return m_boxed;
+    }
+
+    final void deoptimize()
+    {
+        // A value the primitive storage can't hold - move to the ordinary ArrayList storage for good.
+
+        final int size = m_size;
+
+        super.ensureCapacity(size);
+
+        for (int i = 0; i < size; i++)
+        {
+            super.add(box(i));
+        }
+        m_boxed = true;
+
+        m_size = 0;
+
+        release();
+    }
+
+    final void growFor(final int count)
+    {
+        final int need = m_size + count;
+
+        final int have = capacity();
+
+        if (need > have)
+        {
+            resize(Math.max(need, Math.max(DEFAULT_CAPACITY, have + (have >> 1))));
+        }
+    }
+
+    final void checkIndex(final int index)
+    {
+        if ((index < 0) || (index >= m_size))
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
+        }
+    }
+
+    final void checkPosition(final int index)
+    {
+        if ((index < 0) || (index > m_size))
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
+        }
+    }
+
+    private final boolean acceptsAll(final Collection<?> values)
+    {
+        for (Object value : values)
+        {
+            if (false == accepts(value))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size()
+    {
+        if (m_boxed)
+        {
+            return super.size();
+        }
+        return m_size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (0 == size());
+    }
+
+    @Override
+    public Object get(final int index)
+    {
+        if (m_boxed)
+        {
+            return super.get(index);
+        }
+        checkIndex(index);
+
+        return box(index);
+    }
+
+    @Override
+    public Object set(final int index, final Object value)
+    {
+        if (m_boxed)
+        {
+            return super.set(index, value);
+        }
+        checkIndex(index);
+
+        if (false == accepts(value))
+        {
+            deoptimize();
+
+            return super.set(index, value);
+        }
+        final Object prev = box(index);
+
+        store(index, value);
+
+        return prev;
+    }
+
+    @Override
+    public boolean add(final Object value)
+    {
+        if (m_boxed)
+        {
+            return super.add(value);
+        }
+        if (false == accepts(value))
+        {
+            deoptimize();
+
+            return super.add(value);
+        }
+        growFor(1);
+
+        store(m_size++, value);
+
+        modCount++;
+
+        return true;
+    }
+
+    @Override
+    public void add(final int index, final Object value)
+    {
+        if (m_boxed)
+        {
+            super.add(index, value);
+
+            return;
+        }
+        checkPosition(index);
+
+        if (false == accepts(value))
+        {
+            deoptimize();
+
+            super.add(index, value);
+
+            return;
+        }
+        growFor(1);
+
+        final Object storage = storage();
+
+        System.arraycopy(storage, index, storage, index + 1, m_size - index);
+
+        store(index, value);
+
+        m_size++;
+
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Object> values)
+    {
+        return addAll(size(), values);
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends Object> values)
+    {
+        if (m_boxed)
+        {
+            return super.addAll(index, values);
+        }
+        checkPosition(index);
+
+        if (false == acceptsAll(values))
+        {
+            deoptimize();
+
+            return super.addAll(index, values);
+        }
+        final Object[] array = values.toArray();
+
+        final int count = array.length;
+
+        if (0 == count)
+        {
+            return false;
+        }
+        growFor(count);
+
+        final Object storage = storage();
+
+        System.arraycopy(storage, index, storage, index + count, m_size - index);
+
+        for (int i = 0; i < count; i++)
+        {
+            store(index + i, array[i]);
+        }
+        m_size = m_size + count;
+
+        modCount++;
+
+        return true;
+    }
+
+    @Override
+    public Object remove(final int index)
+    {
+        if (m_boxed)
+        {
+            return super.remove(index);
+        }
+        checkIndex(index);
+
+        final Object prev = box(index);
+
+        removeRange(index, index + 1);
+
+        return prev;
+    }
+
+    @Override
+    public boolean remove(final Object value)
+    {
+        final int index = indexOf(value);
+
+        if (index < 0)
+        {
+            return false;
+        }
+        remove(index);
+
+        return true;
+    }
+
+    @Override
+    protected void removeRange(final int fromIndex, final int toIndex)
+    {
+        if (m_boxed)
+        {
+            super.removeRange(fromIndex, toIndex);
+
+            return;
+        }
+        if ((fromIndex < 0) || (toIndex > m_size) || (fromIndex > toIndex))
+        {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + m_size);
+        }
+        final Object storage = storage();
+
+        System.arraycopy(storage, toIndex, storage, fromIndex, m_size - toIndex);
+
+        m_size = m_size - (toIndex - fromIndex);
+
+        modCount++;
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super Object> filter)
+    {
+        if (m_boxed)
+        {
+            return super.removeIf(filter);
+        }
+        Objects.requireNonNull(filter);
+
+        final int size = m_size;
+
+        final Object storage = storage();
+
+        int keep = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            if (false == filter.test(box(i)))
+            {
+                if (keep != i)
+                {
+                    System.arraycopy(storage, i, storage, keep, 1);
+                }
+                keep++;
+            }
+        }
+        if (keep == size)
+        {
+            return false;
+        }
+        m_size = keep;
+
+        modCount++;
+
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> values)
+    {
+        Objects.requireNonNull(values);
+
+        return removeIf(value -> values.contains(value));
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> values)
+    {
+        Objects.requireNonNull(values);
+
+        return removeIf(value -> (false == values.contains(value)));
+    }
+
+    @Override
+    public void clear()
+    {
+        if (m_boxed)
+        {
+            super.clear();
+
+            return;
+        }
+        m_size = 0;
+
+        modCount++;
+    }
+
+    @Override
+    public int indexOf(final Object value)
+    {
+        if (m_boxed)
+        {
+            return super.indexOf(value);
+        }
+        for (int i = 0; i < m_size; i++)
+        {
+            if (Objects.equals(value, box(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(final Object value)
+    {
+        if (m_boxed)
+        {
+            return super.lastIndexOf(value);
+        }
+        for (int i = m_size - 1; i >= 0; i--)
+        {
+            if (Objects.equals(value, box(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return (indexOf(value) >= 0);
+    }
+
+    @Override
+    public void replaceAll(final UnaryOperator<Object> operator)
+    {
+        if (m_boxed)
+        {
+            super.replaceAll(operator);
+
+            return;
+        }
+        Objects.requireNonNull(operator);
+
+        for (int i = 0; i < size(); i++)
+        {
+            set(i, operator.apply(get(i)));
+        }
+    }
+
+    @Override
+    public void sort(final Comparator<? super Object> comparator)
+    {
+        if (m_boxed)
+        {
+            super.sort(comparator);
+
+            return;
+        }
+        if (null == comparator)
+        {
+            sortNatural();
+        }
+        else
+        {
+            final Object[] array = toArray();
+
+            Arrays.sort(array, comparator);
+
+            for (int i = 0; i < array.length; i++)
+            {
+                store(i, array[i]);
+            }
+        }
+        modCount++;
+    }
+
+    @Override
+    public void forEach(final Consumer<? super Object> action)
+    {
+        if (m_boxed)
+        {
+            super.forEach(action);
+
+            return;
+        }
+        Objects.requireNonNull(action);
+
+        final int expected = modCount;
+
+        for (int i = 0; ((i < m_size) && (expected == modCount)); i++)
+        {
+            action.accept(box(i));
+        }
+        if (expected != modCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Object[] toArray()
+    {
+        if (m_boxed)
+        {
+            return super.toArray();
+        }
+        final Object[] array = new Object[m_size];
+
+        for (int i = 0; i < array.length; i++)
+        {
+            array[i] = box(i);
+        }
+        return array;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(final T[] array)
+    {
+        if (m_boxed)
+        {
+            return super.toArray(array);
+        }
+        final Object[] values = toArray();
+
+        if (array.length < values.length)
+        {
+            return (T[]) Arrays.copyOf(values, values.length, array.getClass());
+        }
+        System.arraycopy(values, 0, array, 0, values.length);
+
+        if (array.length > values.length)
+        {
+            array[values.length] = null;
+        }
+        return array;
+    }
+
+    @Override
+    public Iterator<Object> iterator()
+    {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<Object> listIterator()
+    {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<Object> listIterator(final int index)
+    {
+        if (m_boxed)
+        {
+            return super.listIterator(index);
+        }
+        checkPosition(index);
+
+        return new PrimitiveIterator(index);
+    }
+
+    @Override
+    public List<Object> subList(final int fromIndex, final int toIndex)
+    {
+        if (m_boxed)
+        {
+            return super.subList(fromIndex, toIndex);
+        }
+        if ((fromIndex < 0) || (toIndex > m_size) || (fromIndex > toIndex))
+        {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + m_size);
+        }
+        return new PrimitiveSubList(fromIndex, toIndex);
+    }
+
+    @Override
+    public Spliterator<Object> spliterator()
+    {
+        if (m_boxed)
+        {
+            return super.spliterator();
+        }
+        return Spliterators.spliterator(this, Spliterator.ORDERED);
+    }
+
+    @Override
+    public void trimToSize()
+    {
+        if (m_boxed)
+        {
+            super.trimToSize();
+        }
+        else if (capacity() > m_size)
+        {
+            resize(m_size);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(final int capacity)
+    {
+        if (m_boxed)
+        {
+            super.ensureCapacity(capacity);
+        }
+        else if (capacity > capacity())
+        {
+            resize(capacity);
+        }
+    }
+
+    @Override
+    public Object clone()
+    {
+        final AbstractPrimitiveJSONArray copy = (AbstractPrimitiveJSONArray) super.clone();
+
+        if (false == m_boxed)
+        {
+            copy.detach();
+        }
+        return copy;
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        final Writer pretty = JSONPrettyWriter.wrap(out, context);
+
+        if (pretty != out)
+        {
+            writeJSONString(pretty, context, strict);
+
+            return;
+        }
+        if (m_boxed || ((null != context) && (null != context.getArrayReplacer())))
+        {
+            super.writeJSONString(out, context, strict);
+
+            return;
+        }
+        out.write('[');
+
+        writeValues(out, strict);
+
+        out.write(']');
+    }
+
+    @Override
+    public void writeJSONString(final Writer out) throws IOException
+    {
+        writeJSONString(out, null, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final boolean strict) throws IOException
+    {
+        writeJSONString(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
+    {
+        writeJSONString(out, context, false);
+    }
+
+    final Object writeReplace()
+    {
+        return new JSONArray(this);
+    }
+
+    private final class PrimitiveIterator implements ListIterator<Object>
+    {
+        private int m_index;
+
+        private int m_last     = -1;
+
+        private int m_expected = modCount;
+
+        PrimitiveIterator(final int index)
+        {
+            m_index = index;
+        }
+
+        private final void check()
+        {
+            if (m_expected != modCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return (m_index < size());
+        }
+
+        @Override
+        public Object next()
+        {
+            check();
+
+            if (m_index >= size())
+            {
+                throw new NoSuchElementException();
+            }
+            m_last = m_index++;
+
+            return get(m_last);
+        }
+
+        @Override
+        public boolean hasPrevious()
+        {
+            return (m_index > 0);
+        }
+
+        @Override
+        public Object previous()
+        {
+            check();
+
+            if (m_index <= 0)
+            {
+                throw new NoSuchElementException();
+            }
+            m_last = --m_index;
+
+            return get(m_last);
+        }
+
+        @Override
+        public int nextIndex()
+        {
+            return m_index;
+        }
+
+        @Override
+        public int previousIndex()
+        {
+            return (m_index - 1);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (m_last < 0)
+            {
+                throw new IllegalStateException();
+            }
+            check();
+
+            AbstractPrimitiveJSONArray.this.remove(m_last);
+
+            m_index = m_last;
+
+            m_last = -1;
+
+            m_expected = modCount;
+        }
+
+        @Override
+        public void set(final Object value)
+        {
+            if (m_last < 0)
+            {
+                throw new IllegalStateException();
+            }
+            check();
+
+            AbstractPrimitiveJSONArray.this.set(m_last, value);
+
+            m_expected = modCount;
+        }
+
+        @Override
+        public void add(final Object value)
+        {
+            check();
+
+            AbstractPrimitiveJSONArray.this.add(m_index++, value);
+
+            m_last = -1;
+
+            m_expected = modCount;
+        }
+    }
+
+    private final class PrimitiveSubList extends AbstractList<Object>
+    {
+        private final int m_from;
+
+        private int       m_last;
+
+        private int       m_expected = AbstractPrimitiveJSONArray.this.modCount;
+
+        PrimitiveSubList(final int fromIndex, final int toIndex)
+        {
+            m_from = fromIndex;
+
+            m_last = toIndex;
+        }
+
+        private final void check()
+        {
+            if (m_expected != AbstractPrimitiveJSONArray.this.modCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public int size()
+        {
+            check();
+
+            return (m_last - m_from);
+        }
+
+        @Override
+        public Object get(final int index)
+        {
+            check();
+
+            if ((index < 0) || (index >= (m_last - m_from)))
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (m_last - m_from));
+            }
+            return AbstractPrimitiveJSONArray.this.get(m_from + index);
+        }
+
+        @Override
+        public Object set(final int index, final Object value)
+        {
+            check();
+
+            if ((index < 0) || (index >= (m_last - m_from)))
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (m_last - m_from));
+            }
+            final Object prev = AbstractPrimitiveJSONArray.this.set(m_from + index, value);
+
+            m_expected = AbstractPrimitiveJSONArray.this.modCount;
+
+            return prev;
+        }
+
+        @Override
+        public void add(final int index, final Object value)
+        {
+            check();
+
+            if ((index < 0) || (index > (m_last - m_from)))
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (m_last - m_from));
+            }
+            AbstractPrimitiveJSONArray.this.add(m_from + index, value);
+
+            m_last++;
+
+            m_expected = AbstractPrimitiveJSONArray.this.modCount;
+
+            modCount++;
+        }
+
+        @Override
+        public Object remove(final int index)
+        {
+            check();
+
+            if ((index < 0) || (index >= (m_last - m_from)))
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (m_last - m_from));
+            }
+            final Object prev = AbstractPrimitiveJSONArray.this.remove(m_from + index);
+
+            m_last--;
+
+            m_expected = AbstractPrimitiveJSONArray.this.modCount;
+
+            modCount++;
+
+            return prev;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import com.ait.tooling.server.core.io.ByteBufferOutputStream;
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter;
+
+final class FrozenJSONArray extends JSONArray
+{
+    private static final long         serialVersionUID = -2944519620618003361L;
+
+    private transient volatile String m_text;
+
+    private transient volatile String m_text_strict;
+
+    private transient volatile byte[] m_bytes;
+
+    private transient volatile byte[] m_bytes_strict;
+
+    private transient int             m_hash;
+
+    FrozenJSONArray(final List<?> list)
+    {
+        super(list.size());
+
+        for (Object value : list)
+        {
+            super.add(FrozenJSONObject.frozen(value));
+        }
+    }
+
+    @Override
+    public JSONArray freeze()
+    {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen()
+    {
+        return true;
+    }
+
+    private final String getJSONString(final boolean strict)
+    {
+        String text = (strict ? m_text_strict : m_text);
+
+        if (null == text)
+        {
+            text = JSONUtils.toJSONString(this, strict);
+
+            if (strict)
+            {
+                m_text_strict = text;
+            }
+            else
+            {
+                m_text = text;
+            }
+        }
+        return text;
+    }
+
+    private final byte[] getJSONBytes(final boolean strict)
+    {
+        byte[] bytes = (strict ? m_bytes_strict : m_bytes);
+
+        if (null == bytes)
+        {
+            bytes = getJSONString(strict).getBytes(StandardCharsets.UTF_8);
+
+            if (strict)
+            {
+                m_bytes_strict = bytes;
+            }
+            else
+            {
+                m_bytes = bytes;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        if (null == context)
+        {
+            final byte[] bytes = (strict ? m_bytes_strict : m_bytes);
+
+            if ((null != bytes) && (out instanceof NoSyncUTF8OutputStreamWriter))
+            {
+                ((NoSyncUTF8OutputStreamWriter) out).writeBytes(bytes, 0, bytes.length);
+
+                return;
+            }
+            final String text = (strict ? m_text_strict : m_text);
+
+            if (null != text)
+            {
+                out.write(text);
+
+                return;
+            }
+        }
+        super.writeJSONString(out, context, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out) throws IOException
+    {
+        writeJSONString(out, null, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final boolean strict) throws IOException
+    {
+        writeJSONString(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
+    {
+        writeJSONString(out, context, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        if (null == context)
+        {
+            out.write(getJSONBytes(strict));
+
+            out.flush();
+        }
+        else
+        {
+            super.writeJSONBytes(out, context, strict);
+        }
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out) throws IOException
+    {
+        writeJSONBytes(out, null, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final boolean strict) throws IOException
+    {
+        writeJSONBytes(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context) throws IOException
+    {
+        writeJSONBytes(out, context, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final ByteBuffer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        writeJSONBytes(new ByteBufferOutputStream(out), context, strict);
+    }
+
+    @Override
+    public byte[] toJSONBytes()
+    {
+        return getJSONBytes(false).clone();
+    }
+
+    @Override
+    public byte[] toJSONBytes(final boolean strict)
+    {
+        return getJSONBytes(strict).clone();
+    }
+
+    @Override
+    public String toJSONString()
+    {
+        return getJSONString(false);
+    }
+
+    @Override
+    public String toJSONString(final boolean strict)
+    {
+        return getJSONString(strict);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getJSONString(false);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = m_hash;
+
+        if (0 == hash)
+        {
+            hash = super.hashCode();
+
+            m_hash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if ((other instanceof FrozenJSONArray) && (hashCode() != other.hashCode()))
+        {
+            return false;
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public boolean add(final Object value)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public void add(final int index, final Object value)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Object> values)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends Object> values)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public Object set(final int index, final Object value)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public Object remove(final int index)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public boolean remove(final Object value)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> values)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> values)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super Object> filter)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public void replaceAll(final UnaryOperator<Object> operator)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public void sort(final Comparator<? super Object> comparator)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public void clear()
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    protected void removeRange(final int fromIndex, final int toIndex)
+    {
+        throw FrozenJSONObject.frozenError();
+    }
+
+    @Override
+    public Iterator<Object> iterator()
+    {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<Object> listIterator()
+    {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<Object> listIterator(final int index)
+    {
+        final ListIterator<Object> iter = super.listIterator(index);
+
+        return new ListIterator<Object>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return iter.hasNext();
+            }
+
+            @Override
+            public Object next()
+            {
+                return iter.next();
+            }
+
+            @Override
+            public boolean hasPrevious()
+            {
+                return iter.hasPrevious();
+            }
+
+            @Override
+            public Object previous()
+            {
+                return iter.previous();
+            }
+
+            @Override
+            public int nextIndex()
+            {
+                return iter.nextIndex();
+            }
+
+            @Override
+            public int previousIndex()
+            {
+                return iter.previousIndex();
+            }
+
+            @Override
+            public void remove()
+            {
+                throw FrozenJSONObject.frozenError();
+            }
+
+            @Override
+            public void set(final Object value)
+            {
+                throw FrozenJSONObject.frozenError();
+            }
+
+            @Override
+            public void add(final Object value)
+            {
+                throw FrozenJSONObject.frozenError();
+            }
+        };
+    }
+
+    @Override
+    public List<Object> subList(final int fromIndex, final int toIndex)
+    {
+        return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+}
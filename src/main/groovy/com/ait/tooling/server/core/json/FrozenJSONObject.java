@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.ait.tooling.server.core.io.ByteBufferOutputStream;
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter;
+
+final class FrozenJSONObject extends JSONObject
+{
+    private static final long         serialVersionUID = 4187553614924357216L;
+
+    private transient volatile String m_text;
+
+    private transient volatile String m_text_strict;
+
+    private transient volatile byte[] m_bytes;
+
+    private transient volatile byte[] m_bytes_strict;
+
+    private transient int             m_hash;
+
+    FrozenJSONObject(final Map<String, ?> map)
+    {
+        for (Map.Entry<String, ?> entry : map.entrySet())
+        {
+            super.put(entry.getKey(), frozen(entry.getValue()));
+        }
+    }
+
+    static final Object frozen(final Object value)
+    {
+        if (value instanceof FrozenJSONObject)
+        {
+            return value;
+        }
+        if (value instanceof FrozenJSONArray)
+        {
+            return value;
+        }
+        if (value instanceof Map)
+        {
+            return new FrozenJSONObject(JSONUtils.asObject(value));
+        }
+        if (value instanceof List)
+        {
+            return new FrozenJSONArray((List<?>) value);
+        }
+        if (value instanceof Collection)
+        {
+            return new FrozenJSONArray(new ArrayList<Object>((Collection<?>) value));
+        }
+        if (value instanceof Date)
+        {
+            // A Date handed back by get() could still be changed under the cached text, an Instant writes the same and can't be.
+
+            return Instant.ofEpochMilli(((Date) value).getTime());
+        }
+        return value;
+    }
+
+    static final UnsupportedOperationException frozenError()
+    {
+        return new UnsupportedOperationException("frozen");
+    }
+
+    @Override
+    public JSONObject freeze()
+    {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen()
+    {
+        return true;
+    }
+
+    private final String getJSONString(final boolean strict)
+    {
+        String text = (strict ? m_text_strict : m_text);
+
+        if (null == text)
+        {
+            text = JSONUtils.toJSONString(this, strict);
+
+            if (strict)
+            {
+                m_text_strict = text;
+            }
+            else
+            {
+                m_text = text;
+            }
+        }
+        return text;
+    }
+
+    private final byte[] getJSONBytes(final boolean strict)
+    {
+        byte[] bytes = (strict ? m_bytes_strict : m_bytes);
+
+        if (null == bytes)
+        {
+            bytes = getJSONString(strict).getBytes(StandardCharsets.UTF_8);
+
+            if (strict)
+            {
+                m_bytes_strict = bytes;
+            }
+            else
+            {
+                m_bytes = bytes;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        // Only reuses a cache that is already there - a nested child must not build its own copy of text its parent is caching.
+
+        if (null == context)
+        {
+            final byte[] bytes = (strict ? m_bytes_strict : m_bytes);
+
+            if ((null != bytes) && (out instanceof NoSyncUTF8OutputStreamWriter))
+            {
+                ((NoSyncUTF8OutputStreamWriter) out).writeBytes(bytes, 0, bytes.length);
+
+                return;
+            }
+            final String text = (strict ? m_text_strict : m_text);
+
+            if (null != text)
+            {
+                out.write(text);
+
+                return;
+            }
+        }
+        super.writeJSONString(out, context, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out) throws IOException
+    {
+        writeJSONString(out, null, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final boolean strict) throws IOException
+    {
+        writeJSONString(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
+    {
+        writeJSONString(out, context, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        if (null == context)
+        {
+            out.write(getJSONBytes(strict));
+
+            out.flush();
+        }
+        else
+        {
+            super.writeJSONBytes(out, context, strict);
+        }
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out) throws IOException
+    {
+        writeJSONBytes(out, null, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final boolean strict) throws IOException
+    {
+        writeJSONBytes(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context) throws IOException
+    {
+        writeJSONBytes(out, context, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final ByteBuffer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        writeJSONBytes(new ByteBufferOutputStream(out), context, strict);
+    }
+
+    @Override
+    public byte[] toJSONBytes()
+    {
+        return getJSONBytes(false).clone();
+    }
+
+    @Override
+    public byte[] toJSONBytes(final boolean strict)
+    {
+        return getJSONBytes(strict).clone();
+    }
+
+    @Override
+    public String toJSONString()
+    {
+        return getJSONString(false);
+    }
+
+    @Override
+    public String toJSONString(final boolean strict)
+    {
+        return getJSONString(strict);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getJSONString(false);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = m_hash;
+
+        if (0 == hash)
+        {
+            hash = super.hashCode();
+
+            m_hash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if ((other instanceof FrozenJSONObject) && (hashCode() != other.hashCode()))
+        {
+            return false;
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public Object put(final String key, final Object value)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public void putAll(final Map<? extends String, ? extends Object> map)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object putIfAbsent(final String key, final Object value)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object remove(final Object key)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object remove(final String key)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object replace(final String key, final Object value)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public boolean replace(final String key, final Object oldValue, final Object newValue)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public void replaceAll(final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object computeIfAbsent(final String key, final Function<? super String, ? extends Object> function)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object computeIfPresent(final String key, final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object compute(final String key, final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Object merge(final String key, final Object value, final BiFunction<? super Object, ? super Object, ? extends Object> function)
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public void clear()
+    {
+        throw frozenError();
+    }
+
+    @Override
+    public Set<String> keySet()
+    {
+        return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @Override
+    public Collection<Object> values()
+    {
+        return Collections.unmodifiableCollection(super.values());
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet()
+    {
+        return new FrozenEntrySet();
+    }
+
+    private final Set<Map.Entry<String, Object>> entries()
+    {
+        return super.entrySet();
+    }
+
+    private final class FrozenEntrySet extends AbstractSet<Map.Entry<String, Object>>
+    {
+        @Override
+        public int size()
+        {
+            return FrozenJSONObject.this.size();
+        }
+
+        @Override
+        public boolean contains(final Object object)
+        {
+            return entries().contains(object);
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator()
+        {
+            final Iterator<Map.Entry<String, Object>> iter = entries().iterator();
+
+            return new Iterator<Map.Entry<String, Object>>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return iter.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, Object> next()
+                {
+                    return new AbstractMap.SimpleImmutableEntry<String, Object>(iter.next());
+                }
+            };
+        }
+    }
+}
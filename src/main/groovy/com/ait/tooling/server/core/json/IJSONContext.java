@@ -25,4 +25,14 @@ public interface IJSONContext extends IJSONReplacerUtil
     public JSONDateFormatter getDateFormatter();
 
     public JSONNumberFormatter getNumberFormatter();
+
+    default public int getIndentWidth()
+    {
+        return 0;
+    }
+
+    default public String getLineSeparator()
+    {
+        return "\n";
+    }
 }
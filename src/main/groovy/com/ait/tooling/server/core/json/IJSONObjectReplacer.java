@@ -19,4 +19,9 @@ package com.ait.tooling.server.core.json;
 public interface IJSONObjectReplacer extends IJSONReplacerUtil
 {
     public Object replace(String name, Object value);
+
+    default public IJSONObjectReplacer nested(final String name)
+    {
+        return this;
+    }
 }
@@ -17,7 +17,9 @@
 package com.ait.tooling.server.core.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 public interface IJSONStreamAware
 {
@@ -28,4 +30,29 @@ public interface IJSONStreamAware
     public void writeJSONString(Writer out, IJSONContext context) throws IOException;
 
     public void writeJSONString(Writer out, IJSONContext context, boolean strict) throws IOException;
+
+    default public void writeJSONBytes(final OutputStream out) throws IOException
+    {
+        writeJSONBytes(out, null, false);
+    }
+
+    default public void writeJSONBytes(final OutputStream out, final boolean strict) throws IOException
+    {
+        writeJSONBytes(out, null, strict);
+    }
+
+    default public void writeJSONBytes(final OutputStream out, final IJSONContext context) throws IOException
+    {
+        writeJSONBytes(out, context, false);
+    }
+
+    default public void writeJSONBytes(final OutputStream out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, strict);
+    }
+
+    default public void writeJSONBytes(final ByteBuffer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, strict);
+    }
 }
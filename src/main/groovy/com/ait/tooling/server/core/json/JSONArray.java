@@ -17,12 +17,13 @@
 package com.ait.tooling.server.core.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -100,18 +101,33 @@ public class JSONArray extends ArrayList<Object> implements JSONArrayDefinition<
         return jarr;
     }
 
+    static final Object replace(final IJSONArrayReplacer replacer, final int index, final Object value)
+    {
+        // Like JSON.stringify(), an element replaced by UNDEFINED keeps its position as null.
+
+        final Object valu = replacer.replace(index, value);
+
+        return (IJSONReplacerUtil.UNDEFINED == valu) ? null : valu;
+    }
+
     static final void writeJSONString(final List<?> list, final Writer out, final IJSONContext context, final boolean strict) throws IOException
     {
         boolean first = true;
 
         final int size = list.size();
 
+        final IJSONArrayReplacer replacer = (null == context) ? null : context.getArrayReplacer();
+
         out.write('[');
 
         for (int i = 0; i < size; i++)
         {
             Object valu = list.get(i);
 
+            if (null != replacer)
+            {
+                valu = replace(replacer, i, valu);
+            }
             if (first)
             {
                 first = false;
@@ -141,14 +157,22 @@ public class JSONArray extends ArrayList<Object> implements JSONArrayDefinition<
         }
         boolean first = true;
 
+        int index = 0;
+
         final Iterator<?> iter = list.iterator();
 
+        final IJSONArrayReplacer replacer = (null == context) ? null : context.getArrayReplacer();
+
         out.write('[');
 
         while (iter.hasNext())
         {
-            final Object valu = iter.next();
+            Object valu = iter.next();
 
+            if (null != replacer)
+            {
+                valu = replace(replacer, index++, valu);
+            }
             if (first)
             {
                 first = false;
@@ -183,13 +207,63 @@ public class JSONArray extends ArrayList<Object> implements JSONArrayDefinition<
     @Override
     public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
     {
-        writeJSONString(this, out, context, false);
+        writeJSONString(this, JSONPrettyWriter.wrap(out, context), context, false);
     }
 
     @Override
     public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
     {
-        writeJSONString(this, out, context, strict);
+        writeJSONString(this, JSONPrettyWriter.wrap(out, context), context, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, null, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, null, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final ByteBuffer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, strict);
+    }
+
+    public byte[] toJSONBytes()
+    {
+        return JSONUtils.toJSONBytes(this, null, false);
+    }
+
+    public byte[] toJSONBytes(final boolean strict)
+    {
+        return JSONUtils.toJSONBytes(this, null, strict);
+    }
+
+    public JSONArray freeze()
+    {
+        return new FrozenJSONArray(this);
+    }
+
+    public boolean isFrozen()
+    {
+        return false;
     }
 
     @Override
@@ -337,27 +411,19 @@ public class JSONArray extends ArrayList<Object> implements JSONArrayDefinition<
     @Override
     public int hashCode()
     {
-        return toString().hashCode();
+        return JSONUtils.valueHashCode(this);
     }
 
     @Override
     public boolean equals(final Object other)
     {
-        if (null == other)
-        {
-            return false;
-        }
         if (this == other)
         {
             return true;
         }
-        if (other instanceof JSONArray)
-        {
-            return toString().equals(other.toString());
-        }
         if (other instanceof List)
         {
-            return toString().equals(new JSONArray((List<?>) other).toString());
+            return JSONUtils.valueEquals(this, other);
         }
         return false;
     }
@@ -395,7 +461,7 @@ public class JSONArray extends ArrayList<Object> implements JSONArrayDefinition<
         {
             return JSONType.ARRAY;
         }
-        if (object instanceof Date)
+        if (JSONUtils.isDate(object))
         {
             return JSONType.DATE;
         }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class JSONBooleanArray extends AbstractPrimitiveJSONArray
+{
+    private static final long      serialVersionUID = 7385297451026353158L;
+
+    private static final boolean[] EMPTY_VALUES     = new boolean[0];
+
+    private transient boolean[]    m_values         = EMPTY_VALUES;
+
+    public JSONBooleanArray()
+    {
+    }
+
+    public JSONBooleanArray(final int capacity)
+    {
+        m_values = new boolean[Math.max(0, capacity)];
+    }
+
+    public JSONBooleanArray(final boolean[] values)
+    {
+        this(values, 0, values.length);
+    }
+
+    public JSONBooleanArray(final boolean[] values, final int offset, final int length)
+    {
+        m_values = Arrays.copyOfRange(Objects.requireNonNull(values), offset, offset + length);
+
+        m_size = length;
+    }
+
+    public boolean getBoolean(final int index)
+    {
+        if (isBoxed())
+        {
+            return ((Boolean) get(index)).booleanValue();
+        }
+        checkIndex(index);
+
+        return m_values[index];
+    }
+
+    public void setBoolean(final int index, final boolean value)
+    {
+        if (isBoxed())
+        {
+            set(index, Boolean.valueOf(value));
+
+            return;
+        }
+        checkIndex(index);
+
+        m_values[index] = value;
+    }
+
+    public JSONBooleanArray addBoolean(final boolean value)
+    {
+        if (isBoxed())
+        {
+            add(Boolean.valueOf(value));
+
+            return this;
+        }
+        growFor(1);
+
+        m_values[m_size++] = value;
+
+        modCount++;
+
+        return this;
+    }
+
+    public boolean[] toBooleanArray()
+    {
+        if (isBoxed())
+        {
+            final int size = size();
+
+            final boolean[] values = new boolean[size];
+
+            for (int i = 0; i < size; i++)
+            {
+                values[i] = getBoolean(i);
+            }
+            return values;
+        }
+        return Arrays.copyOf(m_values, m_size);
+    }
+
+    @Override
+    final int capacity()
+    {
+        return m_values.length;
+    }
+
+    @Override
+    final void resize(final int capacity)
+    {
+        m_values = Arrays.copyOf(m_values, capacity);
+    }
+
+    @Override
+    final Object storage()
+    {
+        return m_values;
+    }
+
+    @Override
+    final void detach()
+    {
+        m_values = m_values.clone();
+    }
+
+    @Override
+    final void release()
+    {
+        m_values = EMPTY_VALUES;
+    }
+
+    @Override
+    final boolean accepts(final Object value)
+    {
+        return (value instanceof Boolean);
+    }
+
+    @Override
+    final Object box(final int index)
+    {
+        return Boolean.valueOf(m_values[index]);
+    }
+
+    @Override
+    final void store(final int index, final Object value)
+    {
+        m_values[index] = ((Boolean) value).booleanValue();
+    }
+
+    @Override
+    final void sortNatural()
+    {
+        int falses = 0;
+
+        for (int i = 0; i < m_size; i++)
+        {
+            if (false == m_values[i])
+            {
+                falses++;
+            }
+        }
+        Arrays.fill(m_values, 0, falses, false);
+
+        Arrays.fill(m_values, falses, m_size, true);
+    }
+
+    @Override
+    final void writeValues(final Writer out, final boolean strict) throws IOException
+    {
+        final int size = m_size;
+
+        final boolean[] values = m_values;
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                out.write(',');
+            }
+            out.write(values[i] ? "true" : "false");
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.ait.tooling.server.core.json;
 
+import java.util.Objects;
+
 public class JSONContext implements IJSONContext
 {
     private IJSONObjectReplacer m_obreplacer;
@@ -26,6 +28,10 @@ public class JSONContext implements IJSONContext
 
     private JSONNumberFormatter m_nformatter;
 
+    private int                 m_indentwide;
+
+    private String              m_linebreaks = "\n";
+
     public JSONContext()
     {
     }
@@ -39,6 +45,10 @@ public class JSONContext implements IJSONContext
         setDateFormatter(context.getDateFormatter());
 
         setNumberFormatter(context.getNumberFormatter());
+
+        setIndentWidth(context.getIndentWidth());
+
+        setLineSeparator(context.getLineSeparator());
     }
 
     public JSONContext setObjectReplacer(final IJSONObjectReplacer replacer)
@@ -92,4 +102,30 @@ public class JSONContext implements IJSONContext
 
         return this;
     }
+
+    @Override
+    public int getIndentWidth()
+    {
+        return m_indentwide;
+    }
+
+    public JSONContext setIndentWidth(final int indent)
+    {
+        m_indentwide = Math.max(0, indent);
+
+        return this;
+    }
+
+    @Override
+    public String getLineSeparator()
+    {
+        return m_linebreaks;
+    }
+
+    public JSONContext setLineSeparator(final String separator)
+    {
+        m_linebreaks = Objects.requireNonNull(separator);
+
+        return this;
+    }
 }
@@ -20,6 +20,10 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
 import java.util.Objects;
 
@@ -70,6 +74,15 @@ public abstract class JSONDateFormatter
         return m_format.get().format(Objects.requireNonNull(date));
     }
 
+    public String format(final TemporalAccessor value)
+    {
+        if (value instanceof LocalDateTime)
+        {
+            return format(Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant()));
+        }
+        return format(Date.from(Instant.from(Objects.requireNonNull(value))));
+    }
+
     public Date parse(final String source) throws ParseException
     {
         return m_format.get().parse(Objects.requireNonNull(source));
@@ -0,0 +1,551 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.ait.tooling.server.core.json.path.JSONPointer;
+
+public final class JSONDiff
+{
+    public static final int     DEFAULT_LCS_LIMIT = 1 << 20;
+
+    private static final String OP_ADD            = "add";
+
+    private static final String OP_REMOVE         = "remove";
+
+    private static final String OP_REPLACE        = "replace";
+
+    private static final String OP_MOVE           = "move";
+
+    private static final String OP_COPY           = "copy";
+
+    private static final String OP_TEST           = "test";
+
+    private JSONDiff()
+    {
+    }
+
+    public static final JSONArray diff(final Object source, final Object target)
+    {
+        return diff(source, target, DEFAULT_LCS_LIMIT);
+    }
+
+    public static final JSONArray diff(final Object source, final Object target, final int limit)
+    {
+        final JSONArray patch = new JSONArray();
+
+        diff("", source, target, patch, limit);
+
+        return patch;
+    }
+
+    private static final void diff(final String path, final Object source, final Object target, final JSONArray patch, final int limit)
+    {
+        if (source == target)
+        {
+            return;
+        }
+        if ((source instanceof Map) && (target instanceof Map))
+        {
+            diffMap(path, (Map<?, ?>) source, (Map<?, ?>) target, patch, limit);
+        }
+        else if ((source instanceof List) && (target instanceof List))
+        {
+            diffList(path, (List<?>) source, (List<?>) target, patch, limit);
+        }
+        else if (false == JSONUtils.valueEquals(source, target))
+        {
+            patch.add(operation(OP_REPLACE, path, target));
+        }
+    }
+
+    private static final void diffMap(final String path, final Map<?, ?> source, final Map<?, ?> target, final JSONArray patch, final int limit)
+    {
+        for (Map.Entry<?, ?> entry : source.entrySet())
+        {
+            final Object name = entry.getKey();
+
+            final String next = path + '/' + escape(name.toString());
+
+            final Object valu = target.get(name);
+
+            if ((null == valu) && (false == target.containsKey(name)))
+            {
+                patch.add(operation(OP_REMOVE, next, null));
+            }
+            else
+            {
+                diff(next, entry.getValue(), valu, patch, limit);
+            }
+        }
+        for (Map.Entry<?, ?> entry : target.entrySet())
+        {
+            final Object name = entry.getKey();
+
+            if (false == source.containsKey(name))
+            {
+                patch.add(operation(OP_ADD, path + '/' + escape(name.toString()), entry.getValue()));
+            }
+        }
+    }
+
+    private static final void diffList(final String path, final List<?> source, final List<?> target, final JSONArray patch, final int limit)
+    {
+        int head = 0;
+
+        int stop = source.size();
+
+        int tail = target.size();
+
+        // Common prefixes and suffixes are trimmed first, so the LCS table only ever covers the region that actually changed.
+
+        while ((head < stop) && (head < tail) && same(source.get(head), target.get(head)))
+        {
+            head++;
+        }
+        while ((stop > head) && (tail > head) && same(source.get(stop - 1), target.get(tail - 1)))
+        {
+            stop--;
+
+            tail--;
+        }
+        final int n = stop - head;
+
+        final int m = tail - head;
+
+        if ((n > 0) && (m > 0) && (((long) (n + 1)) * (m + 1) <= limit))
+        {
+            diffLCS(path, source, target, head, n, m, patch, limit);
+        }
+        else
+        {
+            diffGap(path, source, target, head, head, n, head, m, patch, limit);
+        }
+    }
+
+    private static final void diffLCS(final String path, final List<?> source, final List<?> target, final int base, final int n, final int m, final JSONArray patch, final int limit)
+    {
+        final int[] hs = new int[n];
+
+        final int[] ht = new int[m];
+
+        for (int i = 0; i < n; i++)
+        {
+            hs[i] = JSONUtils.valueHashCode(source.get(base + i));
+        }
+        for (int j = 0; j < m; j++)
+        {
+            ht[j] = JSONUtils.valueHashCode(target.get(base + j));
+        }
+        // Suffix lengths, so the alignment can be walked forwards while the patch indexes stay in step with the array being patched.
+
+        final int[] lcs = new int[(n + 1) * (m + 1)];
+
+        final int wide = m + 1;
+
+        for (int i = n - 1; i >= 0; i--)
+        {
+            for (int j = m - 1; j >= 0; j--)
+            {
+                if ((hs[i] == ht[j]) && JSONUtils.valueEquals(source.get(base + i), target.get(base + j)))
+                {
+                    lcs[(i * wide) + j] = lcs[((i + 1) * wide) + j + 1] + 1;
+                }
+                else
+                {
+                    lcs[(i * wide) + j] = Math.max(lcs[((i + 1) * wide) + j], lcs[(i * wide) + j + 1]);
+                }
+            }
+        }
+        int i = 0;
+
+        int j = 0;
+
+        int gi = 0;
+
+        int gj = 0;
+
+        int posn = base;
+
+        while ((i < n) && (j < m))
+        {
+            if ((hs[i] == ht[j]) && (lcs[(i * wide) + j] == (lcs[((i + 1) * wide) + j + 1] + 1)) && JSONUtils.valueEquals(source.get(base + i), target.get(base + j)))
+            {
+                // Whatever was skipped since the last common element is a gap - pairs in it are diffed in place, the rest removed or added.
+
+                posn = diffGap(path, source, target, posn, base + gi, i - gi, base + gj, j - gj, patch, limit) + 1;
+
+                gi = ++i;
+
+                gj = ++j;
+            }
+            else if (lcs[((i + 1) * wide) + j] >= lcs[(i * wide) + j + 1])
+            {
+                i++;
+            }
+            else
+            {
+                j++;
+            }
+        }
+        diffGap(path, source, target, posn, base + gi, n - gi, base + gj, m - gj, patch, limit);
+    }
+
+    private static final int diffGap(final String path, final List<?> source, final List<?> target, int posn, final int from, final int n, final int into, final int m, final JSONArray patch, final int limit)
+    {
+        final int both = Math.min(n, m);
+
+        for (int k = 0; k < both; k++)
+        {
+            diff(path + '/' + posn, source.get(from + k), target.get(into + k), patch, limit);
+
+            posn++;
+        }
+        for (int k = both; k < n; k++)
+        {
+            patch.add(operation(OP_REMOVE, path + '/' + posn, null));
+        }
+        for (int k = both; k < m; k++)
+        {
+            patch.add(operation(OP_ADD, path + '/' + posn, target.get(into + k)));
+
+            posn++;
+        }
+        return posn;
+    }
+
+    private static final boolean same(final Object a, final Object b)
+    {
+        return ((a == b) || JSONUtils.valueEquals(a, b));
+    }
+
+    private static final JSONObject operation(final String op, final String path, final Object value)
+    {
+        final JSONObject json = new JSONObject();
+
+        json.put("op", op);
+
+        json.put("path", path);
+
+        if (false == OP_REMOVE.equals(op))
+        {
+            json.put("value", value);
+        }
+        return json;
+    }
+
+    private static final String escape(final String name)
+    {
+        if ((name.indexOf('~') < 0) && (name.indexOf('/') < 0))
+        {
+            return name;
+        }
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    public static final Object apply(final Object target, final List<?> patch)
+    {
+        Objects.requireNonNull(patch);
+
+        Object root = target;
+
+        // Operations are applied in place, one after another - a failing operation leaves the earlier ones applied.
+
+        for (Object item : patch)
+        {
+            if (false == (item instanceof Map))
+            {
+                throw new IllegalArgumentException("patch operation is not an object: " + item);
+            }
+            final Map<?, ?> oper = ((Map<?, ?>) item);
+
+            final String op = string(oper, "op");
+
+            final JSONPointer path = JSONPointer.compile(string(oper, "path"));
+
+            switch (op)
+            {
+                case OP_ADD:
+                    root = add(root, path, member(oper, "value"));
+                    break;
+                case OP_REMOVE:
+                    root = remove(root, path, null);
+                    break;
+                case OP_REPLACE:
+                    root = replace(root, path, member(oper, "value"));
+                    break;
+                case OP_MOVE:
+                {
+                    final JSONPointer from = JSONPointer.compile(string(oper, "from"));
+
+                    if (path.getPointer().startsWith(from.getPointer() + '/'))
+                    {
+                        throw new IllegalArgumentException("cannot move " + from + " into its own child " + path);
+                    }
+                    final Object[] hold = new Object[1];
+
+                    root = add(remove(root, from, hold), path, hold[0]);
+                    break;
+                }
+                case OP_COPY:
+                {
+                    final JSONPointer from = JSONPointer.compile(string(oper, "from"));
+
+                    if (false == from.exists(root))
+                    {
+                        throw new IllegalArgumentException("path does not exist " + from);
+                    }
+                    root = add(root, path, copy(from.get(root)));
+                    break;
+                }
+                case OP_TEST:
+                    if ((false == path.exists(root)) || (false == JSONUtils.valueEquals(path.get(root), member(oper, "value"))))
+                    {
+                        throw new IllegalArgumentException("test failed at " + path);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown patch operation " + op);
+            }
+        }
+        return root;
+    }
+
+    private static final String string(final Map<?, ?> oper, final String name)
+    {
+        final Object value = oper.get(name);
+
+        if (value instanceof String)
+        {
+            return ((String) value);
+        }
+        throw new IllegalArgumentException("patch operation needs a string " + name + ": " + oper);
+    }
+
+    private static final Object member(final Map<?, ?> oper, final String name)
+    {
+        if (false == oper.containsKey(name))
+        {
+            throw new IllegalArgumentException("patch operation needs a " + name + ": " + oper);
+        }
+        return oper.get(name);
+    }
+
+    private static final Object parent(final Object root, final JSONPointer path)
+    {
+        Object node = root;
+
+        final int last = path.size() - 1;
+
+        for (int i = 0; i < last; i++)
+        {
+            final String name = path.getToken(i);
+
+            if (node instanceof Map)
+            {
+                final Map<?, ?> map = ((Map<?, ?>) node);
+
+                if (false == map.containsKey(name))
+                {
+                    throw new IllegalArgumentException("path does not exist " + path);
+                }
+                node = map.get(name);
+            }
+            else if (node instanceof List)
+            {
+                final List<?> list = ((List<?>) node);
+
+                node = list.get(index(list, name, false, path));
+            }
+            else
+            {
+                throw new IllegalArgumentException("path does not exist " + path);
+            }
+        }
+        return node;
+    }
+
+    private static final int index(final List<?> list, final String name, final boolean append, final JSONPointer path)
+    {
+        final int size = list.size();
+
+        if (append && "-".equals(name))
+        {
+            return size;
+        }
+        final int length = name.length();
+
+        if ((length < 1) || (length > 9) || ((length > 1) && ('0' == name.charAt(0))))
+        {
+            throw new IllegalArgumentException("bad array index in " + path);
+        }
+        int index = 0;
+
+        for (int i = 0; i < length; i++)
+        {
+            final char c = name.charAt(i);
+
+            if ((c < '0') || (c > '9'))
+            {
+                throw new IllegalArgumentException("bad array index in " + path);
+            }
+            index = (index * 10) + (c - '0');
+        }
+        if (index > (append ? size : size - 1))
+        {
+            throw new IllegalArgumentException("array index out of range in " + path);
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Object add(final Object root, final JSONPointer path, final Object value)
+    {
+        if (0 == path.size())
+        {
+            return value;
+        }
+        final Object node = parent(root, path);
+
+        final String name = path.getToken(path.size() - 1);
+
+        if (node instanceof Map)
+        {
+            ((Map<String, Object>) node).put(name, value);
+        }
+        else if (node instanceof List)
+        {
+            final List<Object> list = ((List<Object>) node);
+
+            list.add(index(list, name, true, path), value);
+        }
+        else
+        {
+            throw new IllegalArgumentException("path does not exist " + path);
+        }
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Object replace(final Object root, final JSONPointer path, final Object value)
+    {
+        if (0 == path.size())
+        {
+            return value;
+        }
+        final Object node = parent(root, path);
+
+        final String name = path.getToken(path.size() - 1);
+
+        if (node instanceof Map)
+        {
+            final Map<String, Object> map = ((Map<String, Object>) node);
+
+            if (false == map.containsKey(name))
+            {
+                throw new IllegalArgumentException("path does not exist " + path);
+            }
+            map.put(name, value);
+        }
+        else if (node instanceof List)
+        {
+            final List<Object> list = ((List<Object>) node);
+
+            list.set(index(list, name, false, path), value);
+        }
+        else
+        {
+            throw new IllegalArgumentException("path does not exist " + path);
+        }
+        return root;
+    }
+
+    private static final Object remove(final Object root, final JSONPointer path, final Object[] hold)
+    {
+        if (0 == path.size())
+        {
+            if (null != hold)
+            {
+                hold[0] = root;
+            }
+            return null;
+        }
+        final Object node = parent(root, path);
+
+        final String name = path.getToken(path.size() - 1);
+
+        Object valu;
+
+        if (node instanceof Map)
+        {
+            final Map<?, ?> map = ((Map<?, ?>) node);
+
+            if (false == map.containsKey(name))
+            {
+                throw new IllegalArgumentException("path does not exist " + path);
+            }
+            valu = map.remove(name);
+        }
+        else if (node instanceof List)
+        {
+            final List<?> list = ((List<?>) node);
+
+            valu = list.remove(index(list, name, false, path));
+        }
+        else
+        {
+            throw new IllegalArgumentException("path does not exist " + path);
+        }
+        if (null != hold)
+        {
+            hold[0] = valu;
+        }
+        return root;
+    }
+
+    private static final Object copy(final Object value)
+    {
+        if (value instanceof Map)
+        {
+            final Map<?, ?> map = ((Map<?, ?>) value);
+
+            final JSONObject json = new JSONObject();
+
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                json.put(entry.getKey().toString(), copy(entry.getValue()));
+            }
+            return json;
+        }
+        if (value instanceof List)
+        {
+            final List<?> list = ((List<?>) value);
+
+            final JSONArray jarr = new JSONArray(list.size());
+
+            for (Object item : list)
+            {
+                jarr.add(copy(item));
+            }
+            return jarr;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class JSONDoubleArray extends AbstractPrimitiveJSONArray
+{
+    private static final long     serialVersionUID = -6427346180736384271L;
+
+    private static final double[] EMPTY_VALUES     = new double[0];
+
+    private transient double[]    m_values         = EMPTY_VALUES;
+
+    public JSONDoubleArray()
+    {
+    }
+
+    public JSONDoubleArray(final int capacity)
+    {
+        m_values = new double[Math.max(0, capacity)];
+    }
+
+    public JSONDoubleArray(final double[] values)
+    {
+        this(values, 0, values.length);
+    }
+
+    public JSONDoubleArray(final double[] values, final int offset, final int length)
+    {
+        m_values = Arrays.copyOfRange(Objects.requireNonNull(values), offset, offset + length);
+
+        m_size = length;
+    }
+
+    public double getDouble(final int index)
+    {
+        if (isBoxed())
+        {
+            return ((Number) get(index)).doubleValue();
+        }
+        checkIndex(index);
+
+        return m_values[index];
+    }
+
+    public void setDouble(final int index, final double value)
+    {
+        if (isBoxed())
+        {
+            set(index, Double.valueOf(value));
+
+            return;
+        }
+        checkIndex(index);
+
+        m_values[index] = value;
+    }
+
+    public JSONDoubleArray addDouble(final double value)
+    {
+        if (isBoxed())
+        {
+            add(Double.valueOf(value));
+
+            return this;
+        }
+        growFor(1);
+
+        m_values[m_size++] = value;
+
+        modCount++;
+
+        return this;
+    }
+
+    public double[] toDoubleArray()
+    {
+        if (isBoxed())
+        {
+            final int size = size();
+
+            final double[] values = new double[size];
+
+            for (int i = 0; i < size; i++)
+            {
+                values[i] = getDouble(i);
+            }
+            return values;
+        }
+        return Arrays.copyOf(m_values, m_size);
+    }
+
+    @Override
+    final int capacity()
+    {
+        return m_values.length;
+    }
+
+    @Override
+    final void resize(final int capacity)
+    {
+        m_values = Arrays.copyOf(m_values, capacity);
+    }
+
+    @Override
+    final Object storage()
+    {
+        return m_values;
+    }
+
+    @Override
+    final void detach()
+    {
+        m_values = m_values.clone();
+    }
+
+    @Override
+    final void release()
+    {
+        m_values = EMPTY_VALUES;
+    }
+
+    @Override
+    final boolean accepts(final Object value)
+    {
+        return (value instanceof Double);
+    }
+
+    @Override
+    final Object box(final int index)
+    {
+        return Double.valueOf(m_values[index]);
+    }
+
+    @Override
+    final void store(final int index, final Object value)
+    {
+        m_values[index] = ((Double) value).doubleValue();
+    }
+
+    @Override
+    final void sortNatural()
+    {
+        Arrays.sort(m_values, 0, m_size);
+    }
+
+    @Override
+    final void writeValues(final Writer out, final boolean strict) throws IOException
+    {
+        final int size = m_size;
+
+        final double[] values = m_values;
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                out.write(',');
+            }
+            JSONNumberWriter.writeDouble(out, values[i]);
+        }
+    }
+}
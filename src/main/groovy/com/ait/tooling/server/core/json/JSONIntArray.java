@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class JSONIntArray extends AbstractPrimitiveJSONArray
+{
+    private static final long  serialVersionUID = -2846155346328516315L;
+
+    private static final int[] EMPTY_VALUES     = new int[0];
+
+    private transient int[]    m_values         = EMPTY_VALUES;
+
+    public JSONIntArray()
+    {
+    }
+
+    public JSONIntArray(final int capacity)
+    {
+        m_values = new int[Math.max(0, capacity)];
+    }
+
+    public JSONIntArray(final int[] values)
+    {
+        this(values, 0, values.length);
+    }
+
+    public JSONIntArray(final int[] values, final int offset, final int length)
+    {
+        m_values = Arrays.copyOfRange(Objects.requireNonNull(values), offset, offset + length);
+
+        m_size = length;
+    }
+
+    public int getInt(final int index)
+    {
+        if (isBoxed())
+        {
+            return ((Integer) get(index)).intValue();
+        }
+        checkIndex(index);
+
+        return m_values[index];
+    }
+
+    public void setInt(final int index, final int value)
+    {
+        if (isBoxed())
+        {
+            set(index, Integer.valueOf(value));
+
+            return;
+        }
+        checkIndex(index);
+
+        m_values[index] = value;
+    }
+
+    public JSONIntArray addInt(final int value)
+    {
+        if (isBoxed())
+        {
+            add(Integer.valueOf(value));
+
+            return this;
+        }
+        growFor(1);
+
+        m_values[m_size++] = value;
+
+        modCount++;
+
+        return this;
+    }
+
+    public int[] toIntArray()
+    {
+        if (isBoxed())
+        {
+            final int size = size();
+
+            final int[] values = new int[size];
+
+            for (int i = 0; i < size; i++)
+            {
+                values[i] = getInt(i);
+            }
+            return values;
+        }
+        return Arrays.copyOf(m_values, m_size);
+    }
+
+    @Override
+    final int capacity()
+    {
+        return m_values.length;
+    }
+
+    @Override
+    final void resize(final int capacity)
+    {
+        m_values = Arrays.copyOf(m_values, capacity);
+    }
+
+    @Override
+    final Object storage()
+    {
+        return m_values;
+    }
+
+    @Override
+    final void detach()
+    {
+        m_values = m_values.clone();
+    }
+
+    @Override
+    final void release()
+    {
+        m_values = EMPTY_VALUES;
+    }
+
+    @Override
+    final boolean accepts(final Object value)
+    {
+        return (value instanceof Integer);
+    }
+
+    @Override
+    final Object box(final int index)
+    {
+        return Integer.valueOf(m_values[index]);
+    }
+
+    @Override
+    final void store(final int index, final Object value)
+    {
+        m_values[index] = ((Integer) value).intValue();
+    }
+
+    @Override
+    final void sortNatural()
+    {
+        Arrays.sort(m_values, 0, m_size);
+    }
+
+    @Override
+    final void writeValues(final Writer out, final boolean strict) throws IOException
+    {
+        final int size = m_size;
+
+        final int[] values = m_values;
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                out.write(',');
+            }
+            JSONNumberWriter.writeInt(out, values[i]);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+final class JSONKeyMatcher
+{
+    private static final int               MAXIMUM_BITS = 12;
+
+    private static final int               SEARCH_LIMIT = 256;
+
+    private final String[]                 m_keys;
+
+    private final String[]                 m_table;
+
+    private final int[]                    m_hashes;
+
+    private final int[]                    m_index;
+
+    private final int                      m_multiply;
+
+    private final int                      m_shift;
+
+    private final HashMap<String, Integer> m_others;
+
+    JSONKeyMatcher(final Collection<String> keys)
+    {
+        m_keys = new LinkedHashSet<String>(keys).toArray(new String[0]);
+
+        final int size = m_keys.length;
+
+        final long found = findPerfect(m_keys);
+
+        if (found < 0)
+        {
+            m_table = null;
+
+            m_hashes = null;
+
+            m_index = null;
+
+            m_multiply = 0;
+
+            m_shift = 0;
+
+            m_others = new HashMap<String, Integer>(size * 2);
+
+            for (int i = 0; i < size; i++)
+            {
+                m_others.put(m_keys[i], i);
+            }
+            return;
+        }
+        final int bits = (int) (found >>> 32);
+
+        m_multiply = (int) found;
+
+        m_shift = 32 - bits;
+
+        m_table = new String[1 << bits];
+
+        m_hashes = new int[1 << bits];
+
+        m_index = new int[1 << bits];
+
+        m_others = null;
+
+        for (int i = 0; i < size; i++)
+        {
+            final int hash = m_keys[i].hashCode();
+
+            final int slot = (hash * m_multiply) >>> m_shift;
+
+            m_table[slot] = m_keys[i];
+
+            m_hashes[slot] = hash;
+
+            m_index[slot] = i;
+        }
+    }
+
+    private static final long findPerfect(final String[] keys)
+    {
+        // Look for a multiplier that sends every (cached) String hash to its own slot, so a lookup is one multiply, one shift and at most
+        // one equals() - the hash check in front of it rejects almost every miss. Sets that are too large or have colliding hashes use a HashMap.
+
+        int bits = Math.max(1, 33 - Integer.numberOfLeadingZeros(Math.max(1, keys.length)));
+
+        final int last = Math.min(MAXIMUM_BITS, (2 * bits) + 2);
+
+        for (; bits <= last; bits++)
+        {
+            final int shift = 32 - bits;
+
+            final boolean[] used = new boolean[1 << bits];
+
+            int multiply = 0x9E3779B9;
+
+            for (int tries = 0; tries < SEARCH_LIMIT; tries++)
+            {
+                if (isPerfect(keys, used, multiply, shift))
+                {
+                    return (((long) bits) << 32) | (multiply & 0xFFFFFFFFL);
+                }
+                multiply = ((multiply * 0x5DEECE6D) + 0x2B) | 1;
+            }
+        }
+        return -1;
+    }
+
+    private static final boolean isPerfect(final String[] keys, final boolean[] used, final int multiply, final int shift)
+    {
+        Arrays.fill(used, false);
+
+        for (String key : keys)
+        {
+            final int slot = (key.hashCode() * multiply) >>> shift;
+
+            if (used[slot])
+            {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+
+    int size()
+    {
+        return m_keys.length;
+    }
+
+    String getKey(final int index)
+    {
+        return m_keys[index];
+    }
+
+    int indexOf(final String name)
+    {
+        if (null != m_others)
+        {
+            final Integer index = m_others.get(name);
+
+            return (null == index) ? -1 : index;
+        }
+        final int hash = name.hashCode();
+
+        final int slot = (hash * m_multiply) >>> m_shift;
+
+        if (m_hashes[slot] == hash)
+        {
+            final String find = m_table[slot];
+
+            if ((null != find) && ((find == name) || find.equals(name)))
+            {
+                return m_index[slot];
+            }
+        }
+        return -1;
+    }
+
+    boolean contains(final String name)
+    {
+        return (indexOf(name) >= 0);
+    }
+}
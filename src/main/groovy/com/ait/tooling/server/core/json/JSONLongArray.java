@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class JSONLongArray extends AbstractPrimitiveJSONArray
+{
+    private static final long   serialVersionUID = 4417734861298462210L;
+
+    private static final long[] EMPTY_VALUES     = new long[0];
+
+    private transient long[]    m_values         = EMPTY_VALUES;
+
+    public JSONLongArray()
+    {
+    }
+
+    public JSONLongArray(final int capacity)
+    {
+        m_values = new long[Math.max(0, capacity)];
+    }
+
+    public JSONLongArray(final long[] values)
+    {
+        this(values, 0, values.length);
+    }
+
+    public JSONLongArray(final long[] values, final int offset, final int length)
+    {
+        m_values = Arrays.copyOfRange(Objects.requireNonNull(values), offset, offset + length);
+
+        m_size = length;
+    }
+
+    static final Number boxed(final long value)
+    {
+        // Same boxing the parser uses, so a specialized array reads back exactly like a plain one.
+
+        if ((value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE))
+        {
+            return Integer.valueOf((int) value);
+        }
+        return Long.valueOf(value);
+    }
+
+    public boolean isIntegerRange()
+    {
+        final int size = size();
+
+        for (int i = 0; i < size; i++)
+        {
+            final long lval = getLong(i);
+
+            if ((lval < Integer.MIN_VALUE) || (lval > Integer.MAX_VALUE))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getLong(final int index)
+    {
+        if (isBoxed())
+        {
+            return ((Number) get(index)).longValue();
+        }
+        checkIndex(index);
+
+        return m_values[index];
+    }
+
+    public void setLong(final int index, final long value)
+    {
+        if (isBoxed())
+        {
+            set(index, boxed(value));
+
+            return;
+        }
+        checkIndex(index);
+
+        m_values[index] = value;
+    }
+
+    public JSONLongArray addLong(final long value)
+    {
+        if (isBoxed())
+        {
+            add(boxed(value));
+
+            return this;
+        }
+        growFor(1);
+
+        m_values[m_size++] = value;
+
+        modCount++;
+
+        return this;
+    }
+
+    public long[] toLongArray()
+    {
+        if (isBoxed())
+        {
+            final int size = size();
+
+            final long[] values = new long[size];
+
+            for (int i = 0; i < size; i++)
+            {
+                values[i] = getLong(i);
+            }
+            return values;
+        }
+        return Arrays.copyOf(m_values, m_size);
+    }
+
+    @Override
+    final int capacity()
+    {
+        return m_values.length;
+    }
+
+    @Override
+    final void resize(final int capacity)
+    {
+        m_values = Arrays.copyOf(m_values, capacity);
+    }
+
+    @Override
+    final Object storage()
+    {
+        return m_values;
+    }
+
+    @Override
+    final void detach()
+    {
+        m_values = m_values.clone();
+    }
+
+    @Override
+    final void release()
+    {
+        m_values = EMPTY_VALUES;
+    }
+
+    @Override
+    final boolean accepts(final Object value)
+    {
+        return ((value instanceof Long) || (value instanceof Integer));
+    }
+
+    @Override
+    final Object box(final int index)
+    {
+        return boxed(m_values[index]);
+    }
+
+    @Override
+    final void store(final int index, final Object value)
+    {
+        m_values[index] = ((Number) value).longValue();
+    }
+
+    @Override
+    final void sortNatural()
+    {
+        Arrays.sort(m_values, 0, m_size);
+    }
+
+    @Override
+    final void writeValues(final Writer out, final boolean strict) throws IOException
+    {
+        final int size = m_size;
+
+        final long[] values = m_values;
+
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                out.write(',');
+            }
+            final long lval = values[i];
+
+            if (strict && ((lval < Integer.MIN_VALUE) || (lval > Integer.MAX_VALUE)))
+            {
+                out.write("null");
+            }
+            else
+            {
+                JSONNumberWriter.writeLong(out, lval);
+            }
+        }
+    }
+}
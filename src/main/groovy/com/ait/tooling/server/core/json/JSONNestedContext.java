@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+final class JSONNestedContext implements IJSONContext
+{
+    private final IJSONContext        m_parent;
+
+    private final IJSONObjectReplacer m_replacer;
+
+    JSONNestedContext(final IJSONContext parent, final IJSONObjectReplacer replacer)
+    {
+        m_parent = parent;
+
+        m_replacer = replacer;
+    }
+
+    @Override
+    public IJSONObjectReplacer getObjectReplacer()
+    {
+        return m_replacer;
+    }
+
+    @Override
+    public IJSONArrayReplacer getArrayReplacer()
+    {
+        return m_parent.getArrayReplacer();
+    }
+
+    @Override
+    public JSONDateFormatter getDateFormatter()
+    {
+        return m_parent.getDateFormatter();
+    }
+
+    @Override
+    public JSONNumberFormatter getNumberFormatter()
+    {
+        return m_parent.getNumberFormatter();
+    }
+
+    @Override
+    public int getIndentWidth()
+    {
+        return m_parent.getIndentWidth();
+    }
+
+    @Override
+    public String getLineSeparator()
+    {
+        return m_parent.getLineSeparator();
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+
+import com.ait.tooling.server.core.io.NoSyncStringBuilderWriter;
+
+final class JSONNumberWriter
+{
+    private static final String NULL_FOR_OUTPUT = "null".intern();
+
+    private static final String LONG_MIN_VALUE  = Long.toString(Long.MIN_VALUE);
+
+    private static final int    MASK_28         = (1 << 28) - 1;
+
+    private static final long   MASK_63         = (1L << 63) - 1;
+
+    private static final long   T_MASK          = (1L << 52) - 1;
+
+    private static final long   C_MIN           = 1L << 52;
+
+    private static final long   C_TINY          = 3;
+
+    private static final int    Q_MIN           = -1074;
+
+    private static final int    K_MIN           = -324;
+
+    private static final int    K_MAX           = 292;
+
+    private static final long[] POW10           = new long[19];
+
+    private static final long[] G               = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static
+    {
+        POW10[0] = 1L;
+
+        for (int i = 1; i < POW10.length; i++)
+        {
+            POW10[i] = POW10[i - 1] * 10L;
+        }
+        // Schubfach's 126 bit approximations of 10^-k, g = floor(10^-k * 2^-r) + 1 with 2^125 <= g < 2^126, split into 63 bit halves.
+
+        for (int k = K_MIN; k <= K_MAX; k++)
+        {
+            final int r = flog2pow10(-k) - 125;
+
+            BigInteger g;
+
+            if (k <= 0)
+            {
+                g = BigInteger.TEN.pow(-k);
+
+                g = (r >= 0) ? g.shiftRight(r) : g.shiftLeft(-r);
+            }
+            else
+            {
+                g = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+
+            G[(k - K_MIN) << 1] = g.shiftRight(63).longValue();
+
+            G[((k - K_MIN) << 1) + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private JSONNumberWriter()
+    {
+    }
+
+    static final void writeInt(final Writer out, final int value) throws IOException
+    {
+        if (out instanceof NoSyncStringBuilderWriter)
+        {
+            ((NoSyncStringBuilderWriter) out).getStringBuilder().append(value);
+
+            return;
+        }
+        writeLong(out, value);
+    }
+
+    static final void writeLong(final Writer out, final long value) throws IOException
+    {
+        if (out instanceof NoSyncStringBuilderWriter)
+        {
+            ((NoSyncStringBuilderWriter) out).getStringBuilder().append(value);
+
+            return;
+        }
+        if (value < 0)
+        {
+            if (Long.MIN_VALUE == value)
+            {
+                out.write(LONG_MIN_VALUE);
+
+                return;
+            }
+            out.write('-');
+
+            writeDigits(out, -value, digits(-value), -1);
+
+            return;
+        }
+        writeDigits(out, value, digits(value), -1);
+    }
+
+    static final void writeDouble(final Writer out, final double value) throws IOException
+    {
+        // Shortest decimal that rounds back to the same double (Schubfach), laid out the way Double.toString() does it.
+
+        final long bits = Double.doubleToRawLongBits(value);
+
+        final long t = bits & T_MASK;
+
+        final int bq = (int) (bits >>> 52) & 0x7FF;
+
+        if (0x7FF == bq)
+        {
+            out.write(NULL_FOR_OUTPUT);
+
+            return;
+        }
+        if (bits < 0)
+        {
+            out.write('-');
+        }
+        if (0 != bq)
+        {
+            final int mq = 1075 - bq;
+
+            final long c = C_MIN | t;
+
+            if ((0 < mq) && (mq < 53))
+            {
+                final long f = c >> mq;
+
+                if ((f << mq) == c)
+                {
+                    writeDecimal(out, f, 0);
+
+                    return;
+                }
+            }
+            writeDecimal(out, -mq, c, 0);
+        }
+        else if (0 != t)
+        {
+            if (t < C_TINY)
+            {
+                writeDecimal(out, Q_MIN, 10 * t, -1);
+            }
+            else
+            {
+                writeDecimal(out, Q_MIN, t, 0);
+            }
+        }
+        else
+        {
+            out.write('0');
+
+            out.write('.');
+
+            out.write('0');
+        }
+    }
+
+    static final void writeNumber(final Writer out, final Number value) throws IOException
+    {
+        if (value instanceof Integer)
+        {
+            writeInt(out, value.intValue());
+        }
+        else if (value instanceof Long)
+        {
+            writeLong(out, value.longValue());
+        }
+        else if (value instanceof Double)
+        {
+            writeDouble(out, value.doubleValue());
+        }
+        else if (null == value)
+        {
+            out.write(NULL_FOR_OUTPUT);
+        }
+        else
+        {
+            out.write(value.toString());
+        }
+    }
+
+    private static final void writeDecimal(final Writer out, final int q, final long c, final int dk) throws IOException
+    {
+        final int odd = (int) c & 0x1;
+
+        final long cb = c << 2;
+
+        final long cbr = cb + 2;
+
+        final long cbl;
+
+        final int k;
+
+        if ((c != C_MIN) | (q == Q_MIN))
+        {
+            cbl = cb - 2;
+
+            k = flog10pow2(q);
+        }
+        else
+        {
+            cbl = cb - 1;
+
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+
+        final long g1 = G[(k - K_MIN) << 1];
+
+        final long g0 = G[((k - K_MIN) << 1) + 1];
+
+        final long vb = rop(g1, g0, cb << h);
+
+        final long vbl = rop(g1, g0, cbl << h);
+
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+
+        if (s >= 100)
+        {
+            final long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+
+            final long tp10 = sp10 + 10;
+
+            final boolean upin = (vbl + odd) <= (sp10 << 2);
+
+            final boolean wpin = ((tp10 << 2) + odd) <= vbr;
+
+            if (upin != wpin)
+            {
+                writeDecimal(out, upin ? sp10 : tp10, k);
+
+                return;
+            }
+        }
+        final long t = s + 1;
+
+        final boolean uin = (vbl + odd) <= (s << 2);
+
+        final boolean win = ((t << 2) + odd) <= vbr;
+
+        if (uin != win)
+        {
+            writeDecimal(out, uin ? s : t, k + dk);
+
+            return;
+        }
+        final long cmp = vb - ((s + t) << 1);
+
+        writeDecimal(out, ((cmp < 0) || ((cmp == 0) && (0 == (s & 0x1)))) ? s : t, k + dk);
+    }
+
+    private static final void writeDecimal(final Writer out, long f, int e) throws IOException
+    {
+        // The value is f * 10^e, 0 < f < 10^18.
+
+        while (0 == (f % 10))
+        {
+            f = f / 10;
+
+            e++;
+        }
+        final int size = digits(f);
+
+        final int exp = e + size;
+
+        if ((0 < exp) && (exp <= 7))
+        {
+            if (size > exp)
+            {
+                writeDigits(out, f, size, exp);
+
+                return;
+            }
+            writeDigits(out, f, size, -1);
+
+            for (int i = size; i < exp; i++)
+            {
+                out.write('0');
+            }
+            out.write('.');
+
+            out.write('0');
+        }
+        else if ((-3 < exp) && (exp <= 0))
+        {
+            out.write('0');
+
+            out.write('.');
+
+            for (int i = exp; i < 0; i++)
+            {
+                out.write('0');
+            }
+            writeDigits(out, f, size, -1);
+        }
+        else
+        {
+            writeDigits(out, f, size, 1);
+
+            if (1 == size)
+            {
+                out.write('.');
+
+                out.write('0');
+            }
+            out.write('E');
+
+            writeInt(out, exp - 1);
+        }
+    }
+
+    private static final void writeDigits(final Writer out, final long value, final int size, final int point) throws IOException
+    {
+        // Left to right, 8 digits at a time, each 8 digit part turned into a 28 bit binary fraction and peeled with multiplies - no per digit division and no buffer.
+
+        int posn = 0;
+
+        int skip = 8 - (size - (((size - 1) >> 3) << 3));
+
+        for (int part = (size - 1) >> 3; part >= 0; part--)
+        {
+            final long high = (part > 0) ? (value / POW10[part << 3]) : value;
+
+            int y = (int) (multiplyHigh(((high % 100000000L) + 1) << 28, 193428131138340668L) >>> 20) - 1;
+
+            for (int i = 0; i < 8; i++)
+            {
+                final int t = 10 * y;
+
+                y = t & MASK_28;
+
+                if (i >= skip)
+                {
+                    if (posn++ == point)
+                    {
+                        out.write('.');
+                    }
+                    out.write('0' + (t >>> 28));
+                }
+            }
+            skip = 0;
+        }
+    }
+
+    private static final int digits(final long value)
+    {
+        if (value < 10)
+        {
+            return 1;
+        }
+        final int size = flog10pow2(64 - Long.numberOfLeadingZeros(value));
+
+        return (value >= POW10[size]) ? (size + 1) : size;
+    }
+
+    private static final long rop(final long g1, final long g0, final long cp)
+    {
+        final long x1 = multiplyHigh(g0, cp);
+
+        final long y0 = g1 * cp;
+
+        final long y1 = multiplyHigh(g1, cp);
+
+        final long z = (y0 >>> 1) + x1;
+
+        final long vbp = y1 + (z >>> 63);
+
+        return vbp | (((z & MASK_63) + MASK_63) >>> 63);
+    }
+
+    private static final long multiplyHigh(final long x, final long y)
+    {
+        // Math.multiplyHigh() is Java 9.
+
+        final long x1 = x >> 32;
+
+        final long x2 = x & 0xFFFFFFFFL;
+
+        final long y1 = y >> 32;
+
+        final long y2 = y & 0xFFFFFFFFL;
+
+        final long z2 = x2 * y2;
+
+        final long t = (x1 * y2) + (z2 >>> 32);
+
+        long z1 = t & 0xFFFFFFFFL;
+
+        final long z0 = t >> 32;
+
+        z1 += x2 * y1;
+
+        return (x1 * y1) + z0 + (z1 >> 32);
+    }
+
+    private static final int flog10pow2(final int e)
+    {
+        return (int) ((e * 661971961083L) >> 41);
+    }
+
+    private static final int flog10threeQuartersPow2(final int e)
+    {
+        return (int) (((e * 661971961083L) - 274743187321L) >> 41);
+    }
+
+    private static final int flog2pow10(final int e)
+    {
+        return (int) ((e * 913124641741L) >> 38);
+    }
+}
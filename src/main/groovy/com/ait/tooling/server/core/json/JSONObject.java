@@ -17,30 +17,39 @@
 package com.ait.tooling.server.core.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ait.tooling.common.api.json.JSONObjectDefinition;
 import com.ait.tooling.common.api.json.JSONType;
-import com.ait.tooling.server.core.json.binder.JSONBinder;
+import com.ait.tooling.server.core.io.NoSyncStringBuilderWriter;
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter;
+import com.ait.tooling.server.core.json.binder.BinderFactory;
 
 public class JSONObject extends LinkedHashMap<String, Object> implements JSONObjectDefinition<JSONArray, JSONObject>, IJSONStreamAware, IJSONEnabled
 {
-    private static final long   serialVersionUID = -6811236788038367702L;
+    private static final long                              serialVersionUID = -6811236788038367702L;
 
-    private static final String NULL_FOR_OUTPUT  = "null".intern();
+    private static final String                            NULL_FOR_OUTPUT  = "null".intern();
 
-    private static final char[] FLUSH_KEY_ARRAY  = { '"', ':' };
+    private static final char[]                            FLUSH_KEY_ARRAY  = { '"', ':' };
+
+    private static final int                               KEY_BYTES_LIMIT  = 4096;
+
+    private static final ConcurrentHashMap<String, byte[]> KEY_BYTES_CACHE  = new ConcurrentHashMap<String, byte[]>();
 
     public JSONObject()
     {
@@ -94,12 +103,42 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
         return json;
     }
 
+    static final byte[] getKeyBytes(final String name) throws IOException
+    {
+        byte[] bytes = KEY_BYTES_CACHE.get(name);
+
+        if (null == bytes)
+        {
+            final NoSyncStringBuilderWriter out = new NoSyncStringBuilderWriter(name.length() + 8);
+
+            out.write('\"');
+
+            JSONUtils.escape(name, out);
+
+            out.write(FLUSH_KEY_ARRAY, 0, 2);
+
+            bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+
+            // Bounded, so objects with generated keys can't grow the cache without limit - those keys just get encoded each time.
+
+            if (KEY_BYTES_CACHE.size() < KEY_BYTES_LIMIT)
+            {
+                KEY_BYTES_CACHE.putIfAbsent(name, bytes);
+            }
+        }
+        return bytes;
+    }
+
     static final void writeJSONString(final Map<?, ?> map, final Writer out, final IJSONContext context, final boolean strict) throws IOException
     {
         // Caution - DO NOT make the mistake that this would be faster iterating through the keys - keys is twice as slow!  DSJ
 
         boolean first = true;
 
+        final NoSyncUTF8OutputStreamWriter utf8 = (out instanceof NoSyncUTF8OutputStreamWriter) ? ((NoSyncUTF8OutputStreamWriter) out) : null;
+
+        final IJSONObjectReplacer replacer = (null == context) ? null : context.getObjectReplacer();
+
         @SuppressWarnings("unchecked")
         final Iterator<Entry<String, Object>> iter = ((Map<String, Object>) map).entrySet().iterator();
 
@@ -111,8 +150,27 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
 
             final String name = entry.getKey();
 
-            final Object valu = entry.getValue();
+            Object valu = entry.getValue();
+
+            IJSONContext scope = context;
+
+            if (null != replacer)
+            {
+                // Replacers run inline - a dropped key is simply never written, and a projection narrows the replacer for the nested value.
 
+                valu = replacer.replace(name, valu);
+
+                if (IJSONReplacerUtil.UNDEFINED == valu)
+                {
+                    continue;
+                }
+                final IJSONObjectReplacer nested = replacer.nested(name);
+
+                if (nested != replacer)
+                {
+                    scope = new JSONNestedContext(context, nested);
+                }
+            }
             if (first)
             {
                 first = false;
@@ -121,11 +179,20 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
             {
                 out.write(',');
             }
-            out.write('\"');
+            if (null != utf8)
+            {
+                final byte[] bytes = getKeyBytes(name);
 
-            JSONUtils.escape(name, out);
+                utf8.writeBytes(bytes, 0, bytes.length);
+            }
+            else
+            {
+                out.write('\"');
 
-            out.write(FLUSH_KEY_ARRAY, 0, 2);
+                JSONUtils.escape(name, out);
+
+                out.write(FLUSH_KEY_ARRAY, 0, 2);
+            }
 
             if (null == valu)
             {
@@ -133,7 +200,7 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
 
                 continue;
             }
-            JSONUtils.writeJSONString(valu, out, context, strict);
+            JSONUtils.writeJSONString(valu, out, scope, strict);
         }
         out.write('}');
     }
@@ -153,13 +220,63 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
     @Override
     public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
     {
-        writeJSONString(this, out, context, false);
+        writeJSONString(this, JSONPrettyWriter.wrap(out, context), context, false);
     }
 
     @Override
     public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
     {
-        writeJSONString(this, out, context, strict);
+        writeJSONString(this, JSONPrettyWriter.wrap(out, context), context, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, null, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, null, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, false);
+    }
+
+    @Override
+    public void writeJSONBytes(final OutputStream out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, strict);
+    }
+
+    @Override
+    public void writeJSONBytes(final ByteBuffer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONUtils.writeJSONBytes(this, out, context, strict);
+    }
+
+    public byte[] toJSONBytes()
+    {
+        return JSONUtils.toJSONBytes(this, null, false);
+    }
+
+    public byte[] toJSONBytes(final boolean strict)
+    {
+        return JSONUtils.toJSONBytes(this, null, strict);
+    }
+
+    public JSONObject freeze()
+    {
+        return new FrozenJSONObject(this);
+    }
+
+    public boolean isFrozen()
+    {
+        return false;
     }
 
     public JSONObject set(final String key, final Object value)
@@ -353,7 +470,7 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
         }
         try
         {
-            T valu = new JSONBinder().bind(this, type);
+            T valu = BinderFactory.getBinder().bind(this, type);
 
             if (null != valu)
             {
@@ -388,28 +505,19 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
     @Override
     public int hashCode()
     {
-        return toString().hashCode();
+        return JSONUtils.valueHashCode(this);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public boolean equals(final Object other)
     {
-        if (null == other)
-        {
-            return false;
-        }
         if (this == other)
         {
             return true;
         }
-        if (other instanceof JSONObject)
-        {
-            return toString().equals(other.toString());
-        }
         if (other instanceof Map)
         {
-            return toString().equals(new JSONObject((Map<String, ?>) other).toString());
+            return JSONUtils.valueEquals(this, other);
         }
         return false;
     }
@@ -447,7 +555,7 @@ public class JSONObject extends LinkedHashMap<String, Object> implements JSONObj
         {
             return JSONType.ARRAY;
         }
-        if (object instanceof Date)
+        if (JSONUtils.isDate(object))
         {
             return JSONType.DATE;
         }
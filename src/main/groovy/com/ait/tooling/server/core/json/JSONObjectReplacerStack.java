@@ -21,7 +21,7 @@ import java.util.Objects;
 
 public class JSONObjectReplacerStack implements IJSONObjectReplacer
 {
-    private final ArrayList<IJSONObjectReplacer> m_list           = new ArrayList<IJSONObjectReplacer>();
+    private final ArrayList<IJSONObjectReplacer> m_list = new ArrayList<IJSONObjectReplacer>();
 
     public JSONObjectReplacerStack()
     {
@@ -78,4 +78,34 @@ public class JSONObjectReplacerStack implements IJSONObjectReplacer
         }
         return value;
     }
+
+    @Override
+    public IJSONObjectReplacer nested(final String name)
+    {
+        final int size = m_list.size();
+
+        JSONObjectReplacerStack stack = null;
+
+        for (int i = 0; i < size; i++)
+        {
+            final IJSONObjectReplacer item = m_list.get(i);
+
+            final IJSONObjectReplacer next = item.nested(name);
+
+            if ((next != item) && (null == stack))
+            {
+                stack = new JSONObjectReplacerStack();
+
+                for (int j = 0; j < i; j++)
+                {
+                    stack.push(m_list.get(j));
+                }
+            }
+            if (null != stack)
+            {
+                stack.push(next);
+            }
+        }
+        return (null == stack) ? this : stack;
+    }
 }
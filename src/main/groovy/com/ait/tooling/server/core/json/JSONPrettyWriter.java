@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class JSONPrettyWriter extends Writer
+{
+    private static final int    SPACES_LENGTH = 256;
+
+    private static final char[] SPACES_CHARS  = makeSpaces();
+
+    private final Writer        m_out;
+
+    private final int           m_indent;
+
+    private final String        m_newline;
+
+    private int                 m_depth;
+
+    private boolean             m_string;
+
+    private boolean             m_escape;
+
+    private boolean             m_opened;
+
+    public JSONPrettyWriter(final Writer out)
+    {
+        this(out, 4, "\n");
+    }
+
+    public JSONPrettyWriter(final Writer out, final int indent, final String newline)
+    {
+        m_out = Objects.requireNonNull(out);
+
+        m_indent = Math.max(0, indent);
+
+        m_newline = Objects.requireNonNull(newline);
+    }
+
+    public static final Writer wrap(final Writer out, final IJSONContext context)
+    {
+        // Nested values are handed the pretty writer itself, so only the outermost call wraps.
+
+        if ((null == context) || (out instanceof JSONPrettyWriter))
+        {
+            return out;
+        }
+        final int indent = context.getIndentWidth();
+
+        if (indent < 1)
+        {
+            return out;
+        }
+        return new JSONPrettyWriter(out, indent, context.getLineSeparator());
+    }
+
+    private static final char[] makeSpaces()
+    {
+        final char[] spaces = new char[SPACES_LENGTH];
+
+        Arrays.fill(spaces, ' ');
+
+        return spaces;
+    }
+
+    public Writer getWriter()
+    {
+        return m_out;
+    }
+
+    public int getDepth()
+    {
+        return m_depth;
+    }
+
+    private final void newline() throws IOException
+    {
+        m_out.write(m_newline);
+
+        int size = m_depth * m_indent;
+
+        while (size > 0)
+        {
+            final int part = Math.min(size, SPACES_LENGTH);
+
+            m_out.write(SPACES_CHARS, 0, part);
+
+            size = size - part;
+        }
+    }
+
+    private final void structure(final char c) throws IOException
+    {
+        // Outside of strings the compact stream is re-laid out - insignificant whitespace is dropped, and the line break after an
+        // opener is held back until the next character so that empty objects and arrays stay on one line.
+
+        switch (c)
+        {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\r':
+                return;
+            case '}':
+            case ']':
+                m_depth--;
+
+                if (m_opened)
+                {
+                    m_opened = false;
+                }
+                else
+                {
+                    newline();
+                }
+                m_out.write(c);
+
+                return;
+            case ',':
+                m_out.write(c);
+
+                newline();
+
+                return;
+            case ':':
+                m_out.write(c);
+
+                m_out.write(' ');
+
+                return;
+            default:
+                if (m_opened)
+                {
+                    m_opened = false;
+
+                    newline();
+                }
+                m_out.write(c);
+
+                if (('{' == c) || ('[' == c))
+                {
+                    m_depth++;
+
+                    m_opened = true;
+                }
+                else if ('"' == c)
+                {
+                    m_string = true;
+                }
+        }
+    }
+
+    private final boolean quoted(final char c)
+    {
+        // Returns true when c closes the string.
+
+        if (m_escape)
+        {
+            m_escape = false;
+        }
+        else if ('\\' == c)
+        {
+            m_escape = true;
+        }
+        else if ('"' == c)
+        {
+            m_string = false;
+
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void write(final int c) throws IOException
+    {
+        if (m_string)
+        {
+            quoted((char) c);
+
+            m_out.write(c);
+        }
+        else
+        {
+            structure((char) c);
+        }
+    }
+
+    @Override
+    public void write(final char[] buf, final int off, final int len) throws IOException
+    {
+        final int last = off + len;
+
+        int i = off;
+
+        while (i < last)
+        {
+            if (m_string)
+            {
+                // String contents go through in runs.
+
+                final int from = i;
+
+                while (i < last)
+                {
+                    if (quoted(buf[i++]))
+                    {
+                        break;
+                    }
+                }
+                m_out.write(buf, from, i - from);
+            }
+            else
+            {
+                structure(buf[i++]);
+            }
+        }
+    }
+
+    @Override
+    public void write(final String str) throws IOException
+    {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException
+    {
+        final int last = off + len;
+
+        int i = off;
+
+        while (i < last)
+        {
+            if (m_string)
+            {
+                final int from = i;
+
+                while (i < last)
+                {
+                    if (quoted(str.charAt(i++)))
+                    {
+                        break;
+                    }
+                }
+                m_out.write(str, from, i - from);
+            }
+            else
+            {
+                structure(str.charAt(i++));
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        m_out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        m_out.close();
+    }
+}
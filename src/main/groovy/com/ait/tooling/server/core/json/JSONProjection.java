@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class JSONProjection implements IJSONObjectReplacer
+{
+    private static final String    WILDCARD  = "*";
+
+    private final JSONKeyMatcher   m_matcher;
+
+    private final JSONProjection[] m_nested;
+
+    private final boolean          m_anykey;
+
+    private final JSONProjection   m_anyone;
+
+    private final List<String>     m_paths;
+
+    public JSONProjection(final String... paths)
+    {
+        this(Arrays.asList(paths));
+    }
+
+    public JSONProjection(final Collection<String> paths)
+    {
+        // "user.address.city" keeps user -> address -> city and nothing beside them, "*" matches any key at its level, and a shorter
+        // path wins over a longer one, so "user" together with "user.name" keeps all of user.
+
+        this(compile(Objects.requireNonNull(paths)), Collections.unmodifiableList(new ArrayList<String>(paths)));
+    }
+
+    private JSONProjection(final Map<String, Object> tree, final List<String> paths)
+    {
+        final Object any = tree.remove(WILDCARD);
+
+        final ArrayList<String> keys = new ArrayList<String>(tree.keySet());
+
+        m_matcher = new JSONKeyMatcher(keys);
+
+        m_nested = new JSONProjection[m_matcher.size()];
+
+        for (int i = 0; i < m_nested.length; i++)
+        {
+            m_nested[i] = make(tree.get(m_matcher.getKey(i)));
+        }
+        m_anykey = (null != any);
+
+        m_anyone = make(any);
+
+        m_paths = paths;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final JSONProjection make(final Object node)
+    {
+        // An empty map is a leaf - the whole value is kept.
+
+        if ((null == node) || ((Map<String, Object>) node).isEmpty())
+        {
+            return null;
+        }
+        return new JSONProjection((Map<String, Object>) node, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Object> compile(final Collection<String> paths)
+    {
+        final LinkedHashMap<String, Object> root = new LinkedHashMap<String, Object>();
+
+        for (String path : paths)
+        {
+            final String[] list = Objects.requireNonNull(path).split("\\.", -1);
+
+            Map<String, Object> node = root;
+
+            for (int i = 0; i < list.length; i++)
+            {
+                final String name = list[i];
+
+                if (name.isEmpty())
+                {
+                    throw new IllegalArgumentException("empty name in projection path " + path);
+                }
+                final Map<String, Object> next = (Map<String, Object>) node.get(name);
+
+                if ((null != next) && next.isEmpty())
+                {
+                    // Already kept whole by a shorter path.
+
+                    break;
+                }
+                if (i == (list.length - 1))
+                {
+                    node.put(name, new LinkedHashMap<String, Object>());
+                }
+                else if (null == next)
+                {
+                    final LinkedHashMap<String, Object> make = new LinkedHashMap<String, Object>();
+
+                    make.put(null, null);
+
+                    node.put(name, make);
+
+                    node = make;
+                }
+                else
+                {
+                    node = next;
+                }
+            }
+        }
+        return spread(prune(root));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Object> prune(final Map<String, Object> node)
+    {
+        // Interior nodes carry a null marker key while building so they can't be mistaken for leaves - drop it now.
+
+        node.remove(null);
+
+        for (Object next : node.values())
+        {
+            prune((Map<String, Object>) next);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Object> spread(final Map<String, Object> node)
+    {
+        // A "*" also matches the named keys beside it, so its subtree is merged into each of them before they're compiled.
+
+        final Map<String, Object> any = (Map<String, Object>) node.get(WILDCARD);
+
+        if (null != any)
+        {
+            for (Map.Entry<String, Object> entry : node.entrySet())
+            {
+                if (false == WILDCARD.equals(entry.getKey()))
+                {
+                    entry.setValue(merge((Map<String, Object>) entry.getValue(), any));
+                }
+            }
+        }
+        for (Object next : node.values())
+        {
+            spread((Map<String, Object>) next);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Object> merge(final Map<String, Object> left, final Map<String, Object> right)
+    {
+        // A leaf on either side keeps the whole value, so it wins over any narrower subtree.
+
+        final LinkedHashMap<String, Object> make = new LinkedHashMap<String, Object>();
+
+        if (left.isEmpty() || right.isEmpty())
+        {
+            return make;
+        }
+        for (Map.Entry<String, Object> entry : left.entrySet())
+        {
+            final Map<String, Object> next = (Map<String, Object>) right.get(entry.getKey());
+
+            if (null == next)
+            {
+                make.put(entry.getKey(), copy((Map<String, Object>) entry.getValue()));
+            }
+            else
+            {
+                make.put(entry.getKey(), merge((Map<String, Object>) entry.getValue(), next));
+            }
+        }
+        for (Map.Entry<String, Object> entry : right.entrySet())
+        {
+            if (false == make.containsKey(entry.getKey()))
+            {
+                make.put(entry.getKey(), copy((Map<String, Object>) entry.getValue()));
+            }
+        }
+        return make;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Object> copy(final Map<String, Object> node)
+    {
+        final LinkedHashMap<String, Object> make = new LinkedHashMap<String, Object>();
+
+        for (Map.Entry<String, Object> entry : node.entrySet())
+        {
+            make.put(entry.getKey(), copy((Map<String, Object>) entry.getValue()));
+        }
+        return make;
+    }
+
+    public List<String> getPaths()
+    {
+        return m_paths;
+    }
+
+    @Override
+    public Object replace(final String name, final Object value)
+    {
+        if (UNDEFINED == value)
+        {
+            return UNDEFINED;
+        }
+        if (m_anykey || m_matcher.contains(Objects.requireNonNull(name)))
+        {
+            return value;
+        }
+        return UNDEFINED;
+    }
+
+    @Override
+    public IJSONObjectReplacer nested(final String name)
+    {
+        final int index = m_matcher.indexOf(name);
+
+        if (index >= 0)
+        {
+            return m_nested[index];
+        }
+        return m_anyone;
+    }
+}
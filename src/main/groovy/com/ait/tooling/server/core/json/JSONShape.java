@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class JSONShape
+{
+    private static final int                           MAXIMUM_KEYS   = 128;
+
+    private static final int                           MAXIMUM_CHILD  = 64;
+
+    private static final int                           MAXIMUM_SHAPES = 65536;
+
+    private static final int                           LINEAR_KEYS    = 8;
+
+    private static final AtomicInteger                 SHAPES_COUNTER = new AtomicInteger();
+
+    static final JSONShape                             EMPTY          = new JSONShape(new String[0]);
+
+    private final String[]                             m_keys;
+
+    private final HashMap<String, Integer>             m_index;
+
+    private final ConcurrentHashMap<String, JSONShape> m_child        = new ConcurrentHashMap<String, JSONShape>();
+
+    private final byte[][]                             m_bytes;
+
+    private JSONShape(final String[] keys)
+    {
+        m_keys = keys;
+
+        m_bytes = new byte[keys.length][];
+
+        if (keys.length > LINEAR_KEYS)
+        {
+            m_index = new HashMap<String, Integer>(keys.length * 2);
+
+            for (int i = 0; i < keys.length; i++)
+            {
+                m_index.put(keys[i], i);
+            }
+        }
+        else
+        {
+            m_index = null;
+        }
+    }
+
+    final int size()
+    {
+        return m_keys.length;
+    }
+
+    final String getKey(final int index)
+    {
+        return m_keys[index];
+    }
+
+    final byte[] getKeyBytes(final int index) throws IOException
+    {
+        // Racy but safe - every thread computes the same bytes, and the per-shape array is what lets records skip the global cache lookup.
+
+        byte[] bytes = m_bytes[index];
+
+        if (null == bytes)
+        {
+            bytes = JSONObject.getKeyBytes(m_keys[index]);
+
+            m_bytes[index] = bytes;
+        }
+        return bytes;
+    }
+
+    final int indexOf(final Object key)
+    {
+        if (null != m_index)
+        {
+            final Integer index = m_index.get(key);
+
+            return ((null == index) ? -1 : index);
+        }
+        final String[] keys = m_keys;
+
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] == key)
+            {
+                return i;
+            }
+        }
+        if (key instanceof String)
+        {
+            for (int i = 0; i < keys.length; i++)
+            {
+                if (keys[i].equals(key))
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    final JSONShape with(final String key)
+    {
+        // Shapes are shared by every record, so growth is capped - past the caps the record keeps its fields in the map instead.
+
+        final JSONShape find = m_child.get(key);
+
+        if (null != find)
+        {
+            return find;
+        }
+        if ((m_keys.length >= MAXIMUM_KEYS) || (m_child.size() >= MAXIMUM_CHILD) || (SHAPES_COUNTER.get() >= MAXIMUM_SHAPES))
+        {
+            return null;
+        }
+        final String[] keys = new String[m_keys.length + 1];
+
+        System.arraycopy(m_keys, 0, keys, 0, m_keys.length);
+
+        keys[m_keys.length] = key;
+
+        final JSONShape make = new JSONShape(keys);
+
+        final JSONShape have = m_child.putIfAbsent(key, make);
+
+        if (null != have)
+        {
+            return have;
+        }
+        SHAPES_COUNTER.incrementAndGet();
+
+        return make;
+    }
+
+    final JSONShape without(final int index)
+    {
+        JSONShape shape = EMPTY;
+
+        for (int i = 0; i < m_keys.length; i++)
+        {
+            if (i != index)
+            {
+                shape = shape.with(m_keys[i]);
+
+                if (null == shape)
+                {
+                    // Past the caps - a private shape that nothing else shares, so removal never has to leave shaped storage.
+
+                    final String[] keys = new String[m_keys.length - 1];
+
+                    System.arraycopy(m_keys, 0, keys, 0, index);
+
+                    System.arraycopy(m_keys, index + 1, keys, index, keys.length - index);
+
+                    return new JSONShape(keys);
+                }
+            }
+        }
+        return shape;
+    }
+}
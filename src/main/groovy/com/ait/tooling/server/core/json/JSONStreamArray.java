@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class JSONStreamArray implements IJSONStreamAware
+{
+    public static final int           DEFAULT_FLUSH_BYTES = 64 * 1024;
+
+    private static final String       NULL_FOR_OUTPUT     = "null".intern();
+
+    private final Iterator<?>         m_iter;
+
+    private final Function<Object, ?> m_func;
+
+    private final AutoCloseable       m_close;
+
+    private int                       m_flush             = DEFAULT_FLUSH_BYTES;
+
+    private boolean                   m_used              = false;
+
+    public JSONStreamArray(final Iterator<?> iter)
+    {
+        this(iter, null, null);
+    }
+
+    public <T> JSONStreamArray(final Iterator<T> iter, final Function<? super T, ?> func)
+    {
+        this(iter, Objects.requireNonNull(func), null);
+    }
+
+    public JSONStreamArray(final Spliterator<?> split)
+    {
+        this(Spliterators.iterator(split), null, null);
+    }
+
+    public <T> JSONStreamArray(final Spliterator<T> split, final Function<? super T, ?> func)
+    {
+        this(Spliterators.iterator(split), Objects.requireNonNull(func), null);
+    }
+
+    public JSONStreamArray(final Stream<?> stream)
+    {
+        this(stream.iterator(), null, stream);
+    }
+
+    public <T> JSONStreamArray(final Stream<T> stream, final Function<? super T, ?> func)
+    {
+        this(stream.iterator(), Objects.requireNonNull(func), stream);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONStreamArray(final Iterator<?> iter, final Function<?, ?> func, final AutoCloseable close)
+    {
+        m_iter = Objects.requireNonNull(iter);
+
+        m_func = (Function<Object, ?>) func;
+
+        m_close = close;
+    }
+
+    public JSONStreamArray setFlushBytes(final int bytes)
+    {
+        m_flush = Math.max(0, bytes);
+
+        return this;
+    }
+
+    public int getFlushBytes()
+    {
+        return m_flush;
+    }
+
+    @Override
+    public void writeJSONString(final Writer out) throws IOException
+    {
+        writeJSONString(out, null, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final boolean strict) throws IOException
+    {
+        writeJSONString(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
+    {
+        writeJSONString(out, context, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        // The source can only be pulled once, so a second write would silently emit an empty array.
+
+        if (m_used)
+        {
+            throw new IllegalStateException("JSONStreamArray has already been written");
+        }
+        m_used = true;
+
+        try
+        {
+            if ((m_flush < 1) || (out instanceof JSONPrettyWriter))
+            {
+                // Inside an enclosing pretty printer there is nowhere below it to count bytes, so the outer writer's buffering applies.
+
+                write(JSONPrettyWriter.wrap(out, context), context, strict, null);
+            }
+            else
+            {
+                final FlushingWriter flush = new FlushingWriter(out, m_flush);
+
+                write(JSONPrettyWriter.wrap(flush, context), context, strict, flush);
+            }
+        }
+        finally
+        {
+            close();
+        }
+    }
+
+    private final void write(final Writer out, final IJSONContext context, final boolean strict, final FlushingWriter flush) throws IOException
+    {
+        boolean first = true;
+
+        int index = 0;
+
+        final IJSONArrayReplacer replacer = (null == context) ? null : context.getArrayReplacer();
+
+        out.write('[');
+
+        while (m_iter.hasNext())
+        {
+            Object valu = m_iter.next();
+
+            if (null != m_func)
+            {
+                valu = m_func.apply(valu);
+            }
+            if (null != replacer)
+            {
+                valu = JSONArray.replace(replacer, index, valu);
+            }
+            index++;
+
+            if (first)
+            {
+                first = false;
+            }
+            else
+            {
+                out.write(',');
+            }
+            if (null == valu)
+            {
+                out.write(NULL_FOR_OUTPUT);
+            }
+            else
+            {
+                JSONUtils.writeJSONString(valu, out, context, strict);
+            }
+            if ((null != flush) && flush.isFull())
+            {
+                out.flush();
+            }
+        }
+        out.write(']');
+    }
+
+    private final void close() throws IOException
+    {
+        if (null != m_close)
+        {
+            try
+            {
+                m_close.close();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                throw e;
+            }
+            catch (Exception e)
+            {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static final class FlushingWriter extends Writer
+    {
+        private final Writer m_out;
+
+        private final int    m_size;
+
+        private long         m_free;
+
+        FlushingWriter(final Writer out, final int size)
+        {
+            m_out = Objects.requireNonNull(out);
+
+            m_size = size;
+
+            m_free = size;
+        }
+
+        final boolean isFull()
+        {
+            return (m_free <= 0);
+        }
+
+        @Override
+        public void write(final int c) throws IOException
+        {
+            m_out.write(c);
+
+            m_free--;
+        }
+
+        @Override
+        public void write(final char[] buf, final int off, final int len) throws IOException
+        {
+            m_out.write(buf, off, len);
+
+            m_free -= len;
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) throws IOException
+        {
+            m_out.write(str, off, len);
+
+            m_free -= len;
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            m_out.flush();
+
+            m_free = m_size;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            m_out.close();
+        }
+    }
+}
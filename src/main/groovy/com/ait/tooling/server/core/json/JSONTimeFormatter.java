@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Objects;
+import java.util.TimeZone;
+
+public class JSONTimeFormatter extends JSONDateFormatter
+{
+    public static final String      ISO_8601_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+    private static final int[]      FRACTION_SCALE   = { 1000000000, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1 };
+
+    private final String            m_pattern;
+
+    private final ZoneId            m_zone;
+
+    private final DateTimeFormatter m_format;
+
+    private final DateTimeFormatter m_prefix;
+
+    private final DateTimeFormatter m_suffix;
+
+    private final int               m_digits;
+
+    private volatile Second         m_second;
+
+    public JSONTimeFormatter()
+    {
+        this(ISO_8601_PATTERN, ZoneOffset.UTC);
+    }
+
+    public JSONTimeFormatter(final String pattern)
+    {
+        this(pattern, ZoneOffset.UTC);
+    }
+
+    public JSONTimeFormatter(final String pattern, final ZoneId zone)
+    {
+        m_pattern = Objects.requireNonNull(pattern);
+
+        m_zone = Objects.requireNonNull(zone);
+
+        m_format = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+
+        // The pattern is split around its fraction-of-second field, everything either side of it only changes once a second.
+
+        final int[] span = fraction(pattern);
+
+        if (null == span)
+        {
+            m_prefix = null;
+
+            m_suffix = null;
+
+            m_digits = -1;
+        }
+        else
+        {
+            m_prefix = formatter(pattern.substring(0, span[0]), zone);
+
+            m_suffix = formatter(pattern.substring(span[1]), zone);
+
+            m_digits = span[1] - span[0];
+        }
+    }
+
+    public String getPattern()
+    {
+        return m_pattern;
+    }
+
+    public ZoneId getZone()
+    {
+        return m_zone;
+    }
+
+    @Override
+    public String format(final Date date)
+    {
+        final long time = Objects.requireNonNull(date).getTime();
+
+        return format(Math.floorDiv(time, 1000L), ((int) Math.floorMod(time, 1000L)) * 1000000);
+    }
+
+    @Override
+    public String format(final TemporalAccessor value)
+    {
+        Objects.requireNonNull(value);
+
+        if (value instanceof LocalDateTime)
+        {
+            final LocalDateTime local = ((LocalDateTime) value);
+
+            return format(local.atZone(m_zone).toEpochSecond(), local.getNano());
+        }
+        if (value.isSupported(ChronoField.INSTANT_SECONDS))
+        {
+            return format(value.getLong(ChronoField.INSTANT_SECONDS), value.get(ChronoField.NANO_OF_SECOND));
+        }
+        return m_format.format(value);
+    }
+
+    public String format(final long seconds, final int nanos)
+    {
+        if (m_digits < 0)
+        {
+            return m_format.format(Instant.ofEpochSecond(seconds, nanos));
+        }
+        Second second = m_second;
+
+        if ((null == second) || (second.m_seconds != seconds))
+        {
+            // Racing threads may both build the same second, which is harmless as the holder is immutable.
+
+            second = new Second(seconds, m_prefix, m_suffix);
+
+            m_second = second;
+        }
+        if (0 == m_digits)
+        {
+            return second.m_prefix.concat(second.m_suffix);
+        }
+        final StringBuilder buff = new StringBuilder(second.m_prefix.length() + m_digits + second.m_suffix.length()).append(second.m_prefix);
+
+        final int frac = nanos / FRACTION_SCALE[m_digits];
+
+        for (int scale = FRACTION_SCALE[10 - m_digits]; scale > 0; scale /= 10)
+        {
+            buff.append((char) ('0' + ((frac / scale) % 10)));
+        }
+        return buff.append(second.m_suffix).toString();
+    }
+
+    @Override
+    public Date parse(final String source) throws ParseException
+    {
+        try
+        {
+            return Date.from(Instant.from(m_format.parse(Objects.requireNonNull(source))));
+        }
+        catch (DateTimeParseException e)
+        {
+            throw new ParseException(e.getMessage(), e.getErrorIndex());
+        }
+    }
+
+    @Override
+    protected DateFormat makeDateFormat()
+    {
+        final SimpleDateFormat format = new SimpleDateFormat(m_pattern);
+
+        format.setTimeZone(TimeZone.getTimeZone(m_zone));
+
+        return format;
+    }
+
+    private static final DateTimeFormatter formatter(final String pattern, final ZoneId zone)
+    {
+        if (pattern.isEmpty())
+        {
+            return null;
+        }
+        return DateTimeFormatter.ofPattern(pattern).withZone(zone);
+    }
+
+    private static final int[] fraction(final String pattern)
+    {
+        int beg = -1;
+
+        int end = -1;
+
+        boolean quoted = false;
+
+        final int size = pattern.length();
+
+        for (int i = 0; i < size; i++)
+        {
+            final char c = pattern.charAt(i);
+
+            if ('\'' == c)
+            {
+                quoted = (false == quoted);
+            }
+            else if (false == quoted)
+            {
+                if ('S' == c)
+                {
+                    if (beg >= 0)
+                    {
+                        return null;
+                    }
+                    beg = i;
+
+                    end = i + 1;
+
+                    while ((end < size) && ('S' == pattern.charAt(end)))
+                    {
+                        end++;
+                    }
+                    i = end - 1;
+                }
+                else if (('n' == c) || ('N' == c) || ('A' == c))
+                {
+                    return null;
+                }
+            }
+        }
+        if ((end - beg) > 9)
+        {
+            return null;
+        }
+        if (beg < 0)
+        {
+            return new int[] { size, size };
+        }
+        return new int[] { beg, end };
+    }
+
+    private static final class Second
+    {
+        private final long   m_seconds;
+
+        private final String m_prefix;
+
+        private final String m_suffix;
+
+        Second(final long seconds, final DateTimeFormatter prefix, final DateTimeFormatter suffix)
+        {
+            final Instant instant = Instant.ofEpochSecond(seconds);
+
+            m_seconds = seconds;
+
+            m_prefix = (null == prefix) ? "" : prefix.format(instant);
+
+            m_suffix = (null == suffix) ? "" : suffix.format(instant);
+        }
+    }
+}
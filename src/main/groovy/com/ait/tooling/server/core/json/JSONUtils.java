@@ -16,57 +16,73 @@
 
 package com.ait.tooling.server.core.json;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
-import org.apache.log4j.Logger;
-
+import com.ait.tooling.server.core.io.ByteBufferOutputStream;
 import com.ait.tooling.server.core.io.NoSyncStringBuilderWriter;
-import com.ait.tooling.server.core.json.binder.JSONBinder;
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter;
 
 public final class JSONUtils
 {
-    private static final Logger                         logger          = Logger.getLogger(JSONUtils.class);
+    private static final String              NULL_FOR_OUTPUT = "null".intern();
+
+    private static final JSONDateFormatter   DATE_FORMATTER  = new JSONTimeFormatter();
+
+    private final static BigDecimal          BIG_DECIMAL_MAX = BigDecimal.valueOf(Double.MAX_VALUE);
+
+    private final static BigDecimal          BIG_DECIMAL_MIN = BigDecimal.valueOf(Double.MIN_VALUE);
+
+    private final static BigInteger          BIG_INTEGER_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
 
-    private static final String                         NULL_FOR_OUTPUT = "null".intern();
+    private final static BigInteger          BIG_INTEGER_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
 
-    private final static BigDecimal                     BIG_DECIMAL_MAX = BigDecimal.valueOf(Double.MAX_VALUE);
+    private final static BigInteger          BIG_INTLONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
 
-    private final static BigDecimal                     BIG_DECIMAL_MIN = BigDecimal.valueOf(Double.MIN_VALUE);
+    private final static BigInteger          BIG_INTLONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
 
-    private final static BigInteger                     BIG_INTEGER_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+    private final static BigDecimal          BIG_DEC_INT_MAX = BigDecimal.valueOf(Integer.MAX_VALUE);
 
-    private final static BigInteger                     BIG_INTEGER_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+    private final static BigDecimal          BIG_DEC_INT_MIN = BigDecimal.valueOf(Integer.MIN_VALUE);
 
-    private final static BigInteger                     BIG_INTLONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+    private final static BigDecimal          BIG_DEC_LONGMAX = BigDecimal.valueOf(Long.MAX_VALUE);
 
-    private final static BigInteger                     BIG_INTLONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private final static BigDecimal          BIG_DEC_LONGMIN = BigDecimal.valueOf(Long.MIN_VALUE);
 
-    private final static BigDecimal                     BIG_DEC_INT_MAX = BigDecimal.valueOf(Integer.MAX_VALUE);
+    private final static BigInteger          BIG_INT_DEC_MAX = BIG_DECIMAL_MAX.toBigInteger();
 
-    private final static BigDecimal                     BIG_DEC_INT_MIN = BigDecimal.valueOf(Integer.MIN_VALUE);
+    private final static BigInteger          BIG_INT_DEC_MIN = BIG_DECIMAL_MIN.toBigInteger();
 
-    private final static BigDecimal                     BIG_DEC_LONGMAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    private final static int                 INDENT_ADDED    = 4;
 
-    private final static BigDecimal                     BIG_DEC_LONGMIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final String[]            INDENT_CACHE    = new String[256];
 
-    private final static BigInteger                     BIG_INT_DEC_MAX = BIG_DECIMAL_MAX.toBigInteger();
+    private final static int                 BYTES_CAPACITY  = 8192;
 
-    private final static BigInteger                     BIG_INT_DEC_MIN = BIG_DECIMAL_MIN.toBigInteger();
+    private static final char[]              HEX_DIGITS      = "0123456789ABCDEF".toCharArray();
 
-    private final static int                            INDENT_ADDED    = 4;
+    private static final char[][]            ESCAPE_TABLE    = makeEscapeTable();
 
-    private static final LinkedHashMap<Integer, String> INDENT_CACHE    = new LinkedHashMap<Integer, String>();
+    private static final ThreadLocal<byte[]> BYTES_BUFFER    = new ThreadLocal<byte[]>();
 
     protected JSONUtils()
     {
@@ -103,34 +119,99 @@ public final class JSONUtils
         return out.toString();
     }
 
-    public static final synchronized String getIndent(final Integer indent)
+    public static final byte[] toJSONBytes(final Object value, final IJSONContext context, final boolean strict)
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(BYTES_CAPACITY);
+
+        try
+        {
+            writeJSONBytes(value, out, context, strict);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static final void writeJSONBytes(final Object value, final OutputStream out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        // The encode buffer is taken out of the ThreadLocal while in use, so a re-entrant call on the same thread just allocates its own.
+
+        byte[] buffer = BYTES_BUFFER.get();
+
+        if (null == buffer)
+        {
+            buffer = new byte[BYTES_CAPACITY];
+        }
+        else
+        {
+            BYTES_BUFFER.set(null);
+        }
+        try
+        {
+            final NoSyncUTF8OutputStreamWriter writer = new NoSyncUTF8OutputStreamWriter(out, buffer);
+
+            writeJSONString(value, writer, context, strict);
+
+            writer.finish();
+        }
+        finally
+        {
+            BYTES_BUFFER.set(buffer);
+        }
+    }
+
+    public static final void writeJSONBytes(final Object value, final ByteBuffer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        writeJSONBytes(value, new ByteBufferOutputStream(out), context, strict);
+    }
+
+    public static final String getIndent(final Integer indent)
     {
         if ((null == indent) || (indent < 1))
         {
             return "";
         }
-        String find = INDENT_CACHE.get(indent);
+        final int size = indent;
 
-        if (null != find)
+        if (size >= INDENT_CACHE.length)
         {
-            return find;
+            return makeIndent(size);
         }
-        final StringBuilder b = new StringBuilder(indent);
+        // Lock free - a racing thread at worst builds the same immutable String twice.
+
+        String find = INDENT_CACHE[size];
 
-        for (int i = 0; i < indent; i++)
+        if (null == find)
         {
-            b.append("-");
+            find = makeIndent(size);
+
+            INDENT_CACHE[size] = find;
         }
-        find = b.toString();
+        return find;
+    }
 
-        INDENT_CACHE.put(indent, find);
+    private static final String makeIndent(final int size)
+    {
+        final char[] dash = new char[size];
 
-        return find;
+        Arrays.fill(dash, '-');
+
+        return new String(dash);
     }
 
     public static final String getLineNumber(final int lineno)
     {
-        return String.format("%1$-4d", lineno).replaceAll(" ", "-");
+        final String number = Integer.toString(lineno);
+
+        final int size = number.length();
+
+        if (size >= 4)
+        {
+            return number;
+        }
+        return number.concat(getIndent(4 - size));
     }
 
     public static final String dumpClassNamesToString(final Object o)
@@ -315,161 +396,54 @@ public final class JSONUtils
 
     public static final void writeJSONString(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
     {
-        if (null == value)
-        {
-            out.write(NULL_FOR_OUTPUT);
-
-            return;
-        }
-        if (value instanceof String)
-        {
-            out.write('\"');
-
-            escape(value.toString(), out);
-
-            out.write('\"');
-
-            return;
-        }
-        if (value instanceof Number)
-        {
-            if (value instanceof Double)
-            {
-                final Double dval = ((Double) value);
-
-                if (isDoubleInfiniteOrNan(dval))
-                {
-                    out.write(NULL_FOR_OUTPUT);
-                }
-                else
-                {
-                    out.write(dval.toString());
-                }
-                return;
-            }
-            if (value instanceof Integer)
-            {
-                out.write(value.toString());
-
-                return;
-            }
-            if (value instanceof Long)
-            {
-                if (strict)
-                {
-                    final Integer thunk = asInteger(value);
-
-                    if (null != thunk)
-                    {
-                        out.write(thunk.toString());
-                    }
-                    else
-                    {
-                        out.write(NULL_FOR_OUTPUT);
-                    }
-                }
-                else
-                {
-                    out.write(value.toString());
-                }
-                return;
-            }
-            if (value instanceof Float)
-            {
-                final Float fval = ((Float) value);
-
-                if (isFloatInfiniteOrNan(fval))
-                {
-                    out.write(NULL_FOR_OUTPUT);
-                }
-                else
-                {
-                    out.write(fval.toString());
-                }
-                return;
-            }
-            final Number nval = asNumber(value);
+        final Writer pretty = JSONPrettyWriter.wrap(out, context);
 
-            if (null != nval)
-            {
-                out.write(nval.toString());
-            }
-            else
-            {
-                out.write(NULL_FOR_OUTPUT);
-            }
-            return;
-        }
-        if (value instanceof Boolean)
+        if (pretty != out)
         {
-            out.write(value.toString());
+            writeJSONString(value, pretty, context, strict);
 
             return;
         }
-        if (value instanceof IJSONStreamAware)
-        {
-            ((IJSONStreamAware) value).writeJSONString(out, context, strict);
-
-            return;
-        }
-        if (value instanceof Map)
-        {
-            JSONObject.writeJSONString((Map<?, ?>) value, out, context, strict);
-
-            return;
-        }
-        if (value instanceof List)
+        if (null == value)
         {
-            JSONArray.writeJSONString((List<?>) value, out, context, strict);
+            out.write(NULL_FOR_OUTPUT);
 
             return;
         }
-        if (value instanceof Date)
+        if (value instanceof String)
         {
             out.write('\"');
 
-            escape(format((Date) value, context), out);
+            escape(value.toString(), out);
 
             out.write('\"');
 
             return;
         }
-        if (value instanceof Collection)
-        {
-            JSONArray.writeJSONString((Collection<?>) value, out, context, strict);
+        JSONValueSerializerRegistry.getSerializer(value.getClass()).writeJSONString(value, out, context, strict);
+    }
 
-            return;
+    public static final String format(final Date date, final IJSONContext context)
+    {
+        if (null == date)
+        {
+            return NULL_FOR_OUTPUT;
         }
-        try
+        if (null != context)
         {
-            final JSONBinder binder = new JSONBinder();
-
-            if (binder.canSerializeType(value.getClass()))
-            {
-                binder.send(out, value);
+            final JSONDateFormatter formatter = context.getDateFormatter();
 
-                return;
-            }
-            else
+            if (null != formatter)
             {
-                logger.warn("Can't serialize type " + value.getClass().getName() + ", trying toString()");
+                return formatter.format(date);
             }
         }
-        catch (Exception e)
-        {
-            logger.error("Can't serialize type " + value.getClass().getName() + ", trying toString()", e);
-
-        }
-        out.write('\"');
-
-        escape(value.toString(), out);
-
-        out.write('\"');
+        return DATE_FORMATTER.format(date);
     }
 
-    public static final String format(final Date date, final IJSONContext context)
+    public static final String format(final TemporalAccessor value, final IJSONContext context)
     {
-        if (null == date)
+        if (null == value)
         {
             return NULL_FOR_OUTPUT;
         }
@@ -479,73 +453,99 @@ public final class JSONUtils
 
             if (null != formatter)
             {
-                return formatter.format(date);
+                return formatter.format(value);
             }
         }
-        return date.toString();
+        return DATE_FORMATTER.format(value);
+    }
+
+    private static final char[][] makeEscapeTable()
+    {
+        final char[][] table = new char[128][];
+
+        for (int c = 0; c < 0x20; c++)
+        {
+            table[c] = new char[] { '\\', 'u', '0', '0', HEX_DIGITS[(c >> 4) & 0xF], HEX_DIGITS[c & 0xF] };
+        }
+        table[0x7F] = new char[] { '\\', 'u', '0', '0', '7', 'F' };
+
+        table['"'] = new char[] { '\\', '"' };
+
+        table['\\'] = new char[] { '\\', '\\' };
+
+        table['\b'] = new char[] { '\\', 'b' };
+
+        table['\f'] = new char[] { '\\', 'f' };
+
+        table['\n'] = new char[] { '\\', 'n' };
+
+        table['\r'] = new char[] { '\\', 'r' };
+
+        table['\t'] = new char[] { '\\', 't' };
+
+        return table;
     }
 
     static final void escape(final String string, final Writer out) throws IOException
     {
+        // Safe characters are never written one at a time - each run between escapes goes out as a single write(String, off, len).
+
         final int leng = string.length();
 
+        int last = 0;
+
         for (int i = 0; i < leng; i++)
         {
             final char c = string.charAt(i);
 
-            if (((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || (c == ' ') || ((c >= '0') && (c <= '9')))
+            char[] repl = null;
+
+            if (c < 128)
             {
-                out.write(c);// ASCII will be most common, this improves write speed about 5%, FWIW.
+                repl = ESCAPE_TABLE[c];
+
+                if (null == repl)
+                {
+                    continue;
+                }
+            }
+            // Reference: http://www.unicode.org/versions/Unicode5.1.0/
+
+            else if ((c > '\u009F') && ((c < '\u2000') || (c > '\u20FF')))
+            {
+                continue;
+            }
+            if (i > last)
+            {
+                out.write(string, last, i - last);
+            }
+            if (null != repl)
+            {
+                out.write(repl, 0, repl.length);
             }
             else
             {
-                switch (c)
-                {
-                    case '"':
-                        out.write("\\\"");
-                        break;
-                    case '\\':
-                        out.write("\\\\");
-                        break;
-                    case '\b':
-                        out.write("\\b");
-                        break;
-                    case '\f':
-                        out.write("\\f");
-                        break;
-                    case '\n':
-                        out.write("\\n");
-                        break;
-                    case '\r':
-                        out.write("\\r");
-                        break;
-                    case '\t':
-                        out.write("\\t");
-                        break;
-                    default:
-                        // Reference: http://www.unicode.org/versions/Unicode5.1.0/
-
-                        if (((c >= '\u0000') && (c <= '\u001F')) || ((c >= '\u007F') && (c <= '\u009F')) || ((c >= '\u2000') && (c <= '\u20FF')))
-                        {
-                            final String unic = Integer.toHexString(c);
-
-                            final int size = 4 - unic.length();
-
-                            out.write("\\u");
-
-                            for (int k = 0; k < size; k++)
-                            {
-                                out.write('0');
-                            }
-                            out.write(unic.toUpperCase());
-                        }
-                        else
-                        {
-                            out.write(c);
-                        }
-                        break;
-                }
+                out.write('\\');
+
+                out.write('u');
+
+                out.write(HEX_DIGITS[(c >> 12) & 0xF]);
+
+                out.write(HEX_DIGITS[(c >> 8) & 0xF]);
+
+                out.write(HEX_DIGITS[(c >> 4) & 0xF]);
+
+                out.write(HEX_DIGITS[c & 0xF]);
             }
+            last = i + 1;
+        }
+        if (0 == last)
+        {
+            out.write(string);
+        }
+        else if (last < leng)
+        {
+            out.write(string, last, leng - last);
         }
     }
 
@@ -664,6 +664,11 @@ public final class JSONUtils
         return (object instanceof Boolean);
     }
 
+    public static final boolean isDate(final Object object)
+    {
+        return ((object instanceof Date) || (object instanceof Instant) || (object instanceof LocalDateTime) || (object instanceof ZonedDateTime) || (object instanceof OffsetDateTime));
+    }
+
     public static final Integer asInteger(final Object object)
     {
         if (null == object)
@@ -862,6 +867,200 @@ public final class JSONUtils
         return null;
     }
 
+    public static final boolean valueEquals(final Object a, final Object b)
+    {
+        // Structural equality that agrees with comparing the non-strict serialized forms, without serializing.
+
+        if (a == b)
+        {
+            return true;
+        }
+        if (null == a)
+        {
+            return isNullNumber(b);
+        }
+        if (null == b)
+        {
+            return isNullNumber(a);
+        }
+        if (a instanceof String)
+        {
+            return a.equals(b);
+        }
+        if (a instanceof Number)
+        {
+            if (b instanceof Number)
+            {
+                return numberEquals((Number) a, (Number) b);
+            }
+            return false;
+        }
+        if (a instanceof Map)
+        {
+            if (b instanceof Map)
+            {
+                return mapEquals((Map<?, ?>) a, (Map<?, ?>) b);
+            }
+            return false;
+        }
+        if (a instanceof List)
+        {
+            if (b instanceof List)
+            {
+                return listEquals((List<?>) a, (List<?>) b);
+            }
+            return false;
+        }
+        return a.equals(b);
+    }
+
+    public static final int valueHashCode(final Object value)
+    {
+        if (null == value)
+        {
+            return 0;
+        }
+        if (value instanceof String)
+        {
+            return value.hashCode();
+        }
+        if (value instanceof Number)
+        {
+            return numberHashCode((Number) value);
+        }
+        if (value instanceof Map)
+        {
+            int hash = 0;
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                hash += (Objects.hashCode(entry.getKey()) ^ valueHashCode(entry.getValue()));
+            }
+            return hash;
+        }
+        if (value instanceof List)
+        {
+            int hash = 1;
+
+            final List<?> list = ((List<?>) value);
+
+            final int size = list.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                hash = (31 * hash) + valueHashCode(list.get(i));
+            }
+            return hash;
+        }
+        return value.hashCode();
+    }
+
+    private static final boolean isNullNumber(final Object object)
+    {
+        return ((object instanceof Number) && (null == asNumber(object)));
+    }
+
+    private static final boolean isIntegral(final Number number)
+    {
+        return ((number instanceof Integer) || (number instanceof Long) || (number instanceof Short));
+    }
+
+    private static final boolean numberEquals(final Number a, final Number b)
+    {
+        // Integer, Long and Short with the same value always normalize to the same Integer or Long, and finite Doubles stay as they are.
+
+        if (isIntegral(a) && isIntegral(b))
+        {
+            return (a.longValue() == b.longValue());
+        }
+        if ((a instanceof Double) && (b instanceof Double))
+        {
+            final double da = a.doubleValue();
+
+            final double db = b.doubleValue();
+
+            final boolean fa = Double.isFinite(da);
+
+            if (fa != Double.isFinite(db))
+            {
+                return false;
+            }
+            if (false == fa)
+            {
+                return true;
+            }
+            return (Double.doubleToLongBits(da) == Double.doubleToLongBits(db));
+        }
+        return Objects.equals(asNumber(a), asNumber(b));
+    }
+
+    private static final int numberHashCode(final Number number)
+    {
+        if (isIntegral(number))
+        {
+            final long lval = number.longValue();
+
+            if ((lval > Integer.MAX_VALUE) || (lval < Integer.MIN_VALUE))
+            {
+                return Long.hashCode(lval);
+            }
+            return ((int) lval);
+        }
+        if (number instanceof Double)
+        {
+            final double dval = number.doubleValue();
+
+            if (Double.isFinite(dval))
+            {
+                return Double.hashCode(dval);
+            }
+            return 0;
+        }
+        return Objects.hashCode(asNumber(number));
+    }
+
+    private static final boolean mapEquals(final Map<?, ?> a, final Map<?, ?> b)
+    {
+        if (a.size() != b.size())
+        {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : a.entrySet())
+        {
+            final Object name = entry.getKey();
+
+            final Object valu = b.get(name);
+
+            if ((null == valu) && (false == b.containsKey(name)))
+            {
+                return false;
+            }
+            if (false == valueEquals(entry.getValue(), valu))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final boolean listEquals(final List<?> a, final List<?> b)
+    {
+        final int size = a.size();
+
+        if (size != b.size())
+        {
+            return false;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            if (false == valueEquals(a.get(i), b.get(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static final JSONArray asArray(final Object object)
     {
         if (null == object)
@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+import com.ait.tooling.server.core.json.binder.BinderFactory;
+import com.ait.tooling.server.core.json.binder.IBinder;
+
+public final class JSONValueSerializerRegistry
+{
+    private static final Logger                                            logger                 = Logger.getLogger(JSONValueSerializerRegistry.class);
+
+    private static final String                                            NULL_FOR_OUTPUT        = "null".intern();
+
+    private static final IJSONValueSerializer                              STRING_SERIALIZER      = JSONValueSerializerRegistry::writeString;
+
+    private static final IJSONValueSerializer                              DOUBLE_SERIALIZER      = JSONValueSerializerRegistry::writeDouble;
+
+    private static final IJSONValueSerializer                              INTEGER_SERIALIZER     = JSONValueSerializerRegistry::writeInteger;
+
+    private static final IJSONValueSerializer                              LONG_SERIALIZER        = JSONValueSerializerRegistry::writeLong;
+
+    private static final IJSONValueSerializer                              FLOAT_SERIALIZER       = JSONValueSerializerRegistry::writeFloat;
+
+    private static final IJSONValueSerializer                              NUMBER_SERIALIZER      = JSONValueSerializerRegistry::writeNumber;
+
+    private static final IJSONValueSerializer                              BOOLEAN_SERIALIZER     = JSONValueSerializerRegistry::writeBoolean;
+
+    private static final IJSONValueSerializer                              STREAMAWARE_SERIALIZER = JSONValueSerializerRegistry::writeStreamAware;
+
+    private static final IJSONValueSerializer                              MAP_SERIALIZER         = JSONValueSerializerRegistry::writeMap;
+
+    private static final IJSONValueSerializer                              LIST_SERIALIZER        = JSONValueSerializerRegistry::writeList;
+
+    private static final IJSONValueSerializer                              DATE_SERIALIZER        = JSONValueSerializerRegistry::writeDate;
+
+    private static final IJSONValueSerializer                              TEMPORAL_SERIALIZER    = JSONValueSerializerRegistry::writeTemporal;
+
+    private static final IJSONValueSerializer                              COLLECTION_SERIALIZER  = JSONValueSerializerRegistry::writeCollection;
+
+    private static final IJSONValueSerializer                              BINDER_SERIALIZER      = JSONValueSerializerRegistry::writeBinder;
+
+    private static final IJSONValueSerializer                              TOSTRING_SERIALIZER    = JSONValueSerializerRegistry::writeToString;
+
+    private static final ConcurrentHashMap<Class<?>, IJSONValueSerializer> REGISTERED             = new ConcurrentHashMap<Class<?>, IJSONValueSerializer>();
+
+    private static final IBinder                                           BINDER                 = BinderFactory.getBinder();
+
+    private static volatile ClassValue<IJSONValueSerializer>               RESOLVED               = makeResolver();
+
+    private JSONValueSerializerRegistry()
+    {
+    }
+
+    public static final IJSONValueSerializer getSerializer(final Class<?> type)
+    {
+        return RESOLVED.get(Objects.requireNonNull(type));
+    }
+
+    public static final void register(final Class<?> type, final IJSONValueSerializer serializer)
+    {
+        if (isNative(Objects.requireNonNull(type)))
+        {
+            throw new IllegalArgumentException("type " + type.getName() + " is always written natively");
+        }
+        REGISTERED.put(type, Objects.requireNonNull(serializer));
+
+        // Resolution is cached per concrete class, and subclasses may have resolved through the type being (un)registered - start over.
+
+        RESOLVED = makeResolver();
+    }
+
+    public static final boolean unregister(final Class<?> type)
+    {
+        if (null != REGISTERED.remove(Objects.requireNonNull(type)))
+        {
+            RESOLVED = makeResolver();
+
+            return true;
+        }
+        return false;
+    }
+
+    private static final boolean isNative(final Class<?> type)
+    {
+        return ((String.class == type) || (Double.class == type) || (Integer.class == type) || (Long.class == type) || (Float.class == type) || (Boolean.class == type));
+    }
+
+    private static final ClassValue<IJSONValueSerializer> makeResolver()
+    {
+        return new ClassValue<IJSONValueSerializer>()
+        {
+            @Override
+            protected IJSONValueSerializer computeValue(final Class<?> type)
+            {
+                return resolve(type);
+            }
+        };
+    }
+
+    private static final IJSONValueSerializer resolve(final Class<?> type)
+    {
+        // The final JDK value types always write natively, anything else may have been registered for itself, a superclass or
+        // an interface - so a serializer registered for Map or Number is found before the built in handling for those.
+
+        if (String.class == type)
+        {
+            return STRING_SERIALIZER;
+        }
+        if (Double.class == type)
+        {
+            return DOUBLE_SERIALIZER;
+        }
+        if (Integer.class == type)
+        {
+            return INTEGER_SERIALIZER;
+        }
+        if (Long.class == type)
+        {
+            return LONG_SERIALIZER;
+        }
+        if (Float.class == type)
+        {
+            return FLOAT_SERIALIZER;
+        }
+        if (Boolean.class == type)
+        {
+            return BOOLEAN_SERIALIZER;
+        }
+        final IJSONValueSerializer registered = findRegistered(type);
+
+        if (null != registered)
+        {
+            return registered;
+        }
+        if (Number.class.isAssignableFrom(type))
+        {
+            return NUMBER_SERIALIZER;
+        }
+        if (IJSONStreamAware.class.isAssignableFrom(type))
+        {
+            return STREAMAWARE_SERIALIZER;
+        }
+        if (Map.class.isAssignableFrom(type))
+        {
+            return MAP_SERIALIZER;
+        }
+        if (List.class.isAssignableFrom(type))
+        {
+            return LIST_SERIALIZER;
+        }
+        if (Date.class.isAssignableFrom(type))
+        {
+            return DATE_SERIALIZER;
+        }
+        if ((Instant.class == type) || (LocalDateTime.class == type) || (ZonedDateTime.class == type) || (OffsetDateTime.class == type))
+        {
+            return TEMPORAL_SERIALIZER;
+        }
+        if (Collection.class.isAssignableFrom(type))
+        {
+            return COLLECTION_SERIALIZER;
+        }
+        try
+        {
+            if (BINDER.canSerializeType(type))
+            {
+                return BINDER_SERIALIZER;
+            }
+            logger.warn("Can't serialize type " + type.getName() + ", using toString()");
+        }
+        catch (Exception e)
+        {
+            logger.error("Can't serialize type " + type.getName() + ", using toString()", e);
+        }
+        return TOSTRING_SERIALIZER;
+    }
+
+    private static final IJSONValueSerializer findRegistered(final Class<?> type)
+    {
+        if (REGISTERED.isEmpty())
+        {
+            return null;
+        }
+        for (Class<?> claz = type; null != claz; claz = claz.getSuperclass())
+        {
+            final IJSONValueSerializer found = REGISTERED.get(claz);
+
+            if (null != found)
+            {
+                return found;
+            }
+        }
+        for (Class<?> claz = type; null != claz; claz = claz.getSuperclass())
+        {
+            final IJSONValueSerializer found = findRegisteredInterface(claz.getInterfaces());
+
+            if (null != found)
+            {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static final IJSONValueSerializer findRegisteredInterface(final Class<?>[] list)
+    {
+        for (Class<?> claz : list)
+        {
+            final IJSONValueSerializer found = REGISTERED.get(claz);
+
+            if (null != found)
+            {
+                return found;
+            }
+        }
+        for (Class<?> claz : list)
+        {
+            final IJSONValueSerializer found = findRegisteredInterface(claz.getInterfaces());
+
+            if (null != found)
+            {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static final void writeString(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        out.write('\"');
+
+        JSONUtils.escape(value.toString(), out);
+
+        out.write('\"');
+    }
+
+    private static final void writeDouble(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONNumberWriter.writeDouble(out, ((Double) value).doubleValue());
+    }
+
+    private static final void writeInteger(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONNumberWriter.writeInt(out, ((Integer) value).intValue());
+    }
+
+    private static final void writeLong(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        final long lval = ((Long) value).longValue();
+
+        if (strict && ((lval > Integer.MAX_VALUE) || (lval < Integer.MIN_VALUE)))
+        {
+            out.write(NULL_FOR_OUTPUT);
+        }
+        else
+        {
+            JSONNumberWriter.writeLong(out, lval);
+        }
+    }
+
+    private static final void writeFloat(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        final Float fval = ((Float) value);
+
+        if (JSONUtils.isFloatInfiniteOrNan(fval))
+        {
+            out.write(NULL_FOR_OUTPUT);
+        }
+        else
+        {
+            out.write(fval.toString());
+        }
+    }
+
+    private static final void writeNumber(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        // Same results as asNumber(), without its compare chain for the common integral types.
+
+        if (value instanceof BigInteger)
+        {
+            final BigInteger bval = ((BigInteger) value);
+
+            final int bits = bval.bitLength();
+
+            if (bits < 32)
+            {
+                JSONNumberWriter.writeInt(out, bval.intValue());
+            }
+            else if (bits < 64)
+            {
+                JSONNumberWriter.writeLong(out, bval.longValue());
+            }
+            else
+            {
+                out.write(NULL_FOR_OUTPUT);
+            }
+        }
+        else if (value instanceof Short)
+        {
+            JSONNumberWriter.writeInt(out, ((Short) value).intValue());
+        }
+        else
+        {
+            JSONNumberWriter.writeNumber(out, JSONUtils.asNumber(value));
+        }
+    }
+
+    private static final void writeBoolean(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        out.write(value.toString());
+    }
+
+    private static final void writeStreamAware(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        ((IJSONStreamAware) value).writeJSONString(out, context, strict);
+    }
+
+    private static final void writeMap(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONObject.writeJSONString((Map<?, ?>) value, out, context, strict);
+    }
+
+    private static final void writeList(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONArray.writeJSONString((List<?>) value, out, context, strict);
+    }
+
+    private static final void writeDate(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        out.write('\"');
+
+        JSONUtils.escape(JSONUtils.format((Date) value, context), out);
+
+        out.write('\"');
+    }
+
+    private static final void writeTemporal(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        out.write('\"');
+
+        JSONUtils.escape(JSONUtils.format((TemporalAccessor) value, context), out);
+
+        out.write('\"');
+    }
+
+    private static final void writeCollection(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        JSONArray.writeJSONString((Collection<?>) value, out, context, strict);
+    }
+
+    private static final void writeBinder(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        try
+        {
+            BINDER.send(out, value);
+        }
+        catch (ParserException e)
+        {
+            logger.error("Can't serialize type " + value.getClass().getName() + ", trying toString()", e);
+
+            writeToString(value, out, context, strict);
+        }
+    }
+
+    private static final void writeToString(final Object value, final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        out.write('\"');
+
+        JSONUtils.escape(value.toString(), out);
+
+        out.write('\"');
+    }
+}
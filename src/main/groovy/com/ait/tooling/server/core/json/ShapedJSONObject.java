@@ -0,0 +1,772 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter;
+
+public class ShapedJSONObject extends JSONObject
+{
+    private static final long     serialVersionUID = -4385017216498727913L;
+
+    private static final Object[] EMPTY_VALUES     = new Object[0];
+
+    private transient JSONShape   m_shape          = JSONShape.EMPTY;
+
+    private transient Object[]    m_values         = EMPTY_VALUES;
+
+    private transient int         m_modcount;
+
+    public ShapedJSONObject()
+    {
+    }
+
+    public ShapedJSONObject(final Map<String, ?> map)
+    {
+        putAll(Objects.requireNonNull(map));
+    }
+
+    public boolean isShaped()
+    {
+        return (null != m_shape);
+    }
+
+    private final void deoptimize()
+    {
+        // Keys the shared shapes won't take - fall back to the ordinary LinkedHashMap storage for good.
+
+        final JSONShape shape = m_shape;
+
+        final Object[] values = m_values;
+
+        m_shape = null;
+
+        m_values = null;
+
+        m_modcount++;
+
+        for (int i = 0; i < values.length; i++)
+        {
+            super.put(shape.getKey(i), values[i]);
+        }
+    }
+
+    private final void removeAt(final int index)
+    {
+        final JSONShape shape = m_shape.without(index);
+
+        final Object[] values = new Object[m_values.length - 1];
+
+        System.arraycopy(m_values, 0, values, 0, index);
+
+        System.arraycopy(m_values, index + 1, values, index, values.length - index);
+
+        m_shape = shape;
+
+        m_values = values;
+
+        m_modcount++;
+    }
+
+    @Override
+    public int size()
+    {
+        if (null == m_shape)
+        {
+            return super.size();
+        }
+        return m_values.length;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (0 == size());
+    }
+
+    @Override
+    public boolean containsKey(final Object key)
+    {
+        if (null == m_shape)
+        {
+            return super.containsKey(key);
+        }
+        return (m_shape.indexOf(key) >= 0);
+    }
+
+    @Override
+    public boolean containsValue(final Object value)
+    {
+        if (null == m_shape)
+        {
+            return super.containsValue(value);
+        }
+        for (Object valu : m_values)
+        {
+            if (Objects.equals(value, valu))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object get(final Object key)
+    {
+        if (null == m_shape)
+        {
+            return super.get(key);
+        }
+        final int index = m_shape.indexOf(key);
+
+        return ((index < 0) ? null : m_values[index]);
+    }
+
+    @Override
+    public Object getOrDefault(final Object key, final Object otherwise)
+    {
+        if (null == m_shape)
+        {
+            return super.getOrDefault(key, otherwise);
+        }
+        final int index = m_shape.indexOf(key);
+
+        return ((index < 0) ? otherwise : m_values[index]);
+    }
+
+    @Override
+    public Object put(final String key, final Object value)
+    {
+        if (null == m_shape)
+        {
+            return super.put(key, value);
+        }
+        final int index = m_shape.indexOf(key);
+
+        if (index >= 0)
+        {
+            final Object prev = m_values[index];
+
+            m_values[index] = value;
+
+            return prev;
+        }
+        final JSONShape shape = (null == key) ? null : m_shape.with(key);
+
+        if (null == shape)
+        {
+            deoptimize();
+
+            return super.put(key, value);
+        }
+        final Object[] values = Arrays.copyOf(m_values, m_values.length + 1);
+
+        values[m_values.length] = value;
+
+        m_shape = shape;
+
+        m_values = values;
+
+        m_modcount++;
+
+        return null;
+    }
+
+    @Override
+    public void putAll(final Map<? extends String, ? extends Object> map)
+    {
+        for (Map.Entry<? extends String, ? extends Object> entry : map.entrySet())
+        {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object remove(final Object key)
+    {
+        if (null == m_shape)
+        {
+            return super.remove(key);
+        }
+        final int index = m_shape.indexOf(key);
+
+        if (index < 0)
+        {
+            return null;
+        }
+        final Object prev = m_values[index];
+
+        removeAt(index);
+
+        return prev;
+    }
+
+    @Override
+    public Object remove(final String key)
+    {
+        return remove((Object) Objects.requireNonNull(key));
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value)
+    {
+        if (containsKey(key) && Objects.equals(get(key), value))
+        {
+            remove(key);
+
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (null == m_shape)
+        {
+            super.clear();
+        }
+        m_shape = JSONShape.EMPTY;
+
+        m_values = EMPTY_VALUES;
+
+        m_modcount++;
+    }
+
+    @Override
+    public Object putIfAbsent(final String key, final Object value)
+    {
+        final Object prev = get(key);
+
+        if (null == prev)
+        {
+            return put(key, value);
+        }
+        return prev;
+    }
+
+    @Override
+    public Object replace(final String key, final Object value)
+    {
+        if (containsKey(key))
+        {
+            return put(key, value);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean replace(final String key, final Object oldValue, final Object newValue)
+    {
+        if (containsKey(key) && Objects.equals(get(key), oldValue))
+        {
+            put(key, newValue);
+
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void replaceAll(final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        if (null == m_shape)
+        {
+            super.replaceAll(function);
+
+            return;
+        }
+        Objects.requireNonNull(function);
+
+        for (int i = 0; i < m_values.length; i++)
+        {
+            m_values[i] = function.apply(m_shape.getKey(i), m_values[i]);
+        }
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super Object> action)
+    {
+        if (null == m_shape)
+        {
+            super.forEach(action);
+
+            return;
+        }
+        Objects.requireNonNull(action);
+
+        final JSONShape shape = m_shape;
+
+        final Object[] values = m_values;
+
+        for (int i = 0; i < values.length; i++)
+        {
+            action.accept(shape.getKey(i), values[i]);
+        }
+    }
+
+    @Override
+    public Object computeIfAbsent(final String key, final Function<? super String, ? extends Object> function)
+    {
+        if (null == m_shape)
+        {
+            return super.computeIfAbsent(key, function);
+        }
+        Objects.requireNonNull(function);
+
+        final Object prev = get(key);
+
+        if (null == prev)
+        {
+            final Object valu = function.apply(key);
+
+            if (null != valu)
+            {
+                put(key, valu);
+            }
+            return valu;
+        }
+        return prev;
+    }
+
+    @Override
+    public Object computeIfPresent(final String key, final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        if (null == m_shape)
+        {
+            return super.computeIfPresent(key, function);
+        }
+        Objects.requireNonNull(function);
+
+        final Object prev = get(key);
+
+        if (null != prev)
+        {
+            final Object valu = function.apply(key, prev);
+
+            if (null != valu)
+            {
+                put(key, valu);
+            }
+            else
+            {
+                remove(key);
+            }
+            return valu;
+        }
+        return null;
+    }
+
+    @Override
+    public Object compute(final String key, final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        if (null == m_shape)
+        {
+            return super.compute(key, function);
+        }
+        Objects.requireNonNull(function);
+
+        final Object prev = get(key);
+
+        final Object valu = function.apply(key, prev);
+
+        if (null != valu)
+        {
+            put(key, valu);
+        }
+        else if ((null != prev) || containsKey(key))
+        {
+            remove(key);
+        }
+        return valu;
+    }
+
+    @Override
+    public Object merge(final String key, final Object value, final BiFunction<? super Object, ? super Object, ? extends Object> function)
+    {
+        if (null == m_shape)
+        {
+            return super.merge(key, value, function);
+        }
+        Objects.requireNonNull(value);
+
+        Objects.requireNonNull(function);
+
+        final Object prev = get(key);
+
+        final Object valu = (null == prev) ? value : function.apply(prev, value);
+
+        if (null == valu)
+        {
+            remove(key);
+        }
+        else
+        {
+            put(key, valu);
+        }
+        return valu;
+    }
+
+    @Override
+    public Set<String> keySet()
+    {
+        if (null == m_shape)
+        {
+            return super.keySet();
+        }
+        return new AbstractSet<String>()
+        {
+            @Override
+            public int size()
+            {
+                return ShapedJSONObject.this.size();
+            }
+
+            @Override
+            public boolean contains(final Object key)
+            {
+                return containsKey(key);
+            }
+
+            @Override
+            public boolean remove(final Object key)
+            {
+                if (containsKey(key))
+                {
+                    ShapedJSONObject.this.remove(key);
+
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public Iterator<String> iterator()
+            {
+                if (null == m_shape)
+                {
+                    return ShapedJSONObject.super.keySet().iterator();
+                }
+                return new ShapedIterator<String>()
+                {
+                    @Override
+                    final String make(final int index)
+                    {
+                        return m_shape.getKey(index);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Collection<Object> values()
+    {
+        if (null == m_shape)
+        {
+            return super.values();
+        }
+        return new AbstractCollection<Object>()
+        {
+            @Override
+            public int size()
+            {
+                return ShapedJSONObject.this.size();
+            }
+
+            @Override
+            public Iterator<Object> iterator()
+            {
+                if (null == m_shape)
+                {
+                    return ShapedJSONObject.super.values().iterator();
+                }
+                return new ShapedIterator<Object>()
+                {
+                    @Override
+                    final Object make(final int index)
+                    {
+                        return m_values[index];
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet()
+    {
+        if (null == m_shape)
+        {
+            return super.entrySet();
+        }
+        return new AbstractSet<Map.Entry<String, Object>>()
+        {
+            @Override
+            public int size()
+            {
+                return ShapedJSONObject.this.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator()
+            {
+                if (null == m_shape)
+                {
+                    return ShapedJSONObject.super.entrySet().iterator();
+                }
+                return new ShapedIterator<Map.Entry<String, Object>>()
+                {
+                    @Override
+                    final Map.Entry<String, Object> make(final int index)
+                    {
+                        return new ShapedEntry(index);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Object clone()
+    {
+        final ShapedJSONObject copy = (ShapedJSONObject) super.clone();
+
+        if (null != m_values)
+        {
+            // HashMap.clone() copied our fields into the map storage of the copy as well, so empty that again.
+
+            copy.clearMap();
+
+            copy.m_values = m_values.clone();
+        }
+        return copy;
+    }
+
+    private final void clearMap()
+    {
+        super.clear();
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        final Writer pretty = JSONPrettyWriter.wrap(out, context);
+
+        if (pretty != out)
+        {
+            writeJSONString(pretty, context, strict);
+
+            return;
+        }
+        if ((null == m_shape) || ((null != context) && (null != context.getObjectReplacer())))
+        {
+            super.writeJSONString(out, context, strict);
+
+            return;
+        }
+        final JSONShape shape = m_shape;
+
+        final Object[] values = m_values;
+
+        final NoSyncUTF8OutputStreamWriter utf8 = (out instanceof NoSyncUTF8OutputStreamWriter) ? ((NoSyncUTF8OutputStreamWriter) out) : null;
+
+        out.write('{');
+
+        for (int i = 0; i < values.length; i++)
+        {
+            if (i > 0)
+            {
+                out.write(',');
+            }
+            if (null != utf8)
+            {
+                final byte[] bytes = shape.getKeyBytes(i);
+
+                utf8.writeBytes(bytes, 0, bytes.length);
+            }
+            else
+            {
+                JSONUtils.writeJSONString(shape.getKey(i), out, context, strict);
+
+                out.write(':');
+            }
+            JSONUtils.writeJSONString(values[i], out, context, strict);
+        }
+        out.write('}');
+    }
+
+    @Override
+    public void writeJSONString(final Writer out) throws IOException
+    {
+        writeJSONString(out, null, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final boolean strict) throws IOException
+    {
+        writeJSONString(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
+    {
+        writeJSONString(out, context, false);
+    }
+
+    private final Object writeReplace()
+    {
+        return new JSONObject(this);
+    }
+
+    private final class ShapedEntry implements Map.Entry<String, Object>
+    {
+        private final JSONShape m_from;
+
+        private final int       m_index;
+
+        ShapedEntry(final int index)
+        {
+            m_from = m_shape;
+
+            m_index = index;
+        }
+
+        @Override
+        public String getKey()
+        {
+            return m_from.getKey(m_index);
+        }
+
+        @Override
+        public Object getValue()
+        {
+            if (m_from != m_shape)
+            {
+                throw new ConcurrentModificationException();
+            }
+            return m_values[m_index];
+        }
+
+        @Override
+        public Object setValue(final Object value)
+        {
+            if (m_from != m_shape)
+            {
+                throw new ConcurrentModificationException();
+            }
+            final Object prev = m_values[m_index];
+
+            m_values[m_index] = value;
+
+            return prev;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            if (other instanceof Map.Entry)
+            {
+                final Map.Entry<?, ?> entry = ((Map.Entry<?, ?>) other);
+
+                return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+            }
+            return false;
+        }
+
+        @Override
+        public String toString()
+        {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private abstract class ShapedIterator<T> implements Iterator<T>
+    {
+        private int m_index;
+
+        private int m_last     = -1;
+
+        private int m_expected = m_modcount;
+
+        abstract T make(int index);
+
+        @Override
+        public boolean hasNext()
+        {
+            return (m_index < size());
+        }
+
+        @Override
+        public T next()
+        {
+            if (m_expected != m_modcount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (m_index >= size())
+            {
+                throw new NoSuchElementException();
+            }
+            m_last = m_index++;
+
+            return make(m_last);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (m_last < 0)
+            {
+                throw new IllegalStateException();
+            }
+            if (m_expected != m_modcount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            ShapedJSONObject.this.remove(m_shape.getKey(m_last));
+
+            m_index = m_last;
+
+            m_last = -1;
+
+            m_expected = m_modcount;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.binder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.core.io.Resource;
+
+import com.ait.tooling.server.core.io.FileChannelIO;
+import com.ait.tooling.server.core.io.NoCloseProxyInputStream;
+import com.ait.tooling.server.core.io.NoCloseProxyOutputStream;
+import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.ParserException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MapperFeature;
+
+public abstract class AbstractBinaryDataBinder extends AbstractDataBinder
+{
+    protected AbstractBinaryDataBinder(final BinderType type)
+    {
+        super(type);
+    }
+
+    protected AbstractBinaryDataBinder(final BinderType type, final MapperFeature... features)
+    {
+        super(type, features);
+    }
+
+    protected AbstractBinaryDataBinder(final BinderType type, final List<MapperFeature> features)
+    {
+        super(type, features);
+    }
+
+    protected boolean isFlushedPerValue()
+    {
+        return false;
+    }
+
+    private static final boolean isTree(final Object object)
+    {
+        return ((object instanceof Map) || (object instanceof List));
+    }
+
+    private final ParserException textError(final String what)
+    {
+        // Text methods would hand binary bytes to a char based reader or writer, so they're refused up front with a clear reason.
+
+        return new ParserException(new UnsupportedOperationException(getType() + " is a binary format, " + what + " is not supported"));
+    }
+
+    private final JSONObject readTree(final InputStream stream) throws ParserException
+    {
+        try (JsonParser parser = getMapper().getFactory().createParser(stream))
+        {
+            return BinderTreeCodec.readObject(parser);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    private final void writeTree(final OutputStream stream, final Object object) throws ParserException
+    {
+        try (JsonGenerator gen = getMapper().getFactory().createGenerator(stream))
+        {
+            BinderTreeCodec.write(gen, object, isStrict());
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public <T> T bind(final Reader reader, final Class<T> claz) throws ParserException
+    {
+        throw textError("bind(Reader)");
+    }
+
+    @Override
+    public <T> T bind(final String text, final Class<T> claz) throws ParserException
+    {
+        throw textError("bind(String)");
+    }
+
+    @Override
+    public JSONObject bindJSON(final Reader reader) throws ParserException
+    {
+        throw textError("bindJSON(Reader)");
+    }
+
+    @Override
+    public JSONObject bindJSON(final String text) throws ParserException
+    {
+        throw textError("bindJSON(String)");
+    }
+
+    @Override
+    public <T> Stream<T> stream(final Reader reader, final Class<T> claz) throws ParserException
+    {
+        throw textError("stream(Reader)");
+    }
+
+    @Override
+    public void send(final Writer writer, final Object object) throws ParserException
+    {
+        throw textError("send(Writer)");
+    }
+
+    @Override
+    public String toString(final Object object) throws ParserException
+    {
+        throw textError("toString(Object)");
+    }
+
+    @Override
+    public JSONObject bindJSON(final byte[] bytes) throws ParserException
+    {
+        try (JsonParser parser = getMapper().getFactory().createParser(Objects.requireNonNull(bytes)))
+        {
+            return BinderTreeCodec.readObject(parser);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public JSONObject bindJSON(final InputStream stream) throws ParserException
+    {
+        return readTree(new NoCloseProxyInputStream(stream));
+    }
+
+    @Override
+    public JSONObject bindJSON(final File file) throws ParserException
+    {
+        try (InputStream stream = FileChannelIO.input(file))
+        {
+            return readTree(stream);
+        }
+        catch (ParserException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public JSONObject bindJSON(final Resource resource) throws ParserException
+    {
+        try (InputStream stream = resource.getInputStream())
+        {
+            return readTree(stream);
+        }
+        catch (ParserException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public JSONObject bindJSON(final URL url) throws ParserException
+    {
+        try (InputStream stream = url.openStream())
+        {
+            return readTree(stream);
+        }
+        catch (ParserException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public byte[] toBytes(final Object object) throws ParserException
+    {
+        Objects.requireNonNull(object);
+
+        if (isTree(object))
+        {
+            final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+            writeTree(stream, object);
+
+            return stream.toByteArray();
+        }
+        return super.toBytes(object);
+    }
+
+    @Override
+    public void send(final OutputStream stream, final Object object) throws ParserException
+    {
+        Objects.requireNonNull(object);
+
+        if (isTree(object))
+        {
+            writeTree(new NoCloseProxyOutputStream(stream), object);
+        }
+        else
+        {
+            super.send(stream, object);
+        }
+    }
+
+    @Override
+    public void sendAll(final OutputStream stream, final Iterator<?> values) throws ParserException
+    {
+        Objects.requireNonNull(values);
+
+        // Binary formats need no separator, values are simply written back to back as a sequence of root values.
+
+        try (JsonGenerator gen = getMapper().getFactory().createGenerator(new NoCloseProxyOutputStream(stream)))
+        {
+            while (values.hasNext())
+            {
+                final Object value = values.next();
+
+                if (isTree(value))
+                {
+                    BinderTreeCodec.write(gen, value, isStrict());
+                }
+                else
+                {
+                    getValuesWriter().writeValue(gen, value);
+                }
+                if (isFlushedPerValue())
+                {
+                    gen.flush();
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public void send(final File file, final Object object) throws ParserException
+    {
+        Objects.requireNonNull(object);
+
+        if (isTree(object))
+        {
+            try (OutputStream stream = FileChannelIO.output(file))
+            {
+                writeTree(stream, object);
+            }
+            catch (ParserException e)
+            {
+                throw e;
+            }
+            catch (Exception e)
+            {
+                throw new ParserException(e);
+            }
+        }
+        else
+        {
+            super.send(file, object);
+        }
+    }
+}
@@ -17,33 +17,53 @@
 package com.ait.tooling.server.core.json.binder;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.net.URL;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.springframework.core.io.Resource;
 
+import com.ait.tooling.server.core.io.FileChannelIO;
 import com.ait.tooling.server.core.io.NoCloseProxyInputStream;
 import com.ait.tooling.server.core.io.NoCloseProxyOutputStream;
 import com.ait.tooling.server.core.io.NoCloseProxyReader;
 import com.ait.tooling.server.core.io.NoCloseProxyWriter;
-import com.ait.tooling.server.core.io.NoSyncStringBuilderWriter;
 import com.ait.tooling.server.core.json.JSONObject;
 import com.ait.tooling.server.core.json.ParserException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 public abstract class AbstractDataBinder implements IBinder
 {
-    private ObjectMapper m_mapper;
+    private BinderMapper                          m_mapper;
 
-    private boolean      m_strict = false;
+    private final BinderType                      m_btype;
+
+    private final EnumMap<MapperFeature, Boolean> m_features = new EnumMap<MapperFeature, Boolean>(MapperFeature.class);
+
+    private boolean                               m_strict   = false;
+
+    private boolean                               m_frozen   = false;
 
     @SuppressWarnings("unchecked")
     protected final static JSONObject MAKE(final Object make)
@@ -51,9 +71,35 @@ public abstract class AbstractDataBinder implements IBinder
         return new JSONObject((Map<String, Object>) make);
     }
 
+    @SuppressWarnings("unchecked")
+    protected final static <T> Stream<T> STREAM(final MappingIterator<?> iter, final Class<T> claz)
+    {
+        final Stream<?> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iter, Spliterator.ORDERED), false).onClose(() -> CLOSE(iter));
+
+        if (JSONObject.class == claz)
+        {
+            return (Stream<T>) stream.map(AbstractDataBinder::MAKE);
+        }
+        return (Stream<T>) stream;
+    }
+
+    private final static void CLOSE(final MappingIterator<?> iter)
+    {
+        try
+        {
+            iter.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     protected AbstractDataBinder(final ObjectMapper mapper)
     {
-        m_mapper = mapper;
+        m_mapper = new BinderMapper(mapper);
+
+        m_btype = null;
     }
 
     protected AbstractDataBinder(final ObjectMapper mapper, final MapperFeature... features)
@@ -70,9 +116,100 @@ public abstract class AbstractDataBinder implements IBinder
         enable(features);
     }
 
+    protected AbstractDataBinder(final BinderType type)
+    {
+        m_btype = Objects.requireNonNull(type);
+
+        m_mapper = BinderFactory.getBinderMapper(m_btype, m_features);
+    }
+
+    protected AbstractDataBinder(final BinderType type, final MapperFeature... features)
+    {
+        this(type);
+
+        enable(features);
+    }
+
+    protected AbstractDataBinder(final BinderType type, final List<MapperFeature> features)
+    {
+        this(type);
+
+        enable(features);
+    }
+
+    final AbstractDataBinder freeze()
+    {
+        m_frozen = true;
+
+        return this;
+    }
+
+    public boolean isFrozen()
+    {
+        return m_frozen;
+    }
+
+    private final void mutable()
+    {
+        // Frozen binders are shared, so a setting changed on one would change it for every caller.
+
+        if (m_frozen)
+        {
+            throw new IllegalStateException("binder is frozen and shared, use BinderFactory.newBinder() for one that can be configured");
+        }
+    }
+
+    private final IBinder feature(final MapperFeature feature, final boolean state)
+    {
+        if (null == m_btype)
+        {
+            // Mapper was handed to us by a subclass, it's ours alone - change it in place, but the cached readers and writers are stale now.
+
+            m_mapper = new BinderMapper(m_mapper.getMapper().configure(feature, state));
+        }
+        else
+        {
+            // Shared mappers are never changed, switch over to the cached mapper for the new feature set.
+
+            m_features.put(feature, state);
+
+            m_mapper = BinderFactory.getBinderMapper(m_btype, m_features);
+        }
+        return this;
+    }
+
+    final ObjectMapper getMapper()
+    {
+        return m_mapper.getMapper();
+    }
+
+    protected ObjectReader getReader(final Class<?> claz)
+    {
+        return m_mapper.getReader(claz);
+    }
+
+    protected ObjectWriter getWriter(final Class<?> claz)
+    {
+        return m_mapper.getWriter(claz);
+    }
+
+    protected ObjectReader getStreamReader(final Class<?> claz)
+    {
+        // JSONObject elements are read as plain maps and wrapped, the same as bindJSON() does.
+
+        return m_mapper.getReader((JSONObject.class == claz) ? LinkedHashMap.class : claz);
+    }
+
+    protected ObjectWriter getValuesWriter()
+    {
+        return m_mapper.getValuesWriter();
+    }
+
     @Override
     public IBinder setStrict(final boolean strict)
     {
+        mutable();
+
         m_strict = strict;
 
         return this;
@@ -87,25 +224,31 @@ public abstract class AbstractDataBinder implements IBinder
     @Override
     public IBinder configure(final MapperFeature feature, final boolean state)
     {
-        m_mapper = m_mapper.configure(feature, state);
+        mutable();
 
-        return this;
+        return feature(Objects.requireNonNull(feature), state);
     }
 
     @Override
     public IBinder enable(final MapperFeature... features)
     {
-        m_mapper = m_mapper.enable(features);
+        mutable();
 
+        for (MapperFeature feature : features)
+        {
+            feature(Objects.requireNonNull(feature), true);
+        }
         return this;
     }
 
     @Override
     public IBinder enable(final List<MapperFeature> features)
     {
+        mutable();
+
         for (MapperFeature feature : features)
         {
-            m_mapper = m_mapper.enable(feature);
+            feature(Objects.requireNonNull(feature), true);
         }
         return this;
     }
@@ -113,17 +256,23 @@ public abstract class AbstractDataBinder implements IBinder
     @Override
     public IBinder disable(final MapperFeature... features)
     {
-        m_mapper = m_mapper.disable(features);
+        mutable();
 
+        for (MapperFeature feature : features)
+        {
+            feature(Objects.requireNonNull(feature), false);
+        }
         return this;
     }
 
     @Override
     public IBinder disable(final List<MapperFeature> features)
     {
+        mutable();
+
         for (MapperFeature feature : features)
         {
-            m_mapper = m_mapper.disable(feature);
+            feature(Objects.requireNonNull(feature), false);
         }
         return this;
     }
@@ -131,15 +280,15 @@ public abstract class AbstractDataBinder implements IBinder
     @Override
     public boolean isEnabled(final MapperFeature feature)
     {
-        return m_mapper.isEnabled(feature);
+        return getMapper().isEnabled(feature);
     }
 
     @Override
     public <T> T bind(final File file, final Class<T> claz) throws ParserException
     {
-        try
+        try (InputStream stream = FileChannelIO.input(file))
         {
-            return m_mapper.readValue(file, claz);
+            return getReader(claz).readValue(stream);
         }
         catch (Exception e)
         {
@@ -152,7 +301,7 @@ public abstract class AbstractDataBinder implements IBinder
     {
         try
         {
-            return m_mapper.readValue(new NoCloseProxyInputStream(stream), claz);
+            return getReader(claz).readValue(new NoCloseProxyInputStream(stream));
         }
         catch (Exception e)
         {
@@ -165,7 +314,7 @@ public abstract class AbstractDataBinder implements IBinder
     {
         try
         {
-            return m_mapper.readValue(new NoCloseProxyReader(reader), claz);
+            return getReader(claz).readValue(new NoCloseProxyReader(reader));
         }
         catch (Exception e)
         {
@@ -178,7 +327,7 @@ public abstract class AbstractDataBinder implements IBinder
     {
         try
         {
-            return m_mapper.readValue(resource.getInputStream(), claz);
+            return getReader(claz).readValue(resource.getInputStream());
         }
         catch (Exception e)
         {
@@ -191,7 +340,7 @@ public abstract class AbstractDataBinder implements IBinder
     {
         try
         {
-            return m_mapper.readValue(url, claz);
+            return getReader(claz).readValue(url);
         }
         catch (Exception e)
         {
@@ -204,7 +353,7 @@ public abstract class AbstractDataBinder implements IBinder
     {
         try
         {
-            return m_mapper.readValue(text, claz);
+            return getReader(claz).readValue(text);
         }
         catch (Exception e)
         {
@@ -215,7 +364,20 @@ public abstract class AbstractDataBinder implements IBinder
     @Override
     public <T> T bind(final JSONObject json, final Class<T> claz) throws ParserException
     {
-        return bind(json.toJSONString(isStrict()), claz);
+        Objects.requireNonNull(json);
+
+        try
+        {
+            final TokenBuffer buffer = new TokenBuffer(getMapper(), false);
+
+            BinderTreeCodec.write(buffer, json, isStrict());
+
+            return getReader(claz).readValue(buffer.asParser());
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
     }
 
     @Override
@@ -254,6 +416,58 @@ public abstract class AbstractDataBinder implements IBinder
         return MAKE(bind(text, LinkedHashMap.class));
     }
 
+    @Override
+    public JSONObject bindJSON(final byte[] bytes) throws ParserException
+    {
+        try
+        {
+            return MAKE(getReader(LinkedHashMap.class).readValue(bytes));
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(final File file, final Class<T> claz) throws ParserException
+    {
+        try
+        {
+            return STREAM(getStreamReader(claz).readValues(file), claz);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(final InputStream stream, final Class<T> claz) throws ParserException
+    {
+        try
+        {
+            return STREAM(getStreamReader(claz).readValues(new NoCloseProxyInputStream(stream)), claz);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(final Reader reader, final Class<T> claz) throws ParserException
+    {
+        try
+        {
+            return STREAM(getStreamReader(claz).readValues(new NoCloseProxyReader(reader)), claz);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
     @Override
     public void send(final File file, final Object object) throws ParserException
     {
@@ -261,7 +475,7 @@ public abstract class AbstractDataBinder implements IBinder
 
         try
         {
-            m_mapper.writeValue(file, object);
+            getWriter(object.getClass()).writeValue(file, object);
         }
         catch (Exception e)
         {
@@ -276,7 +490,7 @@ public abstract class AbstractDataBinder implements IBinder
 
         try
         {
-            m_mapper.writeValue(new NoCloseProxyOutputStream(stream), object);
+            getWriter(object.getClass()).writeValue(new NoCloseProxyOutputStream(stream), object);
         }
         catch (Exception e)
         {
@@ -291,7 +505,46 @@ public abstract class AbstractDataBinder implements IBinder
 
         try
         {
-            m_mapper.writeValue(new NoCloseProxyWriter(writer), object);
+            getWriter(object.getClass()).writeValue(new NoCloseProxyWriter(writer), object);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public void sendAll(final OutputStream stream, final Iterator<?> values) throws ParserException
+    {
+        Objects.requireNonNull(values);
+
+        if (m_mapper.isJSON())
+        {
+            // Newline delimited JSON ends every value with a newline, so batches appended to one stream stay one value per line.
+
+            try (JsonGenerator gen = getMapper().getFactory().createGenerator(new NoCloseProxyOutputStream(stream)))
+            {
+                gen.setRootValueSeparator(null);
+
+                while (values.hasNext())
+                {
+                    getValuesWriter().writeValue(gen, values.next());
+
+                    gen.writeRaw('\n');
+                }
+            }
+            catch (Exception e)
+            {
+                throw new ParserException(e);
+            }
+            return;
+        }
+        try (SequenceWriter writer = getValuesWriter().writeValues(new NoCloseProxyOutputStream(stream)))
+        {
+            while (values.hasNext())
+            {
+                writer.write(values.next());
+            }
         }
         catch (Exception e)
         {
@@ -306,7 +559,22 @@ public abstract class AbstractDataBinder implements IBinder
 
         try
         {
-            return m_mapper.writeValueAsString(object);
+            return getWriter(object.getClass()).writeValueAsString(object);
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
+    @Override
+    public byte[] toBytes(final Object object) throws ParserException
+    {
+        Objects.requireNonNull(object);
+
+        try
+        {
+            return getWriter(object.getClass()).writeValueAsBytes(object);
         }
         catch (Exception e)
         {
@@ -335,11 +603,15 @@ public abstract class AbstractDataBinder implements IBinder
             }
             else
             {
-                final NoSyncStringBuilderWriter writer = new NoSyncStringBuilderWriter();
+                // The POJO is serialized into a token buffer and read back as a tree, there is no intermediate text.
+
+                final ObjectMapper mapper = getMapperForJSON();
 
-                getMapperForJSON().writeValue(writer, object);
+                final TokenBuffer buffer = new TokenBuffer(mapper, false);
 
-                return bindJSON(writer.toString());
+                mapper.writeValue(buffer, object);
+
+                return BinderTreeCodec.readObject(buffer.asParser());
             }
         }
         catch (Exception e)
@@ -357,7 +629,7 @@ public abstract class AbstractDataBinder implements IBinder
     @Override
     public boolean canSerializeType(final Class<?> type)
     {
-        return m_mapper.canSerialize(Objects.requireNonNull(type));
+        return getMapper().canSerialize(Objects.requireNonNull(type));
     }
 
     @Override
@@ -372,6 +644,9 @@ public abstract class AbstractDataBinder implements IBinder
 
     protected ObjectMapper getMapperForJSON()
     {
-        return new ObjectMapper();
+        // The default is the process wide cached JSON mapper, which is read only - an override that needs other settings should
+        // return its own mapper rather than configure this one.
+
+        return BinderFactory.getBinderMapper(BinderType.JSON, null).getMapper();
     }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.binder;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+public final class BinderFactory
+{
+    private static final ConcurrentHashMap<MapperKey, BinderMapper> MAPPERS = new ConcurrentHashMap<MapperKey, BinderMapper>();
+
+    private static final ConcurrentHashMap<BinderType, IBinder>     BINDERS = new ConcurrentHashMap<BinderType, IBinder>();
+
+    private BinderFactory()
+    {
+    }
+
+    public static final IBinder getBinder()
+    {
+        return getBinder(BinderType.JSON);
+    }
+
+    public static final IBinder getBinder(final BinderType type)
+    {
+        // Shared and frozen - configure/enable/disable/setStrict on these throw, newBinder() gives a private one to configure.
+
+        return BINDERS.computeIfAbsent(Objects.requireNonNull(type), kind -> newBinder(kind).freeze());
+    }
+
+    public static final AbstractDataBinder newBinder(final BinderType type)
+    {
+        switch (Objects.requireNonNull(type))
+        {
+            case XML:
+                return new XMLBinder();
+            case YAML:
+                return new YAMLBinder();
+            case CBOR:
+                return new CBORBinder();
+            case SMILE:
+                return new SmileBinder();
+            case MESSAGEPACK:
+                return new MessagePackBinder();
+            case JSON:
+                return new JSONBinder();
+            default:
+                return new JSONBinder();
+        }
+    }
+
+    static final BinderMapper getBinderMapper(final BinderType type, final Map<MapperFeature, Boolean> features)
+    {
+        final MapperKey look = new MapperKey(type, features);
+
+        BinderMapper mapper = MAPPERS.get(look);
+
+        if (null == mapper)
+        {
+            final ObjectMapper make = makeMapper(type);
+
+            for (Map.Entry<MapperFeature, Boolean> entry : look.getFeatures().entrySet())
+            {
+                make.configure(entry.getKey(), entry.getValue());
+            }
+            mapper = new BinderMapper(make);
+
+            final BinderMapper prev = MAPPERS.putIfAbsent(look, mapper);
+
+            if (null != prev)
+            {
+                mapper = prev;
+            }
+        }
+        return mapper;
+    }
+
+    private static final ObjectMapper makeMapper(final BinderType type)
+    {
+        switch (type)
+        {
+            case XML:
+                return new XmlMapper();
+            case YAML:
+                return new ObjectMapper(new YAMLFactory());
+            case CBOR:
+                return new ObjectMapper(new CBORFactory());
+            case SMILE:
+                return new ObjectMapper(new SmileFactory());
+            case MESSAGEPACK:
+                return new ObjectMapper(new MessagePackFactory());
+            case JSON:
+                return new ObjectMapper();
+            default:
+                return new ObjectMapper();
+        }
+    }
+
+    private static final class MapperKey
+    {
+        private final BinderType                  m_type;
+
+        private final Map<MapperFeature, Boolean> m_features;
+
+        private final int                         m_hash;
+
+        MapperKey(final BinderType type, final Map<MapperFeature, Boolean> features)
+        {
+            m_type = Objects.requireNonNull(type);
+
+            if ((null == features) || (features.isEmpty()))
+            {
+                m_features = Collections.emptyMap();
+            }
+            else
+            {
+                m_features = Collections.unmodifiableMap(new EnumMap<MapperFeature, Boolean>(features));
+            }
+            m_hash = (31 * m_type.hashCode()) + m_features.hashCode();
+        }
+
+        final Map<MapperFeature, Boolean> getFeatures()
+        {
+            return m_features;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return m_hash;
+        }
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (other instanceof MapperKey)
+            {
+                final MapperKey look = ((MapperKey) other);
+
+                return ((m_type == look.m_type) && (m_features.equals(look.m_features)));
+            }
+            return false;
+        }
+    }
+}
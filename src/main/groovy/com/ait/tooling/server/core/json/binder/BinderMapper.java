@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.binder;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+final class BinderMapper
+{
+    private static final int                                CACHE_LIMIT = 256;
+
+    private final ObjectMapper                              m_mapper;
+
+    private final ConcurrentHashMap<Class<?>, ObjectReader> m_reader    = new ConcurrentHashMap<Class<?>, ObjectReader>();
+
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> m_writer    = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+    private final ObjectWriter                              m_values;
+
+    private final boolean                                   m_json;
+
+    BinderMapper(final ObjectMapper mapper)
+    {
+        m_mapper = Objects.requireNonNull(mapper);
+
+        m_json = JsonFactory.FORMAT_NAME_JSON.equals(m_mapper.getFactory().getFormatName());
+
+        // Sequences flush once at the end rather than after every value, and JSON goes one value per line - never indented, as
+        // that would split a value across lines. The newline after each value is written by sendAll.
+
+        final ObjectWriter values = m_mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        if (m_json)
+        {
+            m_values = values.without(SerializationFeature.INDENT_OUTPUT);
+        }
+        else
+        {
+            m_values = values;
+        }
+    }
+
+    final ObjectMapper getMapper()
+    {
+        return m_mapper;
+    }
+
+    final boolean isJSON()
+    {
+        return m_json;
+    }
+
+    final ObjectWriter getValuesWriter()
+    {
+        return m_values;
+    }
+
+    final ObjectReader getReader(final Class<?> type)
+    {
+        ObjectReader reader = m_reader.get(type);
+
+        if (null == reader)
+        {
+            reader = m_mapper.readerFor(type);
+
+            // Past the limit new types are still served, just not remembered - mappers live for the whole process.
+
+            if (m_reader.size() >= CACHE_LIMIT)
+            {
+                return reader;
+            }
+            final ObjectReader prev = m_reader.putIfAbsent(type, reader);
+
+            if (null != prev)
+            {
+                reader = prev;
+            }
+        }
+        return reader;
+    }
+
+    final ObjectWriter getWriter(final Class<?> type)
+    {
+        ObjectWriter writer = m_writer.get(type);
+
+        if (null == writer)
+        {
+            writer = m_mapper.writerFor(type);
+
+            if (m_writer.size() >= CACHE_LIMIT)
+            {
+                return writer;
+            }
+            final ObjectWriter prev = m_writer.putIfAbsent(type, writer);
+
+            if (null != prev)
+            {
+                writer = prev;
+            }
+        }
+        return writer;
+    }
+}
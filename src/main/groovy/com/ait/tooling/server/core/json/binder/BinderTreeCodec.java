@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.binder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.ait.tooling.server.core.json.JSONArray;
+import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.JSONUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+final class BinderTreeCodec
+{
+    private BinderTreeCodec()
+    {
+    }
+
+    static final void write(final JsonGenerator gen, final Object value, final boolean strict) throws IOException
+    {
+        // Values go straight to the generator as tokens - no text form, and numbers keep their native binary encoding.
+
+        if (null == value)
+        {
+            gen.writeNull();
+        }
+        else if (value instanceof String)
+        {
+            gen.writeString((String) value);
+        }
+        else if (value instanceof Map)
+        {
+            final Map<?, ?> map = ((Map<?, ?>) value);
+
+            gen.writeStartObject();
+
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                gen.writeFieldName(entry.getKey().toString());
+
+                write(gen, entry.getValue(), strict);
+            }
+            gen.writeEndObject();
+        }
+        else if (value instanceof List)
+        {
+            final List<?> list = ((List<?>) value);
+
+            final int size = list.size();
+
+            gen.writeStartArray();
+
+            for (int i = 0; i < size; i++)
+            {
+                write(gen, list.get(i), strict);
+            }
+            gen.writeEndArray();
+        }
+        else if (value instanceof Number)
+        {
+            writeNumber(gen, (Number) value, strict);
+        }
+        else if (value instanceof Boolean)
+        {
+            gen.writeBoolean((Boolean) value);
+        }
+        else if (value instanceof Date)
+        {
+            // Dates go through the binder's own mapper, so they follow its date configuration the same as a Date field on a POJO.
+
+            gen.writeObject(value);
+        }
+        else if (value instanceof TemporalAccessor)
+        {
+            gen.writeObject(toDate((TemporalAccessor) value));
+        }
+        else
+        {
+            gen.writeObject(value);
+        }
+    }
+
+    private static final Date toDate(final TemporalAccessor value)
+    {
+        if (value instanceof LocalDateTime)
+        {
+            return Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return Date.from(Instant.from(value));
+    }
+
+    private static final void writeNumber(final JsonGenerator gen, final Number value, final boolean strict) throws IOException
+    {
+        if ((value instanceof Integer) || (value instanceof Short) || (value instanceof Byte))
+        {
+            gen.writeNumber(value.intValue());
+        }
+        else if (value instanceof Long)
+        {
+            final long lval = value.longValue();
+
+            // Same rule as the text writer, strict output has no Long outside the int range so it goes out as null.
+
+            if (strict && ((lval > Integer.MAX_VALUE) || (lval < Integer.MIN_VALUE)))
+            {
+                gen.writeNull();
+            }
+            else
+            {
+                gen.writeNumber(lval);
+            }
+        }
+        else if ((value instanceof Double) || (value instanceof Float))
+        {
+            final double dval = value.doubleValue();
+
+            // Same rule as the text writer, a non-finite value has no JSON form so it goes out as null.
+
+            if (Double.isFinite(dval))
+            {
+                gen.writeNumber(dval);
+            }
+            else
+            {
+                gen.writeNull();
+            }
+        }
+        else if (value instanceof BigInteger)
+        {
+            gen.writeNumber((BigInteger) value);
+        }
+        else if (value instanceof BigDecimal)
+        {
+            gen.writeNumber((BigDecimal) value);
+        }
+        else
+        {
+            final Number numb = JSONUtils.asNumber(value);
+
+            if (null == numb)
+            {
+                gen.writeNull();
+            }
+            else
+            {
+                writeNumber(gen, numb, strict);
+            }
+        }
+    }
+
+    static final JSONObject readObject(final JsonParser parser) throws IOException
+    {
+        final JsonToken token = parser.nextToken();
+
+        if (JsonToken.START_OBJECT != token)
+        {
+            throw new IOException("expected an object, found " + token);
+        }
+        return object(parser);
+    }
+
+    private static final Object read(final JsonParser parser, final JsonToken token) throws IOException
+    {
+        if (null == token)
+        {
+            throw new IOException("unexpected end of input");
+        }
+        switch (token)
+        {
+            case START_OBJECT:
+                return object(parser);
+            case START_ARRAY:
+                return array(parser);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return decimal(parser);
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case VALUE_EMBEDDED_OBJECT:
+                return embedded(parser.getEmbeddedObject());
+            default:
+                throw new IOException("unexpected token " + token);
+        }
+    }
+
+    private static final Object decimal(final JsonParser parser) throws IOException
+    {
+        final JsonParser.NumberType type = parser.getNumberType();
+
+        if (JsonParser.NumberType.BIG_DECIMAL == type)
+        {
+            return parser.getDecimalValue();
+        }
+        if (JsonParser.NumberType.FLOAT == type)
+        {
+            // A float read from a token buffer is widened the way it would print, 1.1f comes back as 1.1 not 1.100000023841858.
+
+            return Double.valueOf(Float.toString(parser.getFloatValue()));
+        }
+        return parser.getDoubleValue();
+    }
+
+    private static final Object embedded(final Object value)
+    {
+        // Raw binary blobs have no JSON type, so they're carried as base64 text the same way Jackson writes them to JSON.
+
+        if (value instanceof byte[])
+        {
+            return Base64.getEncoder().encodeToString((byte[]) value);
+        }
+        return value;
+    }
+
+    private static final JSONObject object(final JsonParser parser) throws IOException
+    {
+        final JSONObject json = new JSONObject();
+
+        JsonToken token = parser.nextToken();
+
+        while (JsonToken.FIELD_NAME == token)
+        {
+            final String name = parser.getCurrentName();
+
+            json.put(name, read(parser, parser.nextToken()));
+
+            token = parser.nextToken();
+        }
+        if (JsonToken.END_OBJECT != token)
+        {
+            throw new IOException("unexpected token " + token);
+        }
+        return json;
+    }
+
+    private static final JSONArray array(final JsonParser parser) throws IOException
+    {
+        final JSONArray list = new JSONArray();
+
+        JsonToken token = parser.nextToken();
+
+        while ((null != token) && (JsonToken.END_ARRAY != token))
+        {
+            list.add(read(parser, token));
+
+            token = parser.nextToken();
+        }
+        if (null == token)
+        {
+            throw new IOException("unexpected end of input");
+        }
+        return list;
+    }
+}
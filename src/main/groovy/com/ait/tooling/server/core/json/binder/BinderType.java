@@ -21,13 +21,22 @@ import com.ait.tooling.common.api.types.IStringValued;
 
 public enum BinderType implements IStringValued
 {
-    JSON("JSON"), YAML("YAML"), XML("XML");
+    JSON("JSON", false), YAML("YAML", false), XML("XML", false), CBOR("CBOR", true), SMILE("SMILE", true), MESSAGEPACK("MESSAGEPACK", true);
 
-    private final String m_value;
+    private final String  m_value;
 
-    private BinderType(final String value)
+    private final boolean m_binary;
+
+    private BinderType(final String value, final boolean binary)
     {
         m_value = StringOps.requireTrimOrNull(value);
+
+        m_binary = binary;
+    }
+
+    public final boolean isBinary()
+    {
+        return m_binary;
     }
 
     @Override
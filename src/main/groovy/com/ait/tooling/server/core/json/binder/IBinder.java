@@ -22,7 +22,9 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.core.io.Resource;
 
@@ -58,6 +60,14 @@ public interface IBinder
 
     public JSONObject bindJSON(URL url) throws ParserException;
 
+    public JSONObject bindJSON(byte[] bytes) throws ParserException;
+
+    public <T> Stream<T> stream(File file, Class<T> claz) throws ParserException;
+
+    public <T> Stream<T> stream(InputStream stream, Class<T> claz) throws ParserException;
+
+    public <T> Stream<T> stream(Reader reader, Class<T> claz) throws ParserException;
+
     public IBinder configure(MapperFeature feature, boolean state);
 
     public IBinder disable(List<MapperFeature> features);
@@ -78,10 +88,14 @@ public interface IBinder
 
     public void send(Writer writer, Object object) throws ParserException;
 
+    public void sendAll(OutputStream stream, Iterator<?> values) throws ParserException;
+
     public IBinder setStrict(boolean strict);
 
     public String toString(Object object) throws ParserException;
 
+    public byte[] toBytes(Object object) throws ParserException;
+
     public BinderType getType();
 
     public JSONObject toJSONObject(Object object) throws ParserException;
@@ -17,35 +17,35 @@
 package com.ait.tooling.server.core.json.binder;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
-import org.apache.commons.io.IOUtils;
-
+import com.ait.tooling.server.core.io.FileChannelIO;
+import com.ait.tooling.server.core.io.NoCloseProxyOutputStream;
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter;
+import com.ait.tooling.server.core.json.IJSONStreamAware;
 import com.ait.tooling.server.core.json.JSONObject;
 import com.ait.tooling.server.core.json.ParserException;
 import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class JSONBinder extends AbstractDataBinder
 {
     public JSONBinder()
     {
-        super(new ObjectMapper());
+        super(BinderType.JSON);
     }
 
     public JSONBinder(final MapperFeature... features)
     {
-        super(new ObjectMapper(), features);
+        super(BinderType.JSON, features);
     }
 
     public JSONBinder(final List<MapperFeature> features)
     {
-        super(new ObjectMapper(), features);
+        super(BinderType.JSON, features);
     }
 
     @Override
@@ -57,11 +57,10 @@ public class JSONBinder extends AbstractDataBinder
         {
             if (object instanceof JSONObject)
             {
-                final Writer writer = new FileWriter(file);
-
-                ((JSONObject) object).writeJSONString(writer, isStrict());
-
-                IOUtils.closeQuietly(writer);
+                try (Writer writer = FileChannelIO.writer(file))
+                {
+                    ((JSONObject) object).writeJSONString(writer, isStrict());
+                }
             }
             else
             {
@@ -83,7 +82,7 @@ public class JSONBinder extends AbstractDataBinder
         {
             if (object instanceof JSONObject)
             {
-                ((JSONObject) object).writeJSONString(new OutputStreamWriter(stream), isStrict());
+                ((JSONObject) object).writeJSONBytes(stream, isStrict());
             }
             else
             {
@@ -118,6 +117,39 @@ public class JSONBinder extends AbstractDataBinder
         }
     }
 
+    @Override
+    public void sendAll(final OutputStream stream, final Iterator<?> values) throws ParserException
+    {
+        Objects.requireNonNull(values);
+
+        try
+        {
+            // Newline delimited JSON, with JSONObject and friends written natively like send() does.
+
+            final NoSyncUTF8OutputStreamWriter writer = new NoSyncUTF8OutputStreamWriter(new NoCloseProxyOutputStream(stream));
+
+            while (values.hasNext())
+            {
+                final Object value = values.next();
+
+                if (value instanceof IJSONStreamAware)
+                {
+                    ((IJSONStreamAware) value).writeJSONString(writer, isStrict());
+                }
+                else
+                {
+                    writer.write(getValuesWriter().writeValueAsString(value));
+                }
+                writer.write('\n');
+            }
+            writer.finish();
+        }
+        catch (Exception e)
+        {
+            throw new ParserException(e);
+        }
+    }
+
     @Override
     public BinderType getType()
     {
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.binder;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+
+public class MessagePackBinder extends AbstractBinaryDataBinder
+{
+    public MessagePackBinder()
+    {
+        super(BinderType.MESSAGEPACK);
+    }
+
+    public MessagePackBinder(final MapperFeature... features)
+    {
+        super(BinderType.MESSAGEPACK, features);
+    }
+
+    public MessagePackBinder(final List<MapperFeature> features)
+    {
+        super(BinderType.MESSAGEPACK, features);
+    }
+
+    @Override
+    protected boolean isFlushedPerValue()
+    {
+        // The MessagePack generator buffers each root value as a tree and only packs it on flush, so a sequence must flush between values.
+
+        return true;
+    }
+
+    @Override
+    public BinderType getType()
+    {
+        return BinderType.MESSAGEPACK;
+    }
+}
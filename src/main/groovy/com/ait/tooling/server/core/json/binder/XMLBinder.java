@@ -19,23 +19,22 @@ package com.ait.tooling.server.core.json.binder;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 public class XMLBinder extends AbstractDataBinder
 {
     public XMLBinder()
     {
-        super(new XmlMapper());
+        super(BinderType.XML);
     }
 
     public XMLBinder(final MapperFeature... features)
     {
-        super(new XmlMapper(), features);
+        super(BinderType.XML, features);
     }
 
     public XMLBinder(final List<MapperFeature> features)
     {
-        super(new XmlMapper(), features);
+        super(BinderType.XML, features);
     }
 
     @Override
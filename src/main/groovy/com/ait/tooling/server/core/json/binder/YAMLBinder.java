@@ -19,24 +19,22 @@ package com.ait.tooling.server.core.json.binder;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 public class YAMLBinder extends AbstractDataBinder
 {
     public YAMLBinder()
     {
-        super(new ObjectMapper(new YAMLFactory()));
+        super(BinderType.YAML);
     }
 
     public YAMLBinder(final MapperFeature... features)
     {
-        super(new ObjectMapper(new YAMLFactory()), features);
+        super(BinderType.YAML, features);
     }
 
     public YAMLBinder(final List<MapperFeature> features)
     {
-        super(new ObjectMapper(new YAMLFactory()), features);
+        super(BinderType.YAML, features);
     }
 
     @Override
@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.nio.ByteBuffer;
 
 import org.springframework.core.io.Resource;
 
@@ -28,8 +29,18 @@ import com.ait.tooling.server.core.json.ParserException;
 
 public interface IJSONParser
 {
+    public boolean isLazy();
+
+    public boolean isShaped();
+
+    public boolean isDeduplicated();
+
     public JSONObject parse(String in) throws ParserException;
 
+    public JSONObject parse(byte[] in) throws ParserException;
+
+    public JSONObject parse(ByteBuffer in) throws ParserException;
+
     public JSONObject parse(InputStream in) throws ParserException;
 
     public JSONObject parse(Reader in) throws ParserException;
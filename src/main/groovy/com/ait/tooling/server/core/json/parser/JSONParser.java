@@ -17,55 +17,191 @@
 package com.ait.tooling.server.core.json.parser;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
+import org.apache.commons.io.IOUtils;
 import org.springframework.core.io.Resource;
 
+import com.ait.tooling.server.core.io.FileChannelIO;
 import com.ait.tooling.server.core.json.JSONObject;
 import com.ait.tooling.server.core.json.ParserException;
 import com.ait.tooling.server.core.json.binder.JSONBinder;
 
 public final class JSONParser extends JSONBinder implements IJSONParser
 {
+    private final boolean m_lazy;
+
+    private final boolean m_shaped;
+
+    private final boolean m_dedupe;
+
     public JSONParser()
     {
+        this(false, false, false);
+    }
+
+    public JSONParser(final boolean lazy)
+    {
+        this(lazy, false, false);
+    }
+
+    public JSONParser(final boolean lazy, final boolean shaped)
+    {
+        this(lazy, shaped, false);
+    }
+
+    public JSONParser(final boolean lazy, final boolean shaped, final boolean dedupe)
+    {
+        m_lazy = lazy;
+
+        m_shaped = shaped;
+
+        m_dedupe = dedupe;
+    }
+
+    @Override
+    public boolean isLazy()
+    {
+        return m_lazy;
+    }
+
+    @Override
+    public boolean isShaped()
+    {
+        return m_shaped;
+    }
+
+    @Override
+    public boolean isDeduplicated()
+    {
+        return m_dedupe;
     }
 
     @Override
     public JSONObject parse(final String in) throws ParserException
     {
-        return bindJSON(in);
+        if (m_lazy)
+        {
+            return new JSONTokenizer(in).setShaped(m_shaped).setDeduplicated(m_dedupe).parseLazyObject(in);
+        }
+        return new JSONTokenizer(in).setShaped(m_shaped).setDeduplicated(m_dedupe).parseObject();
+    }
+
+    @Override
+    public JSONObject parse(final byte[] in) throws ParserException
+    {
+        if (m_lazy)
+        {
+            return parseLazy(new String(in, StandardCharsets.UTF_8));
+        }
+        return new JSONTokenizer(in).setShaped(m_shaped).setDeduplicated(m_dedupe).parseObject();
+    }
+
+    @Override
+    public JSONObject parse(final ByteBuffer in) throws ParserException
+    {
+        if (m_lazy)
+        {
+            return parseLazy(StandardCharsets.UTF_8.decode(in).toString());
+        }
+        return new JSONTokenizer(in).setShaped(m_shaped).setDeduplicated(m_dedupe).parseObject();
     }
 
     @Override
     public JSONObject parse(final InputStream in) throws ParserException
     {
-        return bindJSON(in);
+        if (m_lazy)
+        {
+            try
+            {
+                return parseLazy(IOUtils.toString(in, StandardCharsets.UTF_8));
+            }
+            catch (IOException e)
+            {
+                throw new ParserException(e);
+            }
+        }
+        return new JSONTokenizer(in).setShaped(m_shaped).setDeduplicated(m_dedupe).parseObject();
     }
 
     @Override
     public JSONObject parse(final Reader in) throws ParserException
     {
-        return bindJSON(in);
+        if (m_lazy)
+        {
+            try
+            {
+                return parseLazy(IOUtils.toString(in));
+            }
+            catch (IOException e)
+            {
+                throw new ParserException(e);
+            }
+        }
+        return new JSONTokenizer(in).setShaped(m_shaped).setDeduplicated(m_dedupe).parseObject();
+    }
+
+    private final JSONObject parseLazy(final String in) throws ParserException
+    {
+        // Lazy objects index into one retained String, so byte input is decoded once up front and any UTF-8 BOM dropped.
+
+        if ((false == in.isEmpty()) && (in.charAt(0) == '\uFEFF'))
+        {
+            return parse(in.substring(1));
+        }
+        return parse(in);
     }
 
     @Override
     public JSONObject parse(final Resource in) throws ParserException
     {
-        return bindJSON(in);
+        Objects.requireNonNull(in);
+
+        try (InputStream stream = in.getInputStream())
+        {
+            return parse(stream);
+        }
+        catch (IOException e)
+        {
+            throw new ParserException(e);
+        }
     }
 
     @Override
     public JSONObject parse(final File in) throws ParserException
     {
-        return bindJSON(in);
+        Objects.requireNonNull(in);
+
+        // Large files are memory mapped, smaller ones read through a buffered channel.
+
+        try (InputStream stream = FileChannelIO.input(in))
+        {
+            return parse(stream);
+        }
+        catch (IOException e)
+        {
+            throw new ParserException(e);
+        }
     }
 
     @Override
     public JSONObject parse(final URL in) throws ParserException
     {
-        return bindJSON(in);
+        Objects.requireNonNull(in);
+
+        try (InputStream stream = in.openStream())
+        {
+            return parse(stream);
+        }
+        catch (IOException e)
+        {
+            throw new ParserException(e);
+        }
     }
 }
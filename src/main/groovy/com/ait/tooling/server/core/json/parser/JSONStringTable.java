@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.parser;
+
+import java.util.Objects;
+
+public final class JSONStringTable
+{
+    public static final int              NAMES_TABLE_SIZE  = 4096;
+
+    public static final int              NAMES_MAX_LENGTH  = 64;
+
+    public static final int              VALUES_TABLE_SIZE = 4096;
+
+    public static final int              VALUES_MAX_LENGTH = 24;
+
+    private static final JSONStringTable NAMES             = new JSONStringTable(NAMES_TABLE_SIZE, NAMES_MAX_LENGTH);
+
+    private static final JSONStringTable VALUES            = new JSONStringTable(VALUES_TABLE_SIZE, VALUES_MAX_LENGTH);
+
+    private final String[]               m_table;
+
+    private final int                    m_mask;
+
+    private final int                    m_most;
+
+    public static final JSONStringTable getNamesTable()
+    {
+        return NAMES;
+    }
+
+    public static final JSONStringTable getValuesTable()
+    {
+        return VALUES;
+    }
+
+    public JSONStringTable(final int size, final int most)
+    {
+        // A fixed array of slots rather than a map - it never grows, so a flood of distinct strings only costs misses, and there
+        // are no locks because a reference write is atomic and a String is safe to publish through a race.
+
+        final int slots = Integer.highestOneBit(Math.max(2, Math.min(size, 1 << 20)) * 2 - 1);
+
+        m_table = new String[slots];
+
+        m_mask = slots - 1;
+
+        m_most = Math.max(0, most);
+    }
+
+    public final int getMaxLength()
+    {
+        return m_most;
+    }
+
+    public final String canonical(final char[] buff, final int off, final int len)
+    {
+        if (len > m_most)
+        {
+            return new String(buff, off, len);
+        }
+        int hash = 0;
+
+        final int end = off + len;
+
+        for (int i = off; i < end; i++)
+        {
+            hash = 31 * hash + buff[i];
+        }
+        final String[] table = m_table;
+
+        final int index = (hash ^ (hash >>> 16)) & m_mask;
+
+        String find = table[index];
+
+        if ((null != find) && same(find, buff, off, len))
+        {
+            return find;
+        }
+        find = table[index ^ 1];
+
+        if ((null != find) && same(find, buff, off, len))
+        {
+            return find;
+        }
+        return store(table, index, new String(buff, off, len));
+    }
+
+    public final String canonical(final String value)
+    {
+        if (Objects.requireNonNull(value).length() > m_most)
+        {
+            return value;
+        }
+        final int hash = value.hashCode();
+
+        final String[] table = m_table;
+
+        final int index = (hash ^ (hash >>> 16)) & m_mask;
+
+        String find = table[index];
+
+        if (value.equals(find))
+        {
+            return find;
+        }
+        find = table[index ^ 1];
+
+        if (value.equals(find))
+        {
+            return find;
+        }
+        return store(table, index, value);
+    }
+
+    private static final String store(final String[] table, final int index, final String value)
+    {
+        // Two slots per hash - the newest string takes the first and pushes the one before it to the second, so a pair of hot
+        // strings that collide don't keep evicting each other.
+
+        final String prev = table[index];
+
+        if (null != prev)
+        {
+            table[index ^ 1] = prev;
+        }
+        table[index] = value;
+
+        return value;
+    }
+
+    private static final boolean same(final String find, final char[] buff, final int off, final int len)
+    {
+        if (find.length() != len)
+        {
+            return false;
+        }
+        for (int i = 0; i < len; i++)
+        {
+            if (find.charAt(i) != buff[off + i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,1395 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import com.ait.tooling.server.core.io.ByteBufferInputStream;
+import com.ait.tooling.server.core.json.AbstractPrimitiveJSONArray;
+import com.ait.tooling.server.core.json.JSONArray;
+import com.ait.tooling.server.core.json.JSONBooleanArray;
+import com.ait.tooling.server.core.json.JSONDoubleArray;
+import com.ait.tooling.server.core.json.JSONIntArray;
+import com.ait.tooling.server.core.json.JSONLongArray;
+import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.ParserException;
+import com.ait.tooling.server.core.json.ShapedJSONObject;
+
+public final class JSONTokenizer
+{
+    private final static int    DEFAULT_CAPACITY = 8192;
+
+    private final static int    LONG_DIGITS_SAFE = 18;
+
+    private final static char[] CHARS_TRUE       = "true".toCharArray();
+
+    private final static char[] CHARS_NULL       = "null".toCharArray();
+
+    private final static char[] CHARS_FALSE      = "false".toCharArray();
+
+    private final Source        m_source;
+
+    private final char[]        m_buffer;
+
+    private final StringBuilder m_string         = new StringBuilder(64);
+
+    private JSONStringTable     m_values;
+
+    private int                 m_posn;
+
+    private int                 m_size;
+
+    private int                 m_base;
+
+    private boolean             m_shaped;
+
+    public JSONTokenizer(final String in)
+    {
+        this(in, 0, in.length());
+    }
+
+    JSONTokenizer(final String in, final int off, final int len)
+    {
+        this(new StringSource(Objects.requireNonNull(in), off, len), Math.min(DEFAULT_CAPACITY, Math.max(16, len)));
+
+        m_base = off;
+    }
+
+    public JSONTokenizer(final Reader in)
+    {
+        this(new ReaderSource(Objects.requireNonNull(in)), DEFAULT_CAPACITY);
+    }
+
+    public JSONTokenizer(final InputStream in)
+    {
+        this(new UTF8Source(Objects.requireNonNull(in)), DEFAULT_CAPACITY);
+    }
+
+    public JSONTokenizer(final byte[] in)
+    {
+        this(in, 0, in.length);
+    }
+
+    public JSONTokenizer(final byte[] in, final int off, final int len)
+    {
+        this(new UTF8Source(Objects.requireNonNull(in), off, len), Math.min(DEFAULT_CAPACITY, Math.max(16, len)));
+    }
+
+    public JSONTokenizer(final ByteBuffer in)
+    {
+        this(in.hasArray() ? new UTF8Source(in.array(), in.arrayOffset() + in.position(), in.remaining()) : new UTF8Source(new ByteBufferInputStream(in)), Math.min(DEFAULT_CAPACITY, Math.max(16, in.remaining())));
+    }
+
+    private JSONTokenizer(final Source source, final int capacity)
+    {
+        m_source = source;
+
+        m_buffer = new char[capacity];
+    }
+
+    public JSONTokenizer setShaped(final boolean shaped)
+    {
+        m_shaped = shaped;
+
+        return this;
+    }
+
+    public boolean isShaped()
+    {
+        return m_shaped;
+    }
+
+    public JSONTokenizer setDeduplicated(final boolean dedupe)
+    {
+        // Member names always come from the shared names table, this also folds short repeated values like status codes.
+
+        m_values = dedupe ? JSONStringTable.getValuesTable() : null;
+
+        return this;
+    }
+
+    public boolean isDeduplicated()
+    {
+        return (null != m_values);
+    }
+
+    public JSONObject parseObject() throws ParserException
+    {
+        final int c = peek();
+
+        if ('{' != c)
+        {
+            throw unexpected(c);
+        }
+        m_posn++;
+
+        final JSONObject json = readObject();
+
+        end();
+
+        return json;
+    }
+
+    public JSONArray parseArray() throws ParserException
+    {
+        final int c = peek();
+
+        if ('[' != c)
+        {
+            throw unexpected(c);
+        }
+        m_posn++;
+
+        final JSONArray list = readArray();
+
+        end();
+
+        return list;
+    }
+
+    public Object parseValue() throws ParserException
+    {
+        final int c = peek();
+
+        if (c < 0)
+        {
+            throw unexpected(c);
+        }
+        m_posn++;
+
+        final Object value = readValue(c);
+
+        end();
+
+        return value;
+    }
+
+    final Object parseLazyValue(final String source) throws ParserException
+    {
+        final int c = peek();
+
+        if ('{' == c)
+        {
+            m_posn++;
+
+            return readLazyObject(source);
+        }
+        return parseValue();
+    }
+
+    final LazyJSONObject parseLazyObject(final String source) throws ParserException
+    {
+        final int c = peek();
+
+        if ('{' != c)
+        {
+            throw unexpected(c);
+        }
+        m_posn++;
+
+        final LazyJSONObject json = readLazyObject(source);
+
+        end();
+
+        return json;
+    }
+
+    public void parseFiltered(final IJSONStreamFilter filter) throws ParserException
+    {
+        final int c = peek();
+
+        if (c < 0)
+        {
+            throw unexpected(c);
+        }
+        m_posn++;
+
+        readFiltered(c, filter.getRootState(), filter);
+
+        end();
+    }
+
+    public int getPosition()
+    {
+        return m_base + m_posn;
+    }
+
+    private final boolean fill() throws ParserException
+    {
+        m_base = m_base + m_size;
+
+        m_posn = 0;
+
+        try
+        {
+            m_size = Math.max(0, m_source.fill(m_buffer));
+        }
+        catch (IOException e)
+        {
+            throw new ParserException(e);
+        }
+        return (m_size > 0);
+    }
+
+    private final int peek() throws ParserException
+    {
+        for (;;)
+        {
+            while (m_posn < m_size)
+            {
+                final char c = m_buffer[m_posn];
+
+                if ((c == ' ') || (c == '\n') || (c == '\r') || (c == '\t'))
+                {
+                    m_posn++;
+                }
+                else
+                {
+                    return c;
+                }
+            }
+            if (false == fill())
+            {
+                return -1;
+            }
+        }
+    }
+
+    private final int next() throws ParserException
+    {
+        final int c = peek();
+
+        if (c >= 0)
+        {
+            m_posn++;
+        }
+        return c;
+    }
+
+    private final void end() throws ParserException
+    {
+        // Only whitespace may follow the root value. An open stream is checked as far as it's buffered, it's never waited on.
+
+        if (m_source.isBounded())
+        {
+            final int c = peek();
+
+            if (c >= 0)
+            {
+                throw unexpected(c);
+            }
+            return;
+        }
+        while (m_posn < m_size)
+        {
+            final char c = m_buffer[m_posn];
+
+            if ((c == ' ') || (c == '\n') || (c == '\r') || (c == '\t'))
+            {
+                m_posn++;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final ParserException unexpected(final int c)
+    {
+        if (c < 0)
+        {
+            return new ParserException(getPosition(), ParserException.ERROR_UNEXPECTED_TOKEN, "END OF INPUT");
+        }
+        return new ParserException(getPosition(), ParserException.ERROR_UNEXPECTED_CHAR, Character.valueOf((char) c));
+    }
+
+    private final Object readValue(final int c) throws ParserException
+    {
+        switch (c)
+        {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString(m_values);
+            case 't':
+                readLiteral(CHARS_TRUE);
+                return Boolean.TRUE;
+            case 'f':
+                readLiteral(CHARS_FALSE);
+                return Boolean.FALSE;
+            case 'n':
+                readLiteral(CHARS_NULL);
+                return null;
+            default:
+                if (isNumberStart(c))
+                {
+                    return readNumber((char) c);
+                }
+                m_posn--;
+
+                throw unexpected(c);
+        }
+    }
+
+    private final JSONObject readObject() throws ParserException
+    {
+        final JSONObject json = m_shaped ? new ShapedJSONObject() : new JSONObject();
+
+        int c = next();
+
+        if ('}' == c)
+        {
+            return json;
+        }
+        for (;;)
+        {
+            if ('"' != c)
+            {
+                throw unexpected(c);
+            }
+            final String name = readString(JSONStringTable.getNamesTable());
+
+            c = next();
+
+            if (':' != c)
+            {
+                throw unexpected(c);
+            }
+            c = next();
+
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            json.put(name, readValue(c));
+
+            c = next();
+
+            if (',' == c)
+            {
+                c = next();
+            }
+            else if ('}' == c)
+            {
+                return json;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final JSONArray readArray() throws ParserException
+    {
+        int c = next();
+
+        if (']' == c)
+        {
+            return new JSONArray();
+        }
+        if (c < 0)
+        {
+            throw unexpected(c);
+        }
+        // The first element picks the storage - homogeneous numeric or boolean arrays stay primitive, anything else deoptimizes on add.
+
+        final JSONArray list;
+
+        if (isNumberStart(c))
+        {
+            final boolean real = scanNumber((char) c);
+
+            list = real ? new JSONDoubleArray() : new JSONLongArray();
+
+            addNumber(list, real);
+        }
+        else if (('t' == c) || ('f' == c))
+        {
+            list = new JSONBooleanArray();
+
+            list.add(readValue(c));
+        }
+        else
+        {
+            list = new JSONArray();
+
+            list.add(readValue(c));
+        }
+        for (;;)
+        {
+            c = next();
+
+            if (']' == c)
+            {
+                return finish(list);
+            }
+            if (',' != c)
+            {
+                throw unexpected(c);
+            }
+            c = next();
+
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            if ((list instanceof AbstractPrimitiveJSONArray) && isNumberStart(c))
+            {
+                addNumber(list, scanNumber((char) c));
+            }
+            else
+            {
+                list.add(readValue(c));
+            }
+        }
+    }
+
+    private final void addNumber(final JSONArray list, final boolean real) throws ParserException
+    {
+        if (real)
+        {
+            if (list instanceof JSONDoubleArray)
+            {
+                ((JSONDoubleArray) list).addDouble(Double.parseDouble(m_string.toString()));
+            }
+            else
+            {
+                list.add(Double.valueOf(m_string.toString()));
+            }
+        }
+        else if ((list instanceof JSONLongArray) && isLongSafe())
+        {
+            ((JSONLongArray) list).addLong(parseLong());
+        }
+        else
+        {
+            list.add(readIntegral());
+        }
+    }
+
+    private static final JSONArray finish(final JSONArray list)
+    {
+        if ((list instanceof AbstractPrimitiveJSONArray) && ((AbstractPrimitiveJSONArray) list).isBoxed())
+        {
+            return new JSONArray(list);
+        }
+        if (list instanceof JSONLongArray)
+        {
+            final JSONLongArray longs = ((JSONLongArray) list);
+
+            if (longs.isIntegerRange())
+            {
+                final int size = longs.size();
+
+                final JSONIntArray ints = new JSONIntArray(size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    ints.addInt((int) longs.getLong(i));
+                }
+                return ints;
+            }
+        }
+        return list;
+    }
+
+    private static final boolean isNumberStart(final int c)
+    {
+        return ((c == '-') || ((c >= '0') && (c <= '9')));
+    }
+
+    private final LazyJSONObject readLazyObject(final String source) throws ParserException
+    {
+        // Only the structure is checked here - each value is recorded as a span of the source and parsed on first access.
+
+        final LazyJSONObject json = new LazyJSONObject(source, m_shaped, isDeduplicated());
+
+        int c = next();
+
+        if ('}' == c)
+        {
+            return json;
+        }
+        for (;;)
+        {
+            if ('"' != c)
+            {
+                throw unexpected(c);
+            }
+            final String name = readString(JSONStringTable.getNamesTable());
+
+            c = next();
+
+            if (':' != c)
+            {
+                throw unexpected(c);
+            }
+            c = next();
+
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            final int start = getPosition() - 1;
+
+            skipValue(c);
+
+            json.index(name, start, getPosition());
+
+            c = next();
+
+            if (',' == c)
+            {
+                c = next();
+            }
+            else if ('}' == c)
+            {
+                return json;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final void readFiltered(final int c, final long state, final IJSONStreamFilter filter) throws ParserException
+    {
+        // Only values the filter asks for are built, everything else is skipped with the same structural checks as the lazy scan.
+
+        if (filter.isMaterialized(state))
+        {
+            filter.accept(state, readValue(c));
+        }
+        else if ('{' == c)
+        {
+            readFilteredObject(state, filter);
+        }
+        else if ('[' == c)
+        {
+            readFilteredArray(state, filter);
+        }
+        else
+        {
+            skipValue(c);
+        }
+    }
+
+    private final void readFilteredObject(final long state, final IJSONStreamFilter filter) throws ParserException
+    {
+        int c = next();
+
+        if ('}' == c)
+        {
+            return;
+        }
+        for (;;)
+        {
+            if ('"' != c)
+            {
+                throw unexpected(c);
+            }
+            final long child = filter.getNameState(state, readString(JSONStringTable.getNamesTable()));
+
+            c = next();
+
+            if (':' != c)
+            {
+                throw unexpected(c);
+            }
+            c = next();
+
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            if (0L == child)
+            {
+                skipValue(c);
+            }
+            else
+            {
+                readFiltered(c, child, filter);
+            }
+            c = next();
+
+            if (',' == c)
+            {
+                c = next();
+            }
+            else if ('}' == c)
+            {
+                return;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final void readFilteredArray(final long state, final IJSONStreamFilter filter) throws ParserException
+    {
+        int c = next();
+
+        if (']' == c)
+        {
+            return;
+        }
+        for (int index = 0;; index++)
+        {
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            final long child = filter.getIndexState(state, index);
+
+            if (0L == child)
+            {
+                skipValue(c);
+            }
+            else
+            {
+                readFiltered(c, child, filter);
+            }
+            c = next();
+
+            if (',' == c)
+            {
+                c = next();
+            }
+            else if (']' == c)
+            {
+                return;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final void skipValue(final int c) throws ParserException
+    {
+        switch (c)
+        {
+            case '{':
+                skipObject();
+                return;
+            case '[':
+                skipArray();
+                return;
+            case '"':
+                skipString();
+                return;
+            case 't':
+                readLiteral(CHARS_TRUE);
+                return;
+            case 'f':
+                readLiteral(CHARS_FALSE);
+                return;
+            case 'n':
+                readLiteral(CHARS_NULL);
+                return;
+            default:
+                if ((c == '-') || ((c >= '0') && (c <= '9')))
+                {
+                    scanNumber((char) c);
+
+                    return;
+                }
+                m_posn--;
+
+                throw unexpected(c);
+        }
+    }
+
+    private final void skipObject() throws ParserException
+    {
+        int c = next();
+
+        if ('}' == c)
+        {
+            return;
+        }
+        for (;;)
+        {
+            if ('"' != c)
+            {
+                throw unexpected(c);
+            }
+            skipString();
+
+            c = next();
+
+            if (':' != c)
+            {
+                throw unexpected(c);
+            }
+            c = next();
+
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            skipValue(c);
+
+            c = next();
+
+            if (',' == c)
+            {
+                c = next();
+            }
+            else if ('}' == c)
+            {
+                return;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final void skipArray() throws ParserException
+    {
+        int c = next();
+
+        if (']' == c)
+        {
+            return;
+        }
+        for (;;)
+        {
+            if (c < 0)
+            {
+                throw unexpected(c);
+            }
+            skipValue(c);
+
+            c = next();
+
+            if (',' == c)
+            {
+                c = next();
+            }
+            else if (']' == c)
+            {
+                return;
+            }
+            else
+            {
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final void skipString() throws ParserException
+    {
+        for (;;)
+        {
+            final char c = readChar();
+
+            if ('"' == c)
+            {
+                return;
+            }
+            if ('\\' == c)
+            {
+                readEscape();
+            }
+            else if (c < 0x20)
+            {
+                m_posn--;
+
+                throw unexpected(c);
+            }
+        }
+    }
+
+    private final void readLiteral(final char[] chars) throws ParserException
+    {
+        for (int i = 1; i < chars.length; i++)
+        {
+            if ((m_posn >= m_size) && (false == fill()))
+            {
+                throw unexpected(-1);
+            }
+            if (m_buffer[m_posn] != chars[i])
+            {
+                throw unexpected(m_buffer[m_posn]);
+            }
+            m_posn++;
+        }
+    }
+
+    private final String readString(final JSONStringTable table) throws ParserException
+    {
+        // Fast path - the whole string sits in the buffer without escapes, so it becomes one String with no builder copy.
+
+        int i = m_posn;
+
+        while (i < m_size)
+        {
+            final char c = m_buffer[i];
+
+            if ('"' == c)
+            {
+                final String string = (null == table) ? new String(m_buffer, m_posn, i - m_posn) : table.canonical(m_buffer, m_posn, i - m_posn);
+
+                m_posn = i + 1;
+
+                return string;
+            }
+            if (('\\' == c) || (c < 0x20))
+            {
+                break;
+            }
+            i++;
+        }
+        final StringBuilder b = m_string;
+
+        b.setLength(0);
+
+        for (;;)
+        {
+            if (m_posn >= m_size)
+            {
+                if (false == fill())
+                {
+                    throw unexpected(-1);
+                }
+            }
+            final int from = m_posn;
+
+            while (m_posn < m_size)
+            {
+                final char c = m_buffer[m_posn];
+
+                if (('"' == c) || ('\\' == c) || (c < 0x20))
+                {
+                    break;
+                }
+                m_posn++;
+            }
+            if (m_posn > from)
+            {
+                b.append(m_buffer, from, m_posn - from);
+            }
+            if (m_posn >= m_size)
+            {
+                continue;
+            }
+            final char c = m_buffer[m_posn];
+
+            if ('"' == c)
+            {
+                m_posn++;
+
+                return (null == table) ? b.toString() : table.canonical(b.toString());
+            }
+            if (c < 0x20)
+            {
+                throw unexpected(c);
+            }
+            m_posn++;
+
+            b.append(readEscape());
+        }
+    }
+
+    private final char readChar() throws ParserException
+    {
+        if ((m_posn >= m_size) && (false == fill()))
+        {
+            throw unexpected(-1);
+        }
+        return m_buffer[m_posn++];
+    }
+
+    private final char readEscape() throws ParserException
+    {
+        final char c = readChar();
+
+        switch (c)
+        {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+
+                for (int i = 0; i < 4; i++)
+                {
+                    final char h = readChar();
+
+                    final int d = Character.digit(h, 16);
+
+                    if (d < 0)
+                    {
+                        m_posn--;
+
+                        throw unexpected(h);
+                    }
+                    code = (code << 4) | d;
+                }
+                return ((char) code);
+            default:
+                m_posn--;
+
+                throw unexpected(c);
+        }
+    }
+
+    private final Object readNumber(final char first) throws ParserException
+    {
+        if (scanNumber(first))
+        {
+            return Double.valueOf(m_string.toString());
+        }
+        return readIntegral();
+    }
+
+    private final Object readIntegral()
+    {
+        if (isLongSafe())
+        {
+            final long lval = parseLong();
+
+            if ((lval >= Integer.MIN_VALUE) && (lval <= Integer.MAX_VALUE))
+            {
+                return Integer.valueOf((int) lval);
+            }
+            return Long.valueOf(lval);
+        }
+        final BigInteger bval = new BigInteger(m_string.toString());
+
+        if (bval.bitLength() < 64)
+        {
+            return Long.valueOf(bval.longValue());
+        }
+        return bval;
+    }
+
+    private final boolean isLongSafe()
+    {
+        final StringBuilder b = m_string;
+
+        return ((b.length() - (('-' == b.charAt(0)) ? 1 : 0)) <= LONG_DIGITS_SAFE);
+    }
+
+    private final long parseLong()
+    {
+        final StringBuilder b = m_string;
+
+        final int size = b.length();
+
+        final boolean minus = ('-' == b.charAt(0));
+
+        long lval = 0;
+
+        for (int i = (minus ? 1 : 0); i < size; i++)
+        {
+            lval = (lval * 10) + (b.charAt(i) - '0');
+        }
+        return (minus ? -lval : lval);
+    }
+
+    private final boolean scanNumber(final char first) throws ParserException
+    {
+        final StringBuilder b = m_string;
+
+        b.setLength(0);
+
+        b.append(first);
+
+        boolean real = false;
+
+        for (;;)
+        {
+            if ((m_posn >= m_size) && (false == fill()))
+            {
+                break;
+            }
+            final char c = m_buffer[m_posn];
+
+            if ((c >= '0') && (c <= '9'))
+            {
+                b.append(c);
+            }
+            else if ((c == '.') || (c == 'e') || (c == 'E') || (c == '+') || (c == '-'))
+            {
+                real = true;
+
+                b.append(c);
+            }
+            else
+            {
+                break;
+            }
+            m_posn++;
+        }
+        if (false == isNumberSyntax(b))
+        {
+            throw new ParserException(getPosition(), ParserException.ERROR_UNEXPECTED_TOKEN, b.toString());
+        }
+        return real;
+    }
+
+    private static final boolean isNumberSyntax(final CharSequence b)
+    {
+        // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+
+        final int size = b.length();
+
+        int i = 0;
+
+        if ((i < size) && (b.charAt(i) == '-'))
+        {
+            i++;
+        }
+        if (i >= size)
+        {
+            return false;
+        }
+        if (b.charAt(i) == '0')
+        {
+            i++;
+        }
+        else
+        {
+            final int from = i;
+
+            while ((i < size) && (isDigit(b.charAt(i))))
+            {
+                i++;
+            }
+            if (i == from)
+            {
+                return false;
+            }
+        }
+        if ((i < size) && (b.charAt(i) == '.'))
+        {
+            final int from = ++i;
+
+            while ((i < size) && (isDigit(b.charAt(i))))
+            {
+                i++;
+            }
+            if (i == from)
+            {
+                return false;
+            }
+        }
+        if ((i < size) && ((b.charAt(i) == 'e') || (b.charAt(i) == 'E')))
+        {
+            i++;
+
+            if ((i < size) && ((b.charAt(i) == '+') || (b.charAt(i) == '-')))
+            {
+                i++;
+            }
+            final int from = i;
+
+            while ((i < size) && (isDigit(b.charAt(i))))
+            {
+                i++;
+            }
+            if (i == from)
+            {
+                return false;
+            }
+        }
+        return (i == size);
+    }
+
+    private static final boolean isDigit(final char c)
+    {
+        return ((c >= '0') && (c <= '9'));
+    }
+
+    private static abstract class Source
+    {
+        abstract int fill(char[] buffer) throws IOException;
+
+        boolean isBounded()
+        {
+            return false;
+        }
+    }
+
+    private static final class StringSource extends Source
+    {
+        private final String m_string;
+
+        private final int    m_last;
+
+        private int          m_posn;
+
+        StringSource(final String string, final int off, final int len)
+        {
+            if ((off < 0) || (len < 0) || ((off + len) > string.length()))
+            {
+                throw new IndexOutOfBoundsException();
+            }
+            m_string = string;
+
+            m_posn = off;
+
+            m_last = off + len;
+        }
+
+        @Override
+        final boolean isBounded()
+        {
+            return true;
+        }
+
+        @Override
+        final int fill(final char[] buffer)
+        {
+            final int size = Math.min(buffer.length, m_last - m_posn);
+
+            if (size <= 0)
+            {
+                return -1;
+            }
+            m_string.getChars(m_posn, m_posn + size, buffer, 0);
+
+            m_posn = m_posn + size;
+
+            return size;
+        }
+    }
+
+    private static final class ReaderSource extends Source
+    {
+        private final Reader m_reader;
+
+        ReaderSource(final Reader reader)
+        {
+            m_reader = reader;
+        }
+
+        @Override
+        final int fill(final char[] buffer) throws IOException
+        {
+            return m_reader.read(buffer, 0, buffer.length);
+        }
+    }
+
+    private static final class UTF8Source extends Source
+    {
+        private final InputStream m_stream;
+
+        private final byte[]      m_bytes;
+
+        private int               m_posn;
+
+        private int               m_last;
+
+        private boolean           m_first  = true;
+
+        UTF8Source(final InputStream stream)
+        {
+            m_stream = stream;
+
+            m_bytes = new byte[DEFAULT_CAPACITY];
+        }
+
+        UTF8Source(final byte[] bytes, final int off, final int len)
+        {
+            if ((off < 0) || (len < 0) || ((off + len) > bytes.length))
+            {
+                throw new IndexOutOfBoundsException();
+            }
+            m_stream = null;
+
+            m_bytes = bytes;
+
+            m_posn = off;
+
+            m_last = off + len;
+        }
+
+        @Override
+        final boolean isBounded()
+        {
+            return (null == m_stream);
+        }
+
+        private final boolean more(final int need) throws IOException
+        {
+            // Make sure at least need bytes are buffered - a multi-byte sequence may straddle two reads.
+
+            if ((m_last - m_posn) >= need)
+            {
+                return true;
+            }
+            if (null == m_stream)
+            {
+                return false;
+            }
+            final int left = m_last - m_posn;
+
+            if (left > 0)
+            {
+                System.arraycopy(m_bytes, m_posn, m_bytes, 0, left);
+            }
+            m_posn = 0;
+
+            m_last = left;
+
+            while (m_last < need)
+            {
+                final int read = m_stream.read(m_bytes, m_last, m_bytes.length - m_last);
+
+                if (read < 0)
+                {
+                    return false;
+                }
+                m_last = m_last + read;
+            }
+            return true;
+        }
+
+        @Override
+        final int fill(final char[] buffer) throws IOException
+        {
+            if (false == more(1))
+            {
+                return -1;
+            }
+            if (m_first)
+            {
+                m_first = false;
+
+                if (((m_bytes[m_posn] & 0xFF) == 0xEF) && more(3) && ((m_bytes[m_posn + 1] & 0xFF) == 0xBB) && ((m_bytes[m_posn + 2] & 0xFF) == 0xBF))
+                {
+                    m_posn = m_posn + 3;
+
+                    if (false == more(1))
+                    {
+                        return -1;
+                    }
+                }
+            }
+            final int room = buffer.length - 1;
+
+            int size = 0;
+
+            // Only block for more bytes while nothing has been decoded yet - a socket or pipe may hold a whole document and then
+            // stay open, so what is already buffered is handed back rather than waiting to fill the char buffer.
+
+            while ((size < room) && ((m_posn < m_last) || ((0 == size) && more(1))))
+            {
+                // ASCII is copied straight across until the first multi-byte lead.
+
+                final int stop = Math.min(m_last, m_posn + (room - size));
+
+                while (m_posn < stop)
+                {
+                    final byte b = m_bytes[m_posn];
+
+                    if (b < 0)
+                    {
+                        break;
+                    }
+                    buffer[size++] = ((char) b);
+
+                    m_posn++;
+                }
+                if ((size >= room) || (m_posn >= m_last))
+                {
+                    continue;
+                }
+                final int lead = m_bytes[m_posn] & 0xFF;
+
+                final int need = (lead >= 0xF0) ? 4 : ((lead >= 0xE0) ? 3 : 2);
+
+                if ((lead < 0xC2) || (lead > 0xF4) || (false == more(need)))
+                {
+                    // Malformed, or truncated at end of input.
+
+                    buffer[size++] = '\uFFFD';
+
+                    m_posn++;
+
+                    continue;
+                }
+                int code = lead & ((need == 2) ? 0x1F : ((need == 3) ? 0x0F : 0x07));
+
+                boolean good = true;
+
+                for (int k = 1; k < need; k++)
+                {
+                    final int next = m_bytes[m_posn + k] & 0xFF;
+
+                    if ((next & 0xC0) != 0x80)
+                    {
+                        good = false;
+
+                        break;
+                    }
+                    code = (code << 6) | (next & 0x3F);
+                }
+                if ((false == good) || ((need == 3) && ((code < 0x800) || ((code >= 0xD800) && (code <= 0xDFFF)))) || ((need == 4) && ((code < 0x10000) || (code > 0x10FFFF))))
+                {
+                    buffer[size++] = '\uFFFD';
+
+                    m_posn++;
+
+                    continue;
+                }
+                m_posn = m_posn + need;
+
+                if (code >= 0x10000)
+                {
+                    buffer[size++] = Character.highSurrogate(code);
+
+                    buffer[size++] = Character.lowSurrogate(code);
+                }
+                else
+                {
+                    buffer[size++] = ((char) code);
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.ait.tooling.server.core.json.IJSONContext;
+import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.JSONUtils;
+import com.ait.tooling.server.core.json.ParserException;
+
+public class LazyJSONObject extends JSONObject
+{
+    private static final long serialVersionUID = 3316467946214766451L;
+
+    private final String      m_source;
+
+    private final boolean     m_shaped;
+
+    private final boolean     m_dedupe;
+
+    private boolean           m_lazy;
+
+    LazyJSONObject(final String source, final boolean shaped, final boolean dedupe)
+    {
+        m_source = Objects.requireNonNull(source);
+
+        m_shaped = shaped;
+
+        m_dedupe = dedupe;
+    }
+
+    final void index(final String name, final int start, final int end)
+    {
+        m_lazy = true;
+
+        super.put(name, new Span(start, end));
+    }
+
+    public boolean isInflated()
+    {
+        return (false == m_lazy);
+    }
+
+    public LazyJSONObject inflate()
+    {
+        if (m_lazy)
+        {
+            for (Map.Entry<String, Object> entry : super.entrySet())
+            {
+                final Object value = entry.getValue();
+
+                if (value instanceof Span)
+                {
+                    entry.setValue(materialize((Span) value));
+                }
+            }
+            m_lazy = false;
+        }
+        return this;
+    }
+
+    private final Object materialize(final Span span)
+    {
+        try
+        {
+            return new JSONTokenizer(m_source, span.m_start, span.m_end - span.m_start).setShaped(m_shaped).setDeduplicated(m_dedupe).parseLazyValue(m_source);
+        }
+        catch (ParserException e)
+        {
+            // The span was validated by the structural scan, so this can only mean the source was tampered with.
+
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final Object resolve(final Object value)
+    {
+        if (value instanceof Span)
+        {
+            return materialize((Span) value);
+        }
+        return value;
+    }
+
+    @Override
+    public Object get(final Object key)
+    {
+        final Object value = super.get(key);
+
+        if (value instanceof Span)
+        {
+            final Object valu = materialize((Span) value);
+
+            super.put((String) key, valu);
+
+            return valu;
+        }
+        return value;
+    }
+
+    @Override
+    public Object getOrDefault(final Object key, final Object otherwise)
+    {
+        if (containsKey(key))
+        {
+            return get(key);
+        }
+        return otherwise;
+    }
+
+    @Override
+    public Object put(final String key, final Object value)
+    {
+        return resolve(super.put(key, value));
+    }
+
+    @Override
+    public Object putIfAbsent(final String key, final Object value)
+    {
+        if (containsKey(key))
+        {
+            return get(key);
+        }
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key)
+    {
+        return resolve(super.remove(key));
+    }
+
+    @Override
+    public Object remove(final String key)
+    {
+        return resolve(super.remove(Objects.requireNonNull(key)));
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value)
+    {
+        inflate();
+
+        return super.remove(key, value);
+    }
+
+    @Override
+    public Object replace(final String key, final Object value)
+    {
+        return resolve(super.replace(key, value));
+    }
+
+    @Override
+    public boolean replace(final String key, final Object oldValue, final Object newValue)
+    {
+        inflate();
+
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public boolean containsValue(final Object value)
+    {
+        inflate();
+
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Collection<Object> values()
+    {
+        inflate();
+
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet()
+    {
+        inflate();
+
+        return super.entrySet();
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super Object> action)
+    {
+        inflate();
+
+        super.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        inflate();
+
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Object computeIfAbsent(final String key, final Function<? super String, ? extends Object> function)
+    {
+        inflate();
+
+        return super.computeIfAbsent(key, function);
+    }
+
+    @Override
+    public Object computeIfPresent(final String key, final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        inflate();
+
+        return super.computeIfPresent(key, function);
+    }
+
+    @Override
+    public Object compute(final String key, final BiFunction<? super String, ? super Object, ? extends Object> function)
+    {
+        inflate();
+
+        return super.compute(key, function);
+    }
+
+    @Override
+    public Object merge(final String key, final Object value, final BiFunction<? super Object, ? super Object, ? extends Object> function)
+    {
+        inflate();
+
+        return super.merge(key, value, function);
+    }
+
+    @Override
+    public Object clone()
+    {
+        inflate();
+
+        return super.clone();
+    }
+
+    @Override
+    public void writeJSONString(final Writer out) throws IOException
+    {
+        writeJSONString(out, null, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final boolean strict) throws IOException
+    {
+        writeJSONString(out, null, strict);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context) throws IOException
+    {
+        writeJSONString(out, context, false);
+    }
+
+    @Override
+    public void writeJSONString(final Writer out, final IJSONContext context, final boolean strict) throws IOException
+    {
+        // Untouched values are copied straight from the source, which only matches normal output when neither strict numbers nor a context apply.
+
+        if ((false == m_lazy) || strict || (null != context))
+        {
+            super.writeJSONString(out, context, strict);
+
+            return;
+        }
+        boolean first = true;
+
+        final Iterator<Map.Entry<String, Object>> iter = super.entrySet().iterator();
+
+        out.write('{');
+
+        while (iter.hasNext())
+        {
+            final Map.Entry<String, Object> entry = iter.next();
+
+            final Object valu = entry.getValue();
+
+            if (first)
+            {
+                first = false;
+            }
+            else
+            {
+                out.write(',');
+            }
+            JSONUtils.writeJSONString(entry.getKey(), out, null, false);
+
+            out.write(':');
+
+            if (valu instanceof Span)
+            {
+                final Span span = ((Span) valu);
+
+                out.write(m_source, span.m_start, span.m_end - span.m_start);
+            }
+            else
+            {
+                JSONUtils.writeJSONString(valu, out, null, false);
+            }
+        }
+        out.write('}');
+    }
+
+    private final Object writeReplace()
+    {
+        return new JSONObject(this);
+    }
+
+    private static final class Span
+    {
+        private final int m_start;
+
+        private final int m_end;
+
+        Span(final int start, final int end)
+        {
+            m_start = start;
+
+            m_end = end;
+        }
+    }
+}
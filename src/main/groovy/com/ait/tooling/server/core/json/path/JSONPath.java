@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.path;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.ait.tooling.server.core.json.JSONArray;
+import com.ait.tooling.server.core.json.ParserException;
+import com.ait.tooling.server.core.json.parser.IJSONStreamFilter;
+import com.ait.tooling.server.core.json.parser.JSONTokenizer;
+
+public final class JSONPath
+{
+    private final String m_path;
+
+    private final Step[] m_steps;
+
+    private final long[] m_closure;
+
+    private final long   m_final;
+
+    private final long   m_opaque;
+
+    JSONPath(final String path, final List<Step> steps)
+    {
+        m_path = path;
+
+        m_steps = steps.toArray(new Step[steps.size()]);
+
+        final int size = m_steps.length;
+
+        if (size > 62)
+        {
+            throw new IllegalArgumentException("too many steps in path " + path);
+        }
+        // Positions are bits of a long, so a match is a small NFA - the closure of a descent step also holds the step after it.
+
+        m_closure = new long[size + 1];
+
+        m_closure[size] = (1L << size);
+
+        long opaque = 0L;
+
+        for (int i = size - 1; i >= 0; i--)
+        {
+            m_closure[i] = (1L << i) | (m_steps[i].isDescent() ? m_closure[i + 1] : 0L);
+
+            if (false == m_steps[i].isStreamable())
+            {
+                opaque |= (1L << i);
+            }
+        }
+        m_final = (1L << size);
+
+        m_opaque = opaque | m_final;
+    }
+
+    public static final JSONPath compile(final String path)
+    {
+        return new JSONPathCompiler(Objects.requireNonNull(path)).compile();
+    }
+
+    public String getPath()
+    {
+        return m_path;
+    }
+
+    public JSONArray select(final Object root)
+    {
+        final JSONArray list = new JSONArray();
+
+        walk(root, m_closure[0], list, Integer.MAX_VALUE);
+
+        return list;
+    }
+
+    public Object first(final Object root)
+    {
+        final JSONArray list = new JSONArray(1);
+
+        walk(root, m_closure[0], list, 1);
+
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    public JSONArray parse(final String in) throws ParserException
+    {
+        return parse(new JSONTokenizer(Objects.requireNonNull(in)));
+    }
+
+    public JSONArray parse(final byte[] in) throws ParserException
+    {
+        return parse(new JSONTokenizer(Objects.requireNonNull(in)));
+    }
+
+    public JSONArray parse(final InputStream in) throws ParserException
+    {
+        return parse(new JSONTokenizer(Objects.requireNonNull(in)));
+    }
+
+    public JSONArray parse(final Reader in) throws ParserException
+    {
+        return parse(new JSONTokenizer(Objects.requireNonNull(in)));
+    }
+
+    public JSONArray parse(final JSONTokenizer tokenizer) throws ParserException
+    {
+        final JSONArray list = new JSONArray();
+
+        tokenizer.parseFiltered(new Filter(list));
+
+        return list;
+    }
+
+    private final boolean walk(final Object node, final long state, final List<Object> list, final int limit)
+    {
+        if (0L != (state & m_final))
+        {
+            list.add(node);
+
+            if (list.size() >= limit)
+            {
+                return false;
+            }
+        }
+        final long live = state & ~m_final;
+
+        if (0L == live)
+        {
+            return true;
+        }
+        if (node instanceof Map)
+        {
+            final Map<?, ?> map = ((Map<?, ?>) node);
+
+            if (Long.bitCount(live) == 1)
+            {
+                // A lone named step is a direct lookup rather than a scan of every member.
+
+                final Step step = m_steps[Long.numberOfTrailingZeros(live)];
+
+                final String name = step.getName();
+
+                if (null != name)
+                {
+                    final Object valu = map.get(name);
+
+                    if ((null != valu) || map.containsKey(name))
+                    {
+                        return walk(valu, next(live, name, -1, -1, valu), list, limit);
+                    }
+                    return true;
+                }
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                final Object valu = entry.getValue();
+
+                final long child = next(live, entry.getKey().toString(), -1, -1, valu);
+
+                if ((0L != child) && (false == walk(valu, child, list, limit)))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (node instanceof List)
+        {
+            final List<?> arr = ((List<?>) node);
+
+            final int size = arr.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                final Object valu = arr.get(i);
+
+                final long child = next(live, null, i, size, valu);
+
+                if ((0L != child) && (false == walk(valu, child, list, limit)))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private final long next(long live, final String name, final int index, final int size, final Object value)
+    {
+        long child = 0L;
+
+        while (0L != live)
+        {
+            final int posn = Long.numberOfTrailingZeros(live);
+
+            live &= (live - 1);
+
+            final Step step = m_steps[posn];
+
+            if (step.isDescent())
+            {
+                child |= m_closure[posn];
+            }
+            else if (step.matches(name, index, size, value))
+            {
+                child |= m_closure[posn + 1];
+            }
+        }
+        return child;
+    }
+
+    @Override
+    public String toString()
+    {
+        return m_path;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return m_path.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        return ((other instanceof JSONPath) && m_path.equals(((JSONPath) other).m_path));
+    }
+
+    private final class Filter implements IJSONStreamFilter
+    {
+        private final List<Object> m_list;
+
+        Filter(final List<Object> list)
+        {
+            m_list = list;
+        }
+
+        @Override
+        public long getRootState()
+        {
+            return m_closure[0];
+        }
+
+        @Override
+        public long getNameState(final long state, final String name)
+        {
+            return next(state & ~m_final, name, -1, -1, null);
+        }
+
+        @Override
+        public long getIndexState(final long state, final int index)
+        {
+            return next(state & ~m_final, null, index, -1, null);
+        }
+
+        @Override
+        public boolean isMaterialized(final long state)
+        {
+            return (0L != (state & m_opaque));
+        }
+
+        @Override
+        public void accept(final long state, final Object value)
+        {
+            walk(value, state, m_list, Integer.MAX_VALUE);
+        }
+    }
+
+    static abstract class Step
+    {
+        boolean isDescent()
+        {
+            return false;
+        }
+
+        boolean isStreamable()
+        {
+            return true;
+        }
+
+        String getName()
+        {
+            return null;
+        }
+
+        abstract boolean matches(String name, int index, int size, Object value);
+    }
+
+    static final class NameStep extends Step
+    {
+        private final String m_name;
+
+        NameStep(final String name)
+        {
+            m_name = name;
+        }
+
+        @Override
+        String getName()
+        {
+            return m_name;
+        }
+
+        @Override
+        boolean matches(final String name, final int index, final int size, final Object value)
+        {
+            return m_name.equals(name);
+        }
+    }
+
+    static final class IndexStep extends Step
+    {
+        private final int m_index;
+
+        IndexStep(final int index)
+        {
+            m_index = index;
+        }
+
+        @Override
+        boolean isStreamable()
+        {
+            return (m_index >= 0);
+        }
+
+        @Override
+        boolean matches(final String name, final int index, final int size, final Object value)
+        {
+            if (index < 0)
+            {
+                return false;
+            }
+            if (m_index < 0)
+            {
+                return ((size + m_index) == index);
+            }
+            return (m_index == index);
+        }
+    }
+
+    static final class TokenStep extends Step
+    {
+        private final String m_name;
+
+        private final int    m_index;
+
+        TokenStep(final String name, final int index)
+        {
+            m_name = name;
+
+            m_index = index;
+        }
+
+        @Override
+        String getName()
+        {
+            return m_name;
+        }
+
+        @Override
+        boolean matches(final String name, final int index, final int size, final Object value)
+        {
+            if (null != name)
+            {
+                return m_name.equals(name);
+            }
+            return ((m_index >= 0) && (m_index == index));
+        }
+    }
+
+    static final class AnyStep extends Step
+    {
+        @Override
+        boolean matches(final String name, final int index, final int size, final Object value)
+        {
+            return true;
+        }
+    }
+
+    static final class DescentStep extends Step
+    {
+        @Override
+        boolean isDescent()
+        {
+            return true;
+        }
+
+        @Override
+        boolean matches(final String name, final int index, final int size, final Object value)
+        {
+            return true;
+        }
+    }
+
+    static final class FilterStep extends Step
+    {
+        private final JSONPathPredicate m_predicate;
+
+        FilterStep(final JSONPathPredicate predicate)
+        {
+            m_predicate = predicate;
+        }
+
+        @Override
+        boolean isStreamable()
+        {
+            return false;
+        }
+
+        @Override
+        boolean matches(final String name, final int index, final int size, final Object value)
+        {
+            return m_predicate.test(value);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.ait.tooling.server.core.json.ParserException;
+import com.ait.tooling.server.core.json.parser.JSONTokenizer;
+
+final class JSONPathCompiler
+{
+    private final String              m_path;
+
+    private final List<JSONPath.Step> m_steps = new ArrayList<JSONPath.Step>();
+
+    private int                       m_posn;
+
+    JSONPathCompiler(final String path)
+    {
+        m_path = path;
+    }
+
+    final JSONPath compile()
+    {
+        if (more() && ('$' == m_path.charAt(0)))
+        {
+            m_posn++;
+        }
+        while (more())
+        {
+            final char c = m_path.charAt(m_posn);
+
+            if ('.' == c)
+            {
+                m_posn++;
+
+                if (more() && ('.' == m_path.charAt(m_posn)))
+                {
+                    m_posn++;
+
+                    m_steps.add(new JSONPath.DescentStep());
+
+                    if (more() && ('[' == m_path.charAt(m_posn)))
+                    {
+                        continue;
+                    }
+                }
+                readDotted();
+            }
+            else if ('[' == c)
+            {
+                m_posn++;
+
+                readBracket();
+            }
+            else
+            {
+                throw invalid("expected '.' or '['");
+            }
+        }
+        return new JSONPath(m_path, m_steps);
+    }
+
+    private final boolean more()
+    {
+        return (m_posn < m_path.length());
+    }
+
+    private final IllegalArgumentException invalid(final String reason)
+    {
+        return new IllegalArgumentException("invalid path " + m_path + " at " + m_posn + ": " + reason);
+    }
+
+    private final void readDotted()
+    {
+        if (more() && ('*' == m_path.charAt(m_posn)))
+        {
+            m_posn++;
+
+            m_steps.add(new JSONPath.AnyStep());
+
+            return;
+        }
+        m_steps.add(new JSONPath.NameStep(readName()));
+    }
+
+    private final String readName()
+    {
+        final int start = m_posn;
+
+        while (more())
+        {
+            final char c = m_path.charAt(m_posn);
+
+            if (('.' == c) || ('[' == c) || (' ' == c) || (')' == c) || ('=' == c) || ('!' == c) || ('<' == c) || ('>' == c))
+            {
+                break;
+            }
+            m_posn++;
+        }
+        if (start == m_posn)
+        {
+            throw invalid("expected a name");
+        }
+        return m_path.substring(start, m_posn);
+    }
+
+    private final void readBracket()
+    {
+        skipSpaces();
+
+        if (false == more())
+        {
+            throw invalid("unclosed '['");
+        }
+        final char c = m_path.charAt(m_posn);
+
+        if ('*' == c)
+        {
+            m_posn++;
+
+            m_steps.add(new JSONPath.AnyStep());
+        }
+        else if (('\'' == c) || ('"' == c))
+        {
+            m_steps.add(new JSONPath.NameStep(readQuoted()));
+        }
+        else if ('?' == c)
+        {
+            m_posn++;
+
+            expect('(');
+
+            m_steps.add(new JSONPath.FilterStep(readPredicate()));
+
+            skipSpaces();
+
+            expect(')');
+        }
+        else
+        {
+            m_steps.add(new JSONPath.IndexStep(readIndex()));
+        }
+        skipSpaces();
+
+        expect(']');
+    }
+
+    private final JSONPathPredicate readPredicate()
+    {
+        skipSpaces();
+
+        expect('@');
+
+        final List<String> names = new ArrayList<String>();
+
+        final List<Integer> index = new ArrayList<Integer>();
+
+        while (more())
+        {
+            final char c = m_path.charAt(m_posn);
+
+            if ('.' == c)
+            {
+                m_posn++;
+
+                names.add(readName());
+
+                index.add(-1);
+            }
+            else if ('[' == c)
+            {
+                m_posn++;
+
+                skipSpaces();
+
+                if (more() && (('\'' == m_path.charAt(m_posn)) || ('"' == m_path.charAt(m_posn))))
+                {
+                    names.add(readQuoted());
+
+                    index.add(-1);
+                }
+                else
+                {
+                    names.add(null);
+
+                    index.add(readIndex());
+                }
+                skipSpaces();
+
+                expect(']');
+            }
+            else
+            {
+                break;
+            }
+        }
+        skipSpaces();
+
+        final int oper = readOperator();
+
+        if (JSONPathPredicate.EXISTS == oper)
+        {
+            return new JSONPathPredicate(names, index, oper, null);
+        }
+        skipSpaces();
+
+        return new JSONPathPredicate(names, index, oper, readLiteral());
+    }
+
+    private final int readOperator()
+    {
+        if (false == more())
+        {
+            return JSONPathPredicate.EXISTS;
+        }
+        final char c = m_path.charAt(m_posn);
+
+        final boolean eq = ((m_posn + 1) < m_path.length()) && ('=' == m_path.charAt(m_posn + 1));
+
+        switch (c)
+        {
+            case '=':
+                if (false == eq)
+                {
+                    throw invalid("expected '=='");
+                }
+                m_posn += 2;
+                return JSONPathPredicate.EQ;
+            case '!':
+                if (false == eq)
+                {
+                    throw invalid("expected '!='");
+                }
+                m_posn += 2;
+                return JSONPathPredicate.NE;
+            case '<':
+                m_posn += (eq ? 2 : 1);
+                return (eq ? JSONPathPredicate.LE : JSONPathPredicate.LT);
+            case '>':
+                m_posn += (eq ? 2 : 1);
+                return (eq ? JSONPathPredicate.GE : JSONPathPredicate.GT);
+            default:
+                return JSONPathPredicate.EXISTS;
+        }
+    }
+
+    private final Object readLiteral()
+    {
+        if (more() && ('\'' == m_path.charAt(m_posn)))
+        {
+            return readQuoted();
+        }
+        // Anything else is a JSON scalar, so the tokenizer gives the same number and literal rules as parsed documents.
+
+        final int start = m_posn;
+
+        while (more() && (')' != m_path.charAt(m_posn)) && (' ' != m_path.charAt(m_posn)))
+        {
+            if ('"' == m_path.charAt(m_posn))
+            {
+                readQuoted();
+            }
+            else
+            {
+                m_posn++;
+            }
+        }
+        if (start == m_posn)
+        {
+            throw invalid("expected a value");
+        }
+        try
+        {
+            final Object value = new JSONTokenizer(m_path.substring(start, m_posn)).parseValue();
+
+            if ((value instanceof Map) || (value instanceof List))
+            {
+                throw invalid("expected a scalar value");
+            }
+            return value;
+        }
+        catch (ParserException e)
+        {
+            throw invalid("expected a value");
+        }
+    }
+
+    private final String readQuoted()
+    {
+        final char quote = m_path.charAt(m_posn++);
+
+        final StringBuilder buff = new StringBuilder();
+
+        while (more())
+        {
+            final char c = m_path.charAt(m_posn++);
+
+            if (quote == c)
+            {
+                return buff.toString();
+            }
+            if (('\\' == c) && more())
+            {
+                buff.append(m_path.charAt(m_posn++));
+            }
+            else
+            {
+                buff.append(c);
+            }
+        }
+        throw invalid("unclosed quote");
+    }
+
+    private final int readIndex()
+    {
+        final int start = m_posn;
+
+        if (more() && ('-' == m_path.charAt(m_posn)))
+        {
+            m_posn++;
+        }
+        while (more() && (m_path.charAt(m_posn) >= '0') && (m_path.charAt(m_posn) <= '9'))
+        {
+            m_posn++;
+        }
+        try
+        {
+            return Integer.parseInt(m_path.substring(start, m_posn));
+        }
+        catch (NumberFormatException e)
+        {
+            m_posn = start;
+
+            throw invalid("expected an index");
+        }
+    }
+
+    private final void skipSpaces()
+    {
+        while (more() && (' ' == m_path.charAt(m_posn)))
+        {
+            m_posn++;
+        }
+    }
+
+    private final void expect(final char c)
+    {
+        if ((false == more()) || (c != m_path.charAt(m_posn)))
+        {
+            throw invalid("expected '" + c + "'");
+        }
+        m_posn++;
+    }
+}
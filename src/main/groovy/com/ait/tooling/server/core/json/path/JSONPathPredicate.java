@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.path;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+final class JSONPathPredicate
+{
+    static final int       EXISTS  = 0;
+
+    static final int       EQ      = 1;
+
+    static final int       NE      = 2;
+
+    static final int       LT      = 3;
+
+    static final int       LE      = 4;
+
+    static final int       GT      = 5;
+
+    static final int       GE      = 6;
+
+    private final String[] m_names;
+
+    private final int[]    m_index;
+
+    private final int      m_oper;
+
+    private final Object   m_value;
+
+    JSONPathPredicate(final List<String> names, final List<Integer> index, final int oper, final Object value)
+    {
+        m_names = names.toArray(new String[names.size()]);
+
+        m_index = new int[m_names.length];
+
+        for (int i = 0; i < m_index.length; i++)
+        {
+            m_index[i] = index.get(i);
+        }
+        m_oper = oper;
+
+        m_value = value;
+    }
+
+    final boolean test(final Object value)
+    {
+        Object node = value;
+
+        // The relative path of the predicate is a plain chain of lookups, a missing member fails every comparison.
+
+        for (int i = 0; i < m_names.length; i++)
+        {
+            if (null != m_names[i])
+            {
+                if (false == (node instanceof Map))
+                {
+                    return false;
+                }
+                final Map<?, ?> map = ((Map<?, ?>) node);
+
+                node = map.get(m_names[i]);
+
+                if ((null == node) && (false == map.containsKey(m_names[i])))
+                {
+                    return false;
+                }
+            }
+            else
+            {
+                if (false == (node instanceof List))
+                {
+                    return false;
+                }
+                final List<?> list = ((List<?>) node);
+
+                final int indx = (m_index[i] < 0) ? list.size() + m_index[i] : m_index[i];
+
+                if ((indx < 0) || (indx >= list.size()))
+                {
+                    return false;
+                }
+                node = list.get(indx);
+            }
+        }
+        switch (m_oper)
+        {
+            case EXISTS:
+                return true;
+            case EQ:
+                return same(node, m_value);
+            case NE:
+                return (false == same(node, m_value));
+            default:
+                break;
+        }
+        final int comp = compare(node, m_value);
+
+        if (Integer.MIN_VALUE == comp)
+        {
+            return false;
+        }
+        switch (m_oper)
+        {
+            case LT:
+                return (comp < 0);
+            case LE:
+                return (comp <= 0);
+            case GT:
+                return (comp > 0);
+            default:
+                return (comp >= 0);
+        }
+    }
+
+    private static final boolean same(final Object a, final Object b)
+    {
+        if ((a instanceof Number) && (b instanceof Number))
+        {
+            return (0 == compare(a, b));
+        }
+        if (null == a)
+        {
+            return (null == b);
+        }
+        return a.equals(b);
+    }
+
+    private static final int compare(final Object a, final Object b)
+    {
+        if ((a instanceof Number) && (b instanceof Number))
+        {
+            if (isIntegral(a) && isIntegral(b))
+            {
+                return Long.compare(((Number) a).longValue(), ((Number) b).longValue());
+            }
+            final double x = ((Number) a).doubleValue();
+
+            final double y = ((Number) b).doubleValue();
+
+            if ((x != x) || (y != y))
+            {
+                return Integer.MIN_VALUE;
+            }
+            if (Double.isInfinite(x) || Double.isInfinite(y))
+            {
+                return Double.compare(x, y);
+            }
+            if ((a instanceof BigDecimal) || (b instanceof BigDecimal) || (a instanceof BigInteger) || (b instanceof BigInteger))
+            {
+                return decimal(a).compareTo(decimal(b));
+            }
+            return Double.compare(x, y);
+        }
+        if ((a instanceof String) && (b instanceof String))
+        {
+            return Integer.signum(((String) a).compareTo((String) b));
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private static final boolean isIntegral(final Object value)
+    {
+        return ((value instanceof Integer) || (value instanceof Long) || (value instanceof Short) || (value instanceof Byte));
+    }
+
+    private static final BigDecimal decimal(final Object value)
+    {
+        if (value instanceof BigDecimal)
+        {
+            return ((BigDecimal) value);
+        }
+        if (value instanceof BigInteger)
+        {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (isIntegral(value))
+        {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return BigDecimal.valueOf(((Number) value).doubleValue());
+    }
+}
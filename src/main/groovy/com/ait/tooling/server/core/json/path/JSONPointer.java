@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class JSONPointer
+{
+    private static final Object MISSING   = new Object();
+
+    private final String        m_pointer;
+
+    private final String[]      m_names;
+
+    private final int[]         m_index;
+
+    private JSONPointer(final String pointer, final String[] names, final int[] index)
+    {
+        m_pointer = pointer;
+
+        m_names = names;
+
+        m_index = index;
+    }
+
+    public static final JSONPointer compile(final String pointer)
+    {
+        Objects.requireNonNull(pointer);
+
+        if (pointer.isEmpty())
+        {
+            return new JSONPointer(pointer, new String[0], new int[0]);
+        }
+        if ('/' != pointer.charAt(0))
+        {
+            throw new IllegalArgumentException("invalid pointer " + pointer + ": must be empty or start with '/'");
+        }
+        final List<String> list = new ArrayList<String>();
+
+        int start = 1;
+
+        for (;;)
+        {
+            final int slash = pointer.indexOf('/', start);
+
+            list.add(unescape(pointer, start, (slash < 0) ? pointer.length() : slash));
+
+            if (slash < 0)
+            {
+                break;
+            }
+            start = slash + 1;
+        }
+        final String[] names = list.toArray(new String[list.size()]);
+
+        final int[] index = new int[names.length];
+
+        for (int i = 0; i < names.length; i++)
+        {
+            index[i] = index(names[i]);
+        }
+        return new JSONPointer(pointer, names, index);
+    }
+
+    private static final String unescape(final String pointer, final int start, final int end)
+    {
+        final int tilde = pointer.indexOf('~', start);
+
+        if ((tilde < 0) || (tilde >= end))
+        {
+            return pointer.substring(start, end);
+        }
+        final StringBuilder buff = new StringBuilder(end - start);
+
+        for (int i = start; i < end; i++)
+        {
+            final char c = pointer.charAt(i);
+
+            if ('~' == c)
+            {
+                final char e = ((i + 1) < end) ? pointer.charAt(++i) : ' ';
+
+                if ('0' == e)
+                {
+                    buff.append('~');
+                }
+                else if ('1' == e)
+                {
+                    buff.append('/');
+                }
+                else
+                {
+                    throw new IllegalArgumentException("invalid pointer " + pointer + ": bad escape at " + i);
+                }
+            }
+            else
+            {
+                buff.append(c);
+            }
+        }
+        return buff.toString();
+    }
+
+    private static final int index(final String name)
+    {
+        // RFC 6901 array indexes are plain decimal with no leading zeros, anything else can only name an object member.
+
+        final int size = name.length();
+
+        if ((size < 1) || (size > 9) || ((size > 1) && ('0' == name.charAt(0))))
+        {
+            return -1;
+        }
+        int value = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            final char c = name.charAt(i);
+
+            if ((c < '0') || (c > '9'))
+            {
+                return -1;
+            }
+            value = (value * 10) + (c - '0');
+        }
+        return value;
+    }
+
+    public String getPointer()
+    {
+        return m_pointer;
+    }
+
+    public int size()
+    {
+        return m_names.length;
+    }
+
+    public String getToken(final int index)
+    {
+        return m_names[index];
+    }
+
+    public Object get(final Object root)
+    {
+        final Object value = find(root);
+
+        return (MISSING == value) ? null : value;
+    }
+
+    public boolean exists(final Object root)
+    {
+        return (MISSING != find(root));
+    }
+
+    private final Object find(final Object root)
+    {
+        Object node = root;
+
+        for (int i = 0; i < m_names.length; i++)
+        {
+            if (node instanceof Map)
+            {
+                final Map<?, ?> map = ((Map<?, ?>) node);
+
+                final Object valu = map.get(m_names[i]);
+
+                if ((null == valu) && (false == map.containsKey(m_names[i])))
+                {
+                    return MISSING;
+                }
+                node = valu;
+            }
+            else if (node instanceof List)
+            {
+                final List<?> list = ((List<?>) node);
+
+                if ((m_index[i] < 0) || (m_index[i] >= list.size()))
+                {
+                    return MISSING;
+                }
+                node = list.get(m_index[i]);
+            }
+            else
+            {
+                return MISSING;
+            }
+        }
+        return node;
+    }
+
+    public JSONPath toPath()
+    {
+        final List<JSONPath.Step> steps = new ArrayList<JSONPath.Step>(m_names.length);
+
+        for (int i = 0; i < m_names.length; i++)
+        {
+            steps.add(new JSONPath.TokenStep(m_names[i], m_index[i]));
+        }
+        return new JSONPath(m_pointer, steps);
+    }
+
+    @Override
+    public String toString()
+    {
+        return m_pointer;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return m_pointer.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        return ((other instanceof JSONPointer) && m_pointer.equals(((JSONPointer) other).m_pointer));
+    }
+}
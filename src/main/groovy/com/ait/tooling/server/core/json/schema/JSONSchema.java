@@ -20,10 +20,13 @@ import java.util.List;
 import java.util.Objects;
 
 import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.schema.validator.JSONCompiledSchema;
 
 public class JSONSchema extends JSONObject
 {
-    private static final long serialVersionUID = 9136364739594699014L;
+    private static final long                     serialVersionUID = 9136364739594699014L;
+
+    private transient volatile JSONCompiledSchema m_compiled;
 
     private JSONSchema()
     {
@@ -46,6 +49,22 @@ public class JSONSchema extends JSONObject
         return this;
     }
 
+    public JSONCompiledSchema getCompiledSchema()
+    {
+        // Compiled once, from a private copy, the first time it's asked for - edits made to this schema after that aren't seen,
+        // so compile a changed schema again with JSONCompiledSchema.compile().
+
+        JSONCompiledSchema compiled = m_compiled;
+
+        if (null == compiled)
+        {
+            compiled = JSONCompiledSchema.compile(this);
+
+            m_compiled = compiled;
+        }
+        return compiled;
+    }
+
     public static final JSONSchema cast(final JSONObject object)
     {
         final JSONSchema schema = new JSONSchema();
@@ -70,18 +89,6 @@ public class JSONSchema extends JSONObject
     @Override
     public boolean equals(final Object other)
     {
-        if (null == other)
-        {
-            return false;
-        }
-        if (this == other)
-        {
-            return true;
-        }
-        if (other instanceof JSONSchema)
-        {
-            return toString().equals(other.toString());
-        }
         return super.equals(other);
     }
 }
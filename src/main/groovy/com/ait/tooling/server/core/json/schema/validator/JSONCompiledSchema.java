@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.schema.validator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.ait.tooling.server.core.json.JSONArray;
+import com.ait.tooling.server.core.json.JSONObject;
+
+public final class JSONCompiledSchema
+{
+    private final JSONSchemaNode m_root;
+
+    private JSONCompiledSchema(final JSONSchemaNode root)
+    {
+        m_root = root;
+    }
+
+    public static final JSONCompiledSchema compile(final Map<String, ?> schema)
+    {
+        // Compiled from a private copy, so later changes to the caller's schema can't reach into the compiled form.
+
+        return new JSONCompiledSchema(new JSONSchemaCompiler((JSONObject) copy(Objects.requireNonNull(schema))).compile());
+    }
+
+    private static final Object copy(final Object value)
+    {
+        if (value instanceof Map)
+        {
+            final JSONObject json = new JSONObject();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                json.put(String.valueOf(entry.getKey()), copy(entry.getValue()));
+            }
+            return json;
+        }
+        if (value instanceof List)
+        {
+            final JSONArray list = new JSONArray();
+
+            for (Object item : ((List<?>) value))
+            {
+                list.add(copy(item));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    public boolean validate(final Object value)
+    {
+        return m_root.validate(value, new JSONSchemaState(null, true));
+    }
+
+    public boolean validate(final Object value, final JSONSchemaValidatorContext context, final boolean terminating)
+    {
+        return m_root.validate(value, new JSONSchemaState(context, terminating));
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.schema.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.ait.tooling.server.core.json.path.JSONPointer;
+
+final class JSONSchemaCompiler
+{
+    private final Map<?, ?>                                  m_root;
+
+    private final IdentityHashMap<Map<?, ?>, JSONSchemaNode> m_nodes = new IdentityHashMap<Map<?, ?>, JSONSchemaNode>();
+
+    private final IdentityHashMap<Map<?, ?>, Boolean>        m_refs  = new IdentityHashMap<Map<?, ?>, Boolean>();
+
+    JSONSchemaCompiler(final Map<?, ?> root)
+    {
+        m_root = root;
+    }
+
+    final JSONSchemaNode compile()
+    {
+        return compile(m_root, "#");
+    }
+
+    private static final IllegalArgumentException invalid(final String where, final String reason)
+    {
+        return new IllegalArgumentException("invalid schema at " + where + ": " + reason);
+    }
+
+    private final JSONSchemaNode compile(final Object schema, final String where)
+    {
+        if (false == (schema instanceof Map))
+        {
+            throw invalid(where, "expected an object");
+        }
+        final Map<?, ?> map = ((Map<?, ?>) schema);
+
+        // Every schema object compiles once. Registering the node before its children are compiled lets a $ref back to an
+        // enclosing schema pick up the same node, so recursive schemas become cycles in the node graph.
+
+        final JSONSchemaNode find = m_nodes.get(map);
+
+        if (null != find)
+        {
+            return find;
+        }
+        final Object ref = map.get("$ref");
+
+        if (ref instanceof String)
+        {
+            if (null != m_refs.put(map, Boolean.TRUE))
+            {
+                throw invalid(where, "circular $ref " + ref);
+            }
+            final JSONSchemaNode node = compile(resolve((String) ref, where), ref.toString());
+
+            m_refs.remove(map);
+
+            m_nodes.put(map, node);
+
+            return node;
+        }
+        final JSONSchemaNode.KeywordNode node = new JSONSchemaNode.KeywordNode();
+
+        m_nodes.put(map, node);
+
+        compileType(node, map.get("type"), where);
+
+        compileEnum(node, map.get("enum"), where);
+
+        node.m_number = compileNumber(map, where);
+
+        node.m_string = compileString(map, where);
+
+        node.m_array = compileArray(map, where);
+
+        node.m_object = compileObject(map, where);
+
+        node.m_allof = compileList(map.get("allOf"), where + "/allOf");
+
+        node.m_anyof = compileList(map.get("anyOf"), where + "/anyOf");
+
+        node.m_oneof = compileList(map.get("oneOf"), where + "/oneOf");
+
+        if (null != map.get("not"))
+        {
+            node.m_not = compile(map.get("not"), where + "/not");
+        }
+        return node;
+    }
+
+    private final Object resolve(final String ref, final String where)
+    {
+        // Only references into this document are supported, which covers definitions and recursion back to the root.
+
+        if ((false == ref.startsWith("#")) || ((ref.length() > 1) && ('/' != ref.charAt(1))))
+        {
+            throw invalid(where, "unsupported $ref " + ref);
+        }
+        final Object find = JSONPointer.compile(ref.substring(1)).get(m_root);
+
+        if (false == (find instanceof Map))
+        {
+            throw invalid(where, "unresolved $ref " + ref);
+        }
+        return find;
+    }
+
+    private final JSONSchemaNode[] compileList(final Object list, final String where)
+    {
+        if (null == list)
+        {
+            return null;
+        }
+        if (false == (list instanceof List))
+        {
+            throw invalid(where, "expected an array");
+        }
+        final List<?> from = ((List<?>) list);
+
+        final JSONSchemaNode[] make = new JSONSchemaNode[from.size()];
+
+        for (int i = 0; i < make.length; i++)
+        {
+            make[i] = compile(from.get(i), where + "/" + i);
+        }
+        return make;
+    }
+
+    private final JSONSchemaNode compileExtra(final Object extra, final String where)
+    {
+        // additionalItems and additionalProperties are either a schema or a boolean, true being the same as no constraint.
+
+        if ((null == extra) || Boolean.TRUE.equals(extra))
+        {
+            return null;
+        }
+        if (Boolean.FALSE.equals(extra))
+        {
+            return JSONSchemaNode.NONE;
+        }
+        return compile(extra, where);
+    }
+
+    private static final void compileType(final JSONSchemaNode.KeywordNode node, final Object type, final String where)
+    {
+        if (null == type)
+        {
+            return;
+        }
+        final List<?> list = (type instanceof List) ? ((List<?>) type) : Collections.singletonList(type);
+
+        final StringBuilder names = new StringBuilder();
+
+        for (Object item : list)
+        {
+            if (names.length() > 0)
+            {
+                names.append(" or ");
+            }
+            names.append(item);
+
+            node.m_types |= typeMask(String.valueOf(item), where);
+        }
+        node.m_names = names.toString();
+    }
+
+    private static final int typeMask(final String type, final String where)
+    {
+        switch (type)
+        {
+            case "null":
+                return JSONSchemaNode.TYPE_NULL;
+            case "boolean":
+                return JSONSchemaNode.TYPE_BOOLEAN;
+            case "object":
+                return JSONSchemaNode.TYPE_OBJECT;
+            case "array":
+                return JSONSchemaNode.TYPE_ARRAY;
+            case "number":
+                return JSONSchemaNode.TYPE_NUMBER;
+            case "integer":
+                return JSONSchemaNode.TYPE_INTEGER;
+            case "string":
+                return JSONSchemaNode.TYPE_STRING;
+            default:
+                throw invalid(where, "unknown type " + type);
+        }
+    }
+
+    private static final void compileEnum(final JSONSchemaNode.KeywordNode node, final Object list, final String where)
+    {
+        if (null == list)
+        {
+            return;
+        }
+        if (false == (list instanceof List))
+        {
+            throw invalid(where, "enum must be an array");
+        }
+        node.m_enum = new HashSet<Object>();
+
+        for (Object item : ((List<?>) list))
+        {
+            node.m_enum.add(JSONSchemaNode.normal(item));
+        }
+    }
+
+    private static final JSONSchemaNode.Limit limit(final Map<?, ?> map, final String name, final String where)
+    {
+        final Object value = map.get(name);
+
+        if (null == value)
+        {
+            return null;
+        }
+        if ((false == (value instanceof Number)) || (false == JSONSchemaNode.isFinite((Number) value)))
+        {
+            throw invalid(where, name + " must be a number");
+        }
+        return new JSONSchemaNode.Limit(JSONSchemaNode.decimal((Number) value));
+    }
+
+    private static final int count(final Map<?, ?> map, final String name, final int otherwise, final String where)
+    {
+        final Object value = map.get(name);
+
+        if (null == value)
+        {
+            return otherwise;
+        }
+        if ((false == (value instanceof Number)) || (false == JSONSchemaNode.isIntegral((Number) value)) || (((Number) value).longValue() < 0))
+        {
+            throw invalid(where, name + " must be a non-negative integer");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, ((Number) value).longValue());
+    }
+
+    private static final Pattern pattern(final Object value, final String where)
+    {
+        try
+        {
+            return Pattern.compile(String.valueOf(value));
+        }
+        catch (Exception e)
+        {
+            throw invalid(where, "bad pattern " + value);
+        }
+    }
+
+    private static final JSONSchemaNode.NumberRules compileNumber(final Map<?, ?> map, final String where)
+    {
+        final JSONSchemaNode.Limit min = limit(map, "minimum", where);
+
+        final JSONSchemaNode.Limit max = limit(map, "maximum", where);
+
+        final JSONSchemaNode.Limit mult = limit(map, "multipleOf", where);
+
+        if ((null == min) && (null == max) && (null == mult))
+        {
+            return null;
+        }
+        if ((null != mult) && (mult.getValue().signum() <= 0))
+        {
+            throw invalid(where, "multipleOf must be greater than 0");
+        }
+        final JSONSchemaNode.NumberRules rules = new JSONSchemaNode.NumberRules();
+
+        rules.m_min = min;
+
+        rules.m_max = max;
+
+        rules.m_mult = mult;
+
+        rules.m_xmin = Boolean.TRUE.equals(map.get("exclusiveMinimum"));
+
+        rules.m_xmax = Boolean.TRUE.equals(map.get("exclusiveMaximum"));
+
+        return rules;
+    }
+
+    private static final JSONSchemaNode.StringRules compileString(final Map<?, ?> map, final String where)
+    {
+        if ((false == map.containsKey("minLength")) && (false == map.containsKey("maxLength")) && (false == map.containsKey("pattern")) && (false == map.containsKey("format")))
+        {
+            return null;
+        }
+        final JSONSchemaNode.StringRules rules = new JSONSchemaNode.StringRules();
+
+        rules.m_minl = count(map, "minLength", 0, where);
+
+        rules.m_maxl = count(map, "maxLength", Integer.MAX_VALUE, where);
+
+        if (null != map.get("pattern"))
+        {
+            rules.m_pattern = pattern(map.get("pattern"), where);
+        }
+        if (null != map.get("format"))
+        {
+            rules.m_format = String.valueOf(map.get("format"));
+
+            rules.m_check = JSONSchemaNode.format(rules.m_format);
+        }
+        return rules;
+    }
+
+    private final JSONSchemaNode.ArrayRules compileArray(final Map<?, ?> map, final String where)
+    {
+        if ((false == map.containsKey("items")) && (false == map.containsKey("minItems")) && (false == map.containsKey("maxItems")) && (false == Boolean.TRUE.equals(map.get("uniqueItems"))))
+        {
+            return null;
+        }
+        final JSONSchemaNode.ArrayRules rules = new JSONSchemaNode.ArrayRules();
+
+        final Object items = map.get("items");
+
+        if (items instanceof List)
+        {
+            rules.m_tuple = compileList(items, where + "/items");
+
+            rules.m_extra = compileExtra(map.get("additionalItems"), where + "/additionalItems");
+        }
+        else if (null != items)
+        {
+            rules.m_items = compile(items, where + "/items");
+        }
+        rules.m_mini = count(map, "minItems", 0, where);
+
+        rules.m_maxi = count(map, "maxItems", Integer.MAX_VALUE, where);
+
+        rules.m_unique = Boolean.TRUE.equals(map.get("uniqueItems"));
+
+        return rules;
+    }
+
+    private final JSONSchemaNode.ObjectRules compileObject(final Map<?, ?> map, final String where)
+    {
+        final Object props = map.get("properties");
+
+        final Object named = map.get("patternProperties");
+
+        final Object extra = map.get("additionalProperties");
+
+        final Object required = map.get("required");
+
+        final Object depends = map.get("dependencies");
+
+        if ((null == props) && (null == named) && (null == extra) && (null == required) && (null == depends) && (false == map.containsKey("minProperties")) && (false == map.containsKey("maxProperties")))
+        {
+            return null;
+        }
+        final JSONSchemaNode.ObjectRules rules = new JSONSchemaNode.ObjectRules();
+
+        // Property names and required names share one index space, so each member costs a single hash lookup.
+
+        final LinkedHashMap<String, JSONSchemaNode> nodes = new LinkedHashMap<String, JSONSchemaNode>();
+
+        if (props instanceof Map)
+        {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) props).entrySet())
+            {
+                final String name = String.valueOf(entry.getKey());
+
+                nodes.put(name, compile(entry.getValue(), where + "/properties/" + name));
+            }
+        }
+        else if (null != props)
+        {
+            throw invalid(where, "properties must be an object");
+        }
+        final List<String> needs = new ArrayList<String>();
+
+        if (required instanceof List)
+        {
+            for (Object item : ((List<?>) required))
+            {
+                final String name = String.valueOf(item);
+
+                needs.add(name);
+
+                if (false == nodes.containsKey(name))
+                {
+                    nodes.put(name, null);
+                }
+            }
+        }
+        else if (null != required)
+        {
+            throw invalid(where, "required must be an array");
+        }
+        if (false == nodes.isEmpty())
+        {
+            rules.m_index = new HashMap<String, Integer>(nodes.size() * 2);
+
+            rules.m_names = nodes.keySet().toArray(new String[nodes.size()]);
+
+            rules.m_props = nodes.values().toArray(new JSONSchemaNode[nodes.size()]);
+
+            for (int i = 0; i < rules.m_names.length; i++)
+            {
+                rules.m_index.put(rules.m_names[i], i);
+            }
+            if (false == needs.isEmpty())
+            {
+                rules.m_required = new long[(rules.m_names.length + 63) >>> 6];
+
+                for (String name : needs)
+                {
+                    final int index = rules.m_index.get(name);
+
+                    rules.m_required[index >>> 6] |= (1L << index);
+                }
+            }
+        }
+        if (named instanceof Map)
+        {
+            final Map<?, ?> from = ((Map<?, ?>) named);
+
+            rules.m_patterns = new Pattern[from.size()];
+
+            rules.m_pnodes = new JSONSchemaNode[from.size()];
+
+            int i = 0;
+
+            for (Map.Entry<?, ?> entry : from.entrySet())
+            {
+                rules.m_patterns[i] = pattern(entry.getKey(), where);
+
+                rules.m_pnodes[i++] = compile(entry.getValue(), where + "/patternProperties/" + entry.getKey());
+            }
+        }
+        rules.m_extra = compileExtra(extra, where + "/additionalProperties");
+
+        if (depends instanceof Map)
+        {
+            rules.m_depends = new HashMap<String, Object>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) depends).entrySet())
+            {
+                final String name = String.valueOf(entry.getKey());
+
+                if (entry.getValue() instanceof List)
+                {
+                    final List<?> list = ((List<?>) entry.getValue());
+
+                    final String[] look = new String[list.size()];
+
+                    for (int k = 0; k < look.length; k++)
+                    {
+                        look[k] = String.valueOf(list.get(k));
+                    }
+                    rules.m_depends.put(name, look);
+                }
+                else
+                {
+                    rules.m_depends.put(name, compile(entry.getValue(), where + "/dependencies/" + name));
+                }
+            }
+        }
+        rules.m_minp = count(map, "minProperties", 0, where);
+
+        rules.m_maxp = count(map, "maxProperties", Integer.MAX_VALUE, where);
+
+        return rules;
+    }
+}
@@ -0,0 +1,972 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.schema.validator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.URI;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.ait.tooling.server.core.json.JSONUtils;
+
+abstract class JSONSchemaNode
+{
+    static final int             TYPE_NULL     = 1;
+
+    static final int             TYPE_BOOLEAN  = 2;
+
+    static final int             TYPE_OBJECT   = 4;
+
+    static final int             TYPE_ARRAY    = 8;
+
+    static final int             TYPE_NUMBER   = 16;
+
+    static final int             TYPE_INTEGER  = 32;
+
+    static final int             TYPE_STRING   = 64;
+
+    static final JSONSchemaNode  NONE          = new NoneNode();
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    private static final Pattern HOST_PATTERN  = Pattern.compile("^(?=.{1,253}$)[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?(?:\\.[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?)*$");
+
+    private static final Pattern IPV4_PATTERN  = Pattern.compile("^(?:(?:25[0-5]|2[0-4][0-9]|1[0-9][0-9]|[1-9]?[0-9])\\.){3}(?:25[0-5]|2[0-4][0-9]|1[0-9][0-9]|[1-9]?[0-9])$");
+
+    private static final Pattern IPV6_PATTERN  = Pattern.compile("^[0-9A-Fa-f:.]+$");
+
+    abstract boolean validate(Object value, JSONSchemaState state);
+
+    static final int typeOf(final Object value)
+    {
+        if (null == value)
+        {
+            return TYPE_NULL;
+        }
+        if (value instanceof String)
+        {
+            return TYPE_STRING;
+        }
+        if (value instanceof Number)
+        {
+            return isIntegral((Number) value) ? (TYPE_NUMBER | TYPE_INTEGER) : TYPE_NUMBER;
+        }
+        if (value instanceof Boolean)
+        {
+            return TYPE_BOOLEAN;
+        }
+        if (value instanceof Map)
+        {
+            return TYPE_OBJECT;
+        }
+        if (value instanceof List)
+        {
+            return TYPE_ARRAY;
+        }
+        if ((value instanceof CharSequence) || JSONUtils.isDate(value))
+        {
+            return TYPE_STRING;
+        }
+        return 0;
+    }
+
+    static final String typeName(final int type)
+    {
+        if (0 != (type & TYPE_INTEGER))
+        {
+            return "integer";
+        }
+        switch (type)
+        {
+            case TYPE_NULL:
+                return "null";
+            case TYPE_BOOLEAN:
+                return "boolean";
+            case TYPE_OBJECT:
+                return "object";
+            case TYPE_ARRAY:
+                return "array";
+            case TYPE_NUMBER:
+                return "number";
+            case TYPE_STRING:
+                return "string";
+            default:
+                return "unknown";
+        }
+    }
+
+    static final boolean isIntegral(final Number value)
+    {
+        if ((value instanceof Integer) || (value instanceof Long) || (value instanceof Short) || (value instanceof Byte) || (value instanceof BigInteger))
+        {
+            return true;
+        }
+        if (value instanceof BigDecimal)
+        {
+            final BigDecimal bval = ((BigDecimal) value);
+
+            return ((bval.signum() == 0) || (bval.scale() <= 0) || (bval.stripTrailingZeros().scale() <= 0));
+        }
+        final double dval = value.doubleValue();
+
+        return (Double.isFinite(dval) && (dval == Math.rint(dval)));
+    }
+
+    static final boolean isLong(final Number value)
+    {
+        return ((value instanceof Integer) || (value instanceof Long) || (value instanceof Short) || (value instanceof Byte));
+    }
+
+    static final BigDecimal decimal(final Number value)
+    {
+        // Callers rule out NaN and the infinities first, they have no decimal form.
+
+        if (value instanceof BigDecimal)
+        {
+            return ((BigDecimal) value);
+        }
+        if (isLong(value))
+        {
+            return BigDecimal.valueOf(value.longValue());
+        }
+        if (value instanceof BigInteger)
+        {
+            return new BigDecimal((BigInteger) value);
+        }
+        if ((value instanceof Double) || (value instanceof Float))
+        {
+            return BigDecimal.valueOf(value.doubleValue());
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    static final boolean isFinite(final Number value)
+    {
+        if ((value instanceof Double) || (value instanceof Float))
+        {
+            return Double.isFinite(value.doubleValue());
+        }
+        return true;
+    }
+
+    static final Object normal(final Object value)
+    {
+        // JSON equality for enum and uniqueItems - 1 and 1.0 are the same number, and object members are unordered.
+
+        if ((null == value) || (value instanceof String) || (value instanceof Boolean))
+        {
+            return value;
+        }
+        if (value instanceof Number)
+        {
+            final Number numb = ((Number) value);
+
+            if (isFinite(numb))
+            {
+                return decimal(numb).stripTrailingZeros();
+            }
+            return numb.doubleValue();
+        }
+        if (value instanceof Map)
+        {
+            final Map<?, ?> map = ((Map<?, ?>) value);
+
+            final HashMap<String, Object> make = new HashMap<String, Object>(map.size() * 2);
+
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                make.put(String.valueOf(entry.getKey()), normal(entry.getValue()));
+            }
+            return make;
+        }
+        if (value instanceof List)
+        {
+            final List<?> list = ((List<?>) value);
+
+            final ArrayList<Object> make = new ArrayList<Object>(list.size());
+
+            for (Object item : list)
+            {
+                make.add(normal(item));
+            }
+            return make;
+        }
+        if (value instanceof CharSequence)
+        {
+            return value.toString();
+        }
+        return value;
+    }
+
+    static final Predicate<String> format(final String name)
+    {
+        // Draft-04 makes format checking optional, unknown formats are accepted.
+
+        switch (name)
+        {
+            case "date-time":
+                return JSONSchemaNode::isDateTime;
+            case "email":
+                return EMAIL_PATTERN.asPredicate();
+            case "hostname":
+                return HOST_PATTERN.asPredicate();
+            case "ipv4":
+                return IPV4_PATTERN.asPredicate();
+            case "ipv6":
+                return JSONSchemaNode::isIPv6;
+            case "uri":
+                return JSONSchemaNode::isURI;
+            default:
+                return null;
+        }
+    }
+
+    private static final boolean isDateTime(final String value)
+    {
+        try
+        {
+            DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(value);
+
+            return true;
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+
+    private static final boolean isIPv6(final String value)
+    {
+        // Only hex digits, colons and dots get here, so InetAddress takes it as a literal and never goes to DNS.
+
+        if ((value.indexOf(':') < 0) || (false == IPV6_PATTERN.matcher(value).matches()))
+        {
+            return false;
+        }
+        try
+        {
+            return (InetAddress.getByName(value).getAddress().length == 16);
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+
+    private static final boolean isURI(final String value)
+    {
+        try
+        {
+            return new URI(value).isAbsolute();
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+
+    static final class NoneNode extends JSONSchemaNode
+    {
+        @Override
+        final boolean validate(final Object value, final JSONSchemaState state)
+        {
+            state.error("is not allowed");
+
+            return false;
+        }
+    }
+
+    static final class KeywordNode extends JSONSchemaNode
+    {
+        int              m_types;
+
+        String           m_names;
+
+        HashSet<Object>  m_enum;
+
+        NumberRules      m_number;
+
+        StringRules      m_string;
+
+        ArrayRules       m_array;
+
+        ObjectRules      m_object;
+
+        JSONSchemaNode[] m_allof;
+
+        JSONSchemaNode[] m_anyof;
+
+        JSONSchemaNode[] m_oneof;
+
+        JSONSchemaNode   m_not;
+
+        @Override
+        final boolean validate(final Object value, final JSONSchemaState state)
+        {
+            final int type = typeOf(value);
+
+            if ((0 != m_types) && (0 == (m_types & type)))
+            {
+                state.error("expected " + m_names + " but found " + typeName(type));
+
+                return false;
+            }
+            boolean good = true;
+
+            if ((null != m_enum) && (false == m_enum.contains(normal(value))))
+            {
+                if (state.error("is not one of the enumerated values"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if ((null != m_number) && (0 != (type & TYPE_NUMBER)) && (false == m_number.validate((Number) value, state)))
+            {
+                if (state.stopping())
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if ((null != m_string) && (value instanceof CharSequence) && (false == m_string.validate(value.toString(), state)))
+            {
+                if (state.stopping())
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if ((null != m_array) && (TYPE_ARRAY == type) && (false == m_array.validate((List<?>) value, state)))
+            {
+                if (state.stopping())
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if ((null != m_object) && (TYPE_OBJECT == type) && (false == m_object.validate((Map<?, ?>) value, state)))
+            {
+                if (state.stopping())
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if (null != m_allof)
+            {
+                for (JSONSchemaNode node : m_allof)
+                {
+                    if (false == node.validate(value, state))
+                    {
+                        if (state.stopping())
+                        {
+                            return false;
+                        }
+                        good = false;
+                    }
+                }
+            }
+            if ((null != m_anyof) && (false == isAnyOf(value, state)))
+            {
+                if (state.error("does not match any of the anyOf schemas"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if (null != m_oneof)
+            {
+                final int many = countOneOf(value, state);
+
+                if (1 != many)
+                {
+                    if (state.error((0 == many) ? "does not match any of the oneOf schemas" : "matches more than one of the oneOf schemas"))
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+            }
+            if ((null != m_not) && isNot(value, state))
+            {
+                if (state.error("matches a schema it must not match"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            return good;
+        }
+
+        private final boolean isAnyOf(final Object value, final JSONSchemaState state)
+        {
+            state.quiet();
+
+            try
+            {
+                for (JSONSchemaNode node : m_anyof)
+                {
+                    if (node.validate(value, state))
+                    {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            finally
+            {
+                state.loud();
+            }
+        }
+
+        private final int countOneOf(final Object value, final JSONSchemaState state)
+        {
+            state.quiet();
+
+            try
+            {
+                int many = 0;
+
+                for (JSONSchemaNode node : m_oneof)
+                {
+                    if (node.validate(value, state) && (++many > 1))
+                    {
+                        break;
+                    }
+                }
+                return many;
+            }
+            finally
+            {
+                state.loud();
+            }
+        }
+
+        private final boolean isNot(final Object value, final JSONSchemaState state)
+        {
+            state.quiet();
+
+            try
+            {
+                return m_not.validate(value, state);
+            }
+            finally
+            {
+                state.loud();
+            }
+        }
+    }
+
+    static final class Limit
+    {
+        private final BigDecimal m_big;
+
+        private final long       m_long;
+
+        private final boolean    m_islong;
+
+        private final double     m_dval;
+
+        private final boolean    m_isdval;
+
+        Limit(final BigDecimal big)
+        {
+            m_big = big;
+
+            m_dval = big.doubleValue();
+
+            // Fast paths are only taken when the limit converts exactly, otherwise comparisons go through BigDecimal.
+
+            m_isdval = Double.isFinite(m_dval) && (0 == new BigDecimal(m_dval).compareTo(big));
+
+            long lval = 0;
+
+            boolean islong = false;
+
+            try
+            {
+                lval = big.longValueExact();
+
+                islong = true;
+            }
+            catch (ArithmeticException e)
+            {
+                islong = false;
+            }
+            m_long = lval;
+
+            m_islong = islong;
+        }
+
+        final int compare(final Number value)
+        {
+            if (m_islong && JSONSchemaNode.isLong(value))
+            {
+                return Long.compare(value.longValue(), m_long);
+            }
+            if ((value instanceof Double) || (value instanceof Float))
+            {
+                final double dval = value.doubleValue();
+
+                if (Double.isInfinite(dval))
+                {
+                    return (dval > 0) ? 1 : -1;
+                }
+                if (m_isdval)
+                {
+                    return Double.compare(dval, m_dval);
+                }
+            }
+            return decimal(value).compareTo(m_big);
+        }
+
+        final BigDecimal getValue()
+        {
+            return m_big;
+        }
+
+        final boolean isLong()
+        {
+            return m_islong;
+        }
+
+        final long getLong()
+        {
+            return m_long;
+        }
+    }
+
+    static final class NumberRules
+    {
+        Limit   m_min;
+
+        Limit   m_max;
+
+        boolean m_xmin;
+
+        boolean m_xmax;
+
+        Limit   m_mult;
+
+        final boolean validate(final Number value, final JSONSchemaState state)
+        {
+            if (false == isFinite(value))
+            {
+                // Only NaN gets here in practice, and it is neither above nor below anything.
+
+                if (Double.isNaN(value.doubleValue()))
+                {
+                    state.error("is not a number");
+
+                    return false;
+                }
+            }
+            boolean good = true;
+
+            if (null != m_min)
+            {
+                final int comp = m_min.compare(value);
+
+                if ((comp < 0) || (m_xmin && (0 == comp)))
+                {
+                    if (state.error((m_xmin ? "must be greater than " : "must be at least ") + m_min.getValue().toPlainString()))
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+            }
+            if (null != m_max)
+            {
+                final int comp = m_max.compare(value);
+
+                if ((comp > 0) || (m_xmax && (0 == comp)))
+                {
+                    if (state.error((m_xmax ? "must be less than " : "must be at most ") + m_max.getValue().toPlainString()))
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+            }
+            if ((null != m_mult) && (false == isMultiple(value)))
+            {
+                if (state.error("must be a multiple of " + m_mult.getValue().toPlainString()))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            return good;
+        }
+
+        private final boolean isMultiple(final Number value)
+        {
+            if (false == isFinite(value))
+            {
+                return false;
+            }
+            if (m_mult.isLong() && JSONSchemaNode.isLong(value))
+            {
+                return (0 == (value.longValue() % m_mult.getLong()));
+            }
+            return (0 == decimal(value).remainder(m_mult.getValue()).signum());
+        }
+    }
+
+    static final class StringRules
+    {
+        int               m_minl = 0;
+
+        int               m_maxl = Integer.MAX_VALUE;
+
+        Pattern           m_pattern;
+
+        String            m_format;
+
+        Predicate<String> m_check;
+
+        final boolean validate(final String value, final JSONSchemaState state)
+        {
+            boolean good = true;
+
+            final int size = value.length();
+
+            // Lengths count code points, but a string of n chars holds at least n / 2 of them, so most strings never need counting.
+
+            if ((size > m_maxl) || ((size / 2) < m_minl))
+            {
+                final int code = value.codePointCount(0, size);
+
+                if (code < m_minl)
+                {
+                    if (state.error("must be at least " + m_minl + " characters long"))
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+                if (code > m_maxl)
+                {
+                    if (state.error("must be at most " + m_maxl + " characters long"))
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+            }
+            if ((null != m_pattern) && (false == m_pattern.matcher(value).find()))
+            {
+                if (state.error("does not match the pattern " + m_pattern.pattern()))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if ((null != m_check) && (false == m_check.test(value)))
+            {
+                if (state.error("is not a valid " + m_format))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            return good;
+        }
+    }
+
+    static final class ArrayRules
+    {
+        JSONSchemaNode   m_items;
+
+        JSONSchemaNode[] m_tuple;
+
+        JSONSchemaNode   m_extra;
+
+        int              m_mini = 0;
+
+        int              m_maxi = Integer.MAX_VALUE;
+
+        boolean          m_unique;
+
+        final boolean validate(final List<?> list, final JSONSchemaState state)
+        {
+            boolean good = true;
+
+            final int size = list.size();
+
+            if (size < m_mini)
+            {
+                if (state.error("must have at least " + m_mini + " items"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if (size > m_maxi)
+            {
+                if (state.error("must have at most " + m_maxi + " items"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if ((null != m_items) || (null != m_tuple))
+            {
+                for (int i = 0; i < size; i++)
+                {
+                    final JSONSchemaNode node = (null != m_items) ? m_items : ((i < m_tuple.length) ? m_tuple[i] : m_extra);
+
+                    if (null == node)
+                    {
+                        break;
+                    }
+                    state.push(i);
+
+                    final boolean fine = node.validate(list.get(i), state);
+
+                    state.pop();
+
+                    if (false == fine)
+                    {
+                        if (state.stopping())
+                        {
+                            return false;
+                        }
+                        good = false;
+                    }
+                }
+            }
+            if (m_unique && (size > 1))
+            {
+                final HashSet<Object> seen = new HashSet<Object>(size * 2);
+
+                for (int i = 0; i < size; i++)
+                {
+                    if (false == seen.add(normal(list.get(i))))
+                    {
+                        if (state.error("items must be unique"))
+                        {
+                            return false;
+                        }
+                        good = false;
+
+                        break;
+                    }
+                }
+            }
+            return good;
+        }
+    }
+
+    static final class ObjectRules
+    {
+        HashMap<String, Integer> m_index;
+
+        String[]                 m_names;
+
+        JSONSchemaNode[]         m_props;
+
+        long[]                   m_required;
+
+        Pattern[]                m_patterns;
+
+        JSONSchemaNode[]         m_pnodes;
+
+        JSONSchemaNode           m_extra;
+
+        HashMap<String, Object>  m_depends;
+
+        int                      m_minp = 0;
+
+        int                      m_maxp = Integer.MAX_VALUE;
+
+        final boolean validate(final Map<?, ?> map, final JSONSchemaState state)
+        {
+            boolean good = true;
+
+            final int size = map.size();
+
+            if (size < m_minp)
+            {
+                if (state.error("must have at least " + m_minp + " properties"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            if (size > m_maxp)
+            {
+                if (state.error("must have at most " + m_maxp + " properties"))
+                {
+                    return false;
+                }
+                good = false;
+            }
+            // Every known name has an index, and one pass over the members marks which were seen - the required check is then
+            // a mask test per 64 names instead of a lookup per required name.
+
+            long seen = 0L;
+
+            final long[] more = ((null != m_required) && (m_required.length > 1)) ? new long[m_required.length] : null;
+
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                final String name = String.valueOf(entry.getKey());
+
+                final Object valu = entry.getValue();
+
+                boolean done = false;
+
+                if (null != m_index)
+                {
+                    final Integer find = m_index.get(name);
+
+                    if (null != find)
+                    {
+                        final int index = find;
+
+                        if (null != more)
+                        {
+                            more[index >>> 6] |= (1L << index);
+                        }
+                        else
+                        {
+                            seen |= (1L << index);
+                        }
+                        final JSONSchemaNode node = m_props[index];
+
+                        if (null != node)
+                        {
+                            done = true;
+
+                            if (false == check(node, name, valu, state))
+                            {
+                                if (state.stopping())
+                                {
+                                    return false;
+                                }
+                                good = false;
+                            }
+                        }
+                    }
+                }
+                if (null != m_patterns)
+                {
+                    for (int i = 0; i < m_patterns.length; i++)
+                    {
+                        if (m_patterns[i].matcher(name).find())
+                        {
+                            done = true;
+
+                            if (false == check(m_pnodes[i], name, valu, state))
+                            {
+                                if (state.stopping())
+                                {
+                                    return false;
+                                }
+                                good = false;
+                            }
+                        }
+                    }
+                }
+                if ((false == done) && (null != m_extra) && (false == check(m_extra, name, valu, state)))
+                {
+                    if (state.stopping())
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+                if ((null != m_depends) && (false == depends(map, name, state)))
+                {
+                    if (state.stopping())
+                    {
+                        return false;
+                    }
+                    good = false;
+                }
+            }
+            if (null != m_required)
+            {
+                for (int w = 0; w < m_required.length; w++)
+                {
+                    long miss = m_required[w] & ~((null != more) ? more[w] : seen);
+
+                    while (0L != miss)
+                    {
+                        if (state.error("missing required property " + m_names[(w << 6) + Long.numberOfTrailingZeros(miss)]))
+                        {
+                            return false;
+                        }
+                        good = false;
+
+                        miss &= (miss - 1L);
+                    }
+                }
+            }
+            return good;
+        }
+
+        private static final boolean check(final JSONSchemaNode node, final String name, final Object value, final JSONSchemaState state)
+        {
+            state.push(name);
+
+            final boolean fine = node.validate(value, state);
+
+            state.pop();
+
+            return fine;
+        }
+
+        private final boolean depends(final Map<?, ?> map, final String name, final JSONSchemaState state)
+        {
+            final Object need = m_depends.get(name);
+
+            if (need instanceof JSONSchemaNode)
+            {
+                return ((JSONSchemaNode) need).validate(map, state);
+            }
+            boolean good = true;
+
+            if (need instanceof String[])
+            {
+                for (String look : ((String[]) need))
+                {
+                    if (false == map.containsKey(look))
+                    {
+                        if (state.error("property " + name + " requires property " + look))
+                        {
+                            return false;
+                        }
+                        good = false;
+                    }
+                }
+            }
+            return good;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017 Ahome' Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ait.tooling.server.core.json.schema.validator;
+
+import java.util.ArrayList;
+
+final class JSONSchemaState
+{
+    private final JSONSchemaValidatorContext m_context;
+
+    private final boolean                    m_first;
+
+    private final ArrayList<Object>          m_path    = new ArrayList<Object>();
+
+    private int                              m_quiet;
+
+    JSONSchemaState(final JSONSchemaValidatorContext context, final boolean first)
+    {
+        m_context = context;
+
+        m_first = first;
+    }
+
+    final void push(final Object name)
+    {
+        m_path.add(name);
+    }
+
+    final void pop()
+    {
+        m_path.remove(m_path.size() - 1);
+    }
+
+    final void quiet()
+    {
+        m_quiet++;
+    }
+
+    final void loud()
+    {
+        m_quiet--;
+    }
+
+    final boolean stopping()
+    {
+        return (m_first || (m_quiet > 0));
+    }
+
+    final boolean error(final String message)
+    {
+        // Returns true when validation should stop. Branches of anyOf, oneOf and not only need an answer, so they always stop and
+        // never report - the path is only turned into a String once a message is actually kept.
+
+        if (m_quiet > 0)
+        {
+            return true;
+        }
+        if (null != m_context)
+        {
+            m_context.addMessage(pointer() + ": " + message);
+        }
+        return m_first;
+    }
+
+    private final String pointer()
+    {
+        final StringBuilder buff = new StringBuilder("#");
+
+        for (Object name : m_path)
+        {
+            buff.append('/').append(name.toString().replace("~", "~0").replace("/", "~1"));
+        }
+        return buff.toString();
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.ait.tooling.server.core.json.schema.validator;
 
+import java.util.Objects;
+
 import com.ait.tooling.server.core.json.schema.JSONSchema;
 
 public class JSONSchemaValidator
@@ -37,9 +39,21 @@ public class JSONSchemaValidator
         return m_config;
     }
 
+    public static final JSONCompiledSchema compile(final JSONSchema schema)
+    {
+        // The compiled form lives on the schema itself, so there's no shared cache to lock or to keep schemas alive.
+
+        return Objects.requireNonNull(schema).getCompiledSchema();
+    }
+
+    public boolean validate(final Object object, final JSONCompiledSchema schema, final JSONSchemaValidatorContext context)
+    {
+        return schema.validate(object, context, m_config.isTerminatingOnFirstError());
+    }
+
     public boolean validate(final Object object, final JSONSchema schema, final JSONSchemaValidatorContext context)
     {
-        return true;
+        return validate(object, compile(schema), context);
     }
 
     public boolean validate(final Object object, final JSONSchema schema)
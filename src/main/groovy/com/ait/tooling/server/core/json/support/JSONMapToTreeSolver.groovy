@@ -16,21 +16,32 @@
 
 package com.ait.tooling.server.core.json.support
 
+import com.ait.tooling.server.core.json.JSONArray
 import com.ait.tooling.server.core.json.JSONObject
 import groovy.transform.CompileStatic
 
 @CompileStatic
 public class JSONMapToTreeSolver implements JSONTrait
 {
-    private Set<String>         m_keys
+    private final List<Link>                                    m_link = []
 
-    private List<String>        m_incl
+    private final List<Map>                                     m_rows = []
 
-    private List<String>        m_excl
+    private final IdentityHashMap<JSONObject, List<JSONObject>> m_up   = new IdentityHashMap<JSONObject, List<JSONObject>>()
 
-    private List<Map>           m_rows = []
+    private final Set<JSONObject>                               m_kids = Collections.newSetFromMap(new IdentityHashMap<JSONObject, Boolean>())
 
-    private Map<String, Map>    m_spec = [:]
+    private List<String>                                        m_incl
+
+    private List<String>                                        m_excl
+
+    private Projection                                          m_proj
+
+    private Closure                                             m_emit
+
+    private Closure                                             m_test
+
+    private JSONObject                                          m_root
 
     public JSONMapToTreeSolver(final Map spec)
     {
@@ -41,16 +52,17 @@ public class JSONMapToTreeSolver implements JSONTrait
     {
         Objects.requireNonNull(spec)
 
-        spec.each { Map cols ->
+        final Set<String> seen = new HashSet<String>()
 
-            def parent = cols['parent'] as String
+        for (Map cols : spec)
+        {
+            final String parent = cols['parent'] as String
 
-            if (null == m_spec[parent])
+            if (seen.add(parent))
             {
-                m_spec[parent] = [linked: cols['linked'] as String, column: cols['column'] as String, values: []]
+                m_link << new Link(parent, cols['linked'] as String, cols['column'] as String)
             }
         }
-        m_keys = m_spec.keySet()
     }
 
     public List<String> getIncluded()
@@ -62,6 +74,8 @@ public class JSONMapToTreeSolver implements JSONTrait
     {
         m_incl = incl
 
+        m_proj = null
+
         this
     }
 
@@ -74,59 +88,67 @@ public class JSONMapToTreeSolver implements JSONTrait
     {
         m_excl = excl
 
+        m_proj = null
+
         this
     }
 
-    public List<JSONObject> solve(Closure c = null)
+    public JSONMapToTreeSolver incremental(final Closure emit, final Closure test = null)
     {
-        List list = []
+        // Rows are linked as they are added, and each root is handed to emit once the next root arrives. This expects every
+        // parent before its children and each root's rows together, as an ordered hierarchical query returns them.
+
+        m_emit = Objects.requireNonNull(emit)
+
+        m_test = test
 
-        List incl = getIncluded()
+        this
+    }
 
-        if ((incl) && (incl.size() < 1))
+    public List<JSONObject> solve(Closure c = null)
+    {
+        if (null != m_emit)
         {
-            incl = null
+            flush()
+
+            return []
         }
-        List excl = getExcluded()
+        final Projection proj = projection()
+
+        final List<Map> keep = new ArrayList<Map>(m_rows.size())
 
-        if ((excl) && (excl.size() < 1))
+        final List<JSONObject> made = new ArrayList<JSONObject>(m_rows.size())
+
+        for (Map jrow : m_rows)
         {
-            excl = null
-        }
-        m_rows.each { Map jrow ->
+            final JSONObject node = make(jrow, proj, c)
 
-            if (jrow)
+            if (null != node)
             {
-                if (incl)
-                {
-                    jrow = jrow.subMap(incl)
-                }
-                if (excl)
-                {
-                    jrow.keySet().removeAll(excl)
-                }
-                if (jrow.size() > 0)
-                {
-                    def good = true
+                index(jrow, node)
 
-                    if (c)
-                    {
-                        def resp = c.call(jrow)
+                keep << jrow
 
-                        if (resp instanceof Boolean)
-                        {
-                            good = resp
-                        }
-                    }
-                    if ((good) && (jrow.size() > 0))
-                    {
-                        list << json(jrow)
-                    }
-                }
+                made << node
             }
         }
         m_rows.clear()
 
+        // Every parent is indexed before linking, so rows may arrive in any order. Rows whose parent never shows up are roots.
+
+        final List<JSONObject> list = []
+
+        final int size = made.size()
+
+        for (int i = 0; i < size; i++)
+        {
+            if (false == attach(keep.get(i), made.get(i)))
+            {
+                list << made.get(i)
+            }
+        }
+        reset()
+
         list
     }
 
@@ -139,40 +161,278 @@ public class JSONMapToTreeSolver implements JSONTrait
     {
         if ((jrow) && (jrow.size() > 0))
         {
-            m_rows << jrow
-
-            m_keys.each { pkey ->
+            if (null == m_emit)
+            {
+                m_rows << jrow
+            }
+            else
+            {
+                final JSONObject node = make(jrow, projection(), m_test)
 
-                if (keys(pkey, jrow))
+                if (null != node)
                 {
-                    return
+                    if (false == attach(jrow, node))
+                    {
+                        flush()
+
+                        m_root = node
+                    }
+                    index(jrow, node)
                 }
             }
         }
     }
 
-    private boolean keys(final String pkey, final Map jrow)
+    public void leftShift(final Map jrow)
+    {
+        add(jrow)
+    }
+
+    private void flush()
+    {
+        if (null != m_root)
+        {
+            final JSONObject root = m_root
+
+            m_root = null
+
+            reset()
+
+            m_emit.call(root)
+        }
+    }
+
+    private void reset()
+    {
+        for (Link link : m_link)
+        {
+            link.m_index.clear()
+        }
+        m_up.clear()
+
+        m_kids.clear()
+    }
+
+    private Projection projection()
+    {
+        if (null == m_proj)
+        {
+            m_proj = new Projection(m_incl, m_excl)
+        }
+        m_proj
+    }
+
+    private static JSONObject make(final Map jrow, final Projection proj, final Closure c)
     {
-        def look = m_spec[pkey]
+        final JSONObject node = proj.make(jrow)
 
-        if (look)
+        if (node.size() > 0)
         {
-            def valu = jrow[pkey]
+            if (null != c)
+            {
+                final Object resp = c.call(node)
 
-            def list = look['values'] as List
+                if ((resp instanceof Boolean) && (false == ((Boolean) resp)))
+                {
+                    return null
+                }
+            }
+            if (node.size() > 0)
+            {
+                return node
+            }
+        }
+        null
+    }
 
-            if (false == list.contains(valu))
+    private void index(final Map jrow, final JSONObject node)
+    {
+        for (Link link : m_link)
+        {
+            if (null != link.m_parent)
             {
-                list << valu
+                final Object valu = jrow.get(link.m_parent)
 
+                if ((null != valu) && (false == link.m_index.containsKey(valu)))
+                {
+                    link.m_index.put(valu, node)
+                }
+            }
+        }
+    }
+
+    private boolean attach(final Map jrow, final JSONObject node)
+    {
+        boolean done = false
+
+        for (Link link : m_link)
+        {
+            if ((null != link.m_linked) && (null != link.m_column))
+            {
+                final Object valu = jrow.get(link.m_linked)
+
+                if (null != valu)
+                {
+                    final JSONObject pnode = link.m_index.get(valu)
+
+                    if ((null != pnode) && (false == above(node, pnode)))
+                    {
+                        children(pnode, link.m_column) << node
+
+                        parents(node) << pnode
+
+                        m_kids.add(pnode)
+
+                        done = true
+                    }
+                }
+            }
+        }
+        done
+    }
+
+    private boolean above(final JSONObject node, final JSONObject pnode)
+    {
+        // Rows that name each other as parent would loop with no root, so a link under one of the node's own descendants is
+        // skipped, and the row stays a root if nothing else takes it. A node with no children has no descendants, which is
+        // every row of an ordered query, so the walk up only happens for rows that arrive after their own children.
+
+        if (pnode.is(node))
+        {
+            return true
+        }
+        if (false == m_kids.contains(node))
+        {
+            return false
+        }
+        final List<JSONObject> look = [pnode]
+
+        final Set<JSONObject> seen = Collections.newSetFromMap(new IdentityHashMap<JSONObject, Boolean>())
+
+        while (look)
+        {
+            final JSONObject next = look.remove(look.size() - 1)
+
+            if (next.is(node))
+            {
                 return true
             }
+            if (seen.add(next))
+            {
+                final List<JSONObject> up = m_up.get(next)
+
+                if (null != up)
+                {
+                    look.addAll(up)
+                }
+            }
         }
         false
     }
 
-    public void leftShift(final Map jrow)
+    private List<JSONObject> parents(final JSONObject node)
     {
-        add(jrow)
+        List<JSONObject> list = m_up.get(node)
+
+        if (null == list)
+        {
+            list = new ArrayList<JSONObject>(1)
+
+            m_up.put(node, list)
+        }
+        list
+    }
+
+    private static List children(final JSONObject pnode, final String column)
+    {
+        final Object list = pnode.get(column)
+
+        if (list instanceof List)
+        {
+            return (List) list
+        }
+        final JSONArray make = new JSONArray()
+
+        pnode.put(column, make)
+
+        make
+    }
+
+    @CompileStatic
+    private static class Link
+    {
+        private final String                      m_parent
+
+        private final String                      m_linked
+
+        private final String                      m_column
+
+        private final HashMap<Object, JSONObject> m_index  = new HashMap<Object, JSONObject>()
+
+        Link(final String parent, final String linked, final String column)
+        {
+            m_parent = parent
+
+            m_linked = linked
+
+            m_column = column
+        }
+    }
+
+    @CompileStatic
+    private static class Projection
+    {
+        private final String[]    m_incl
+
+        private final Set<String> m_excl
+
+        Projection(final List<String> incl, final List<String> excl)
+        {
+            m_excl = ((excl) ? new HashSet<String>(excl) : null)
+
+            if (incl)
+            {
+                final LinkedHashSet<String> keep = new LinkedHashSet<String>(incl)
+
+                if (null != m_excl)
+                {
+                    keep.removeAll(m_excl)
+                }
+                m_incl = keep.toArray(new String[keep.size()])
+            }
+            else
+            {
+                m_incl = null
+            }
+        }
+
+        JSONObject make(final Map jrow)
+        {
+            final JSONObject json = new JSONObject()
+
+            if (null != m_incl)
+            {
+                for (String name : m_incl)
+                {
+                    if (jrow.containsKey(name))
+                    {
+                        json.put(name, jrow.get(name))
+                    }
+                }
+            }
+            else
+            {
+                for (Object name : jrow.keySet())
+                {
+                    final String look = String.valueOf(name)
+
+                    if ((null == m_excl) || (false == m_excl.contains(look)))
+                    {
+                        json.put(look, jrow.get(name))
+                    }
+                }
+            }
+            json
+        }
     }
 }
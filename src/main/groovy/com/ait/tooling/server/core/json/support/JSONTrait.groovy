@@ -18,11 +18,9 @@ package com.ait.tooling.server.core.json.support
 
 import com.ait.tooling.server.core.json.JSONArray
 import com.ait.tooling.server.core.json.JSONObject
+import com.ait.tooling.server.core.json.binder.BinderFactory
 import com.ait.tooling.server.core.json.binder.BinderType
 import com.ait.tooling.server.core.json.binder.IBinder
-import com.ait.tooling.server.core.json.binder.JSONBinder
-import com.ait.tooling.server.core.json.binder.XMLBinder
-import com.ait.tooling.server.core.json.binder.YAMLBinder
 import com.ait.tooling.server.core.json.schema.JSONSchema
 
 import groovy.transform.CompileStatic
@@ -131,19 +129,11 @@ public trait JSONTrait
 
     public IBinder binder()
     {
-        new JSONBinder()
+        BinderFactory.getBinder()
     }
-    
+
     public IBinder binder(final BinderType type)
     {
-        if (type == BinderType.XML)
-        {
-            return new XMLBinder()
-        }
-        if (type == BinderType.YAML)
-        {
-            return new YAMLBinder()
-        }
-        new JSONBinder()
+        BinderFactory.getBinder(type)
     }
 }
@@ -24,11 +24,9 @@ import java.util.Objects;
 
 import com.ait.tooling.server.core.json.JSONArray;
 import com.ait.tooling.server.core.json.JSONObject;
+import com.ait.tooling.server.core.json.binder.BinderFactory;
 import com.ait.tooling.server.core.json.binder.BinderType;
 import com.ait.tooling.server.core.json.binder.IBinder;
-import com.ait.tooling.server.core.json.binder.JSONBinder;
-import com.ait.tooling.server.core.json.binder.XMLBinder;
-import com.ait.tooling.server.core.json.binder.YAMLBinder;
 import com.ait.tooling.server.core.json.schema.JSONSchema;
 
 public class JSONUtilitiesInstance implements IJSONUtilities
@@ -153,22 +151,12 @@ public class JSONUtilitiesInstance implements IJSONUtilities
     @Override
     public final IBinder binder()
     {
-        return new JSONBinder();
+        return BinderFactory.getBinder();
     }
 
     @Override
     public final IBinder binder(final BinderType type)
     {
-        switch (type)
-        {
-            case XML:
-                return new XMLBinder();
-            case YAML:
-                return new YAMLBinder();
-            case JSON:
-                return new JSONBinder();
-            default:
-                return new JSONBinder();
-        }
+        return BinderFactory.getBinder(type);
     }
 }
@@ -16,11 +16,46 @@
 
 package com.ait.tooling.server.core.test
 
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
 import javax.script.ScriptEngine
 
+import com.ait.tooling.common.api.json.JSONType
+import com.ait.tooling.server.core.io.FileChannelIO
+import com.ait.tooling.server.core.io.NoSyncUTF8OutputStreamWriter
+import com.ait.tooling.server.core.json.IJSONValueSerializer
+import com.ait.tooling.server.core.json.JSONArray
+import com.ait.tooling.server.core.json.JSONBooleanArray
+import com.ait.tooling.server.core.json.JSONContext
+import com.ait.tooling.server.core.json.JSONDiff
+import com.ait.tooling.server.core.json.JSONDoubleArray
+import com.ait.tooling.server.core.json.JSONIntArray
+import com.ait.tooling.server.core.json.JSONLongArray
 import com.ait.tooling.server.core.json.JSONObject
+import com.ait.tooling.server.core.json.JSONProjection
+import com.ait.tooling.server.core.json.JSONReplacerBlack
+import com.ait.tooling.server.core.json.JSONReplacerWhite
+import com.ait.tooling.server.core.json.JSONStreamArray
+import com.ait.tooling.server.core.json.JSONTimeFormatter
+import com.ait.tooling.server.core.json.JSONUtils
+import com.ait.tooling.server.core.json.JSONValueSerializerRegistry
+import com.ait.tooling.server.core.json.ParserException
+import com.ait.tooling.server.core.json.ShapedJSONObject
+import com.ait.tooling.server.core.json.binder.AbstractDataBinder
+import com.ait.tooling.server.core.json.binder.BinderFactory
 import com.ait.tooling.server.core.json.binder.BinderType
 import com.ait.tooling.server.core.json.parser.JSONParser
+import com.ait.tooling.server.core.json.parser.LazyJSONObject
+import com.ait.tooling.server.core.json.path.JSONPath
+import com.ait.tooling.server.core.json.path.JSONPointer
+import com.ait.tooling.server.core.json.schema.JSONSchema
+import com.ait.tooling.server.core.json.schema.validator.JSONCompiledSchema
+import com.ait.tooling.server.core.json.schema.validator.JSONSchemaValidator
+import com.ait.tooling.server.core.json.schema.validator.JSONSchemaValidatorConfiguration
+import com.ait.tooling.server.core.json.schema.validator.JSONSchemaValidatorContext
 import com.ait.tooling.server.core.json.support.JSONMapToTreeSolver
 import com.ait.tooling.server.core.logging.MDC
 import com.ait.tooling.server.core.logging.NanoTimer
@@ -28,6 +63,11 @@ import com.ait.tooling.server.core.scripting.ScriptType
 import com.ait.tooling.server.core.support.CoreGroovyTrait
 import com.ait.tooling.server.core.support.spring.testing.IServerCoreTesting.TestingOps
 import com.ait.tooling.server.core.support.spring.testing.spock.ServerCoreSpecification
+import com.fasterxml.jackson.databind.MapperFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+
+import spock.lang.Timeout
 
 class BasicTestsSpecification extends ServerCoreSpecification implements CoreGroovyTrait {
     def setupSpec() {
@@ -554,6 +594,581 @@ class BasicTestsSpecification extends ServerCoreSpecification implements CoreGro
         "dean" == "dean"
     }
 
+    def "test JSON bytes"() {
+        setup:
+        def json = json(name: 'Dean \u00e9\u20ac', list: [1, 2.5, 'x\ud83d\ude00', null], data: [key: 'valu'])
+        def baos = new ByteArrayOutputStream()
+        json.writeJSONBytes(baos)
+        def text = new String(baos.toByteArray(), 'UTF-8')
+        println text
+
+        expect:
+        text == json.toJSONString()
+        json.toJSONBytes() == json.toJSONString().getBytes('UTF-8')
+    }
+
+    def "test JSON escape"() {
+        setup:
+        def valu = json(text: 'plain "quoted" back\\slash\ttab\n\u0001\u0085\u2028 done').toJSONString()
+        println valu
+
+        expect:
+        valu == '{"text":"plain \\"quoted\\" back\\\\slash\\ttab\\n\\u0001\\u0085\\u2028 done"}'
+    }
+
+    def "test JSON value serializer registry"() {
+        setup:
+        def json = json(pojo: new BinderPOJO('Rosaria', 100))
+        def base = json.toJSONString()
+        JSONValueSerializerRegistry.register(BinderPOJO, { valu, out, context, strict -> out.write('"POJO"') } as IJSONValueSerializer)
+        def make = json.toJSONString()
+        JSONValueSerializerRegistry.unregister(BinderPOJO)
+        println base
+        println make
+
+        expect:
+        make == '{"pojo":"POJO"}'
+        json.toJSONString() == base
+    }
+
+    def "test shared binders"() {
+        setup:
+        def shared = binder()
+        def local = BinderFactory.newBinder(BinderType.JSON)
+        local.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY).setStrict(true)
+
+        when:
+        shared.setStrict(true)
+
+        then:
+        thrown(IllegalStateException)
+        shared.is(binder())
+        false == local.is(shared)
+        true == local.isStrict()
+        false == shared.isStrict()
+        true == local.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        false == shared.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+
+        when:
+        shared.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+
+        then:
+        thrown(IllegalStateException)
+        false == shared.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+    }
+
+    def "test native parser"() {
+        setup:
+        def p = new JSONParser()
+        def s = '{"name":"Lion","tags":["big",{"cat":true}],"size":2147483648,"rate":1.5,"none":null,"text":"a\\"b\\u00e9"}'
+        def j = p.parse(s)
+
+        expect:
+        j.getAsArray('tags').getAsObject(1).getAsBoolean('cat') == true
+        j.get('size') instanceof Long
+        j.getAsString('text') == 'a"b\u00e9'
+        j == p.parse(s.getBytes('UTF-8'))
+        j == p.parse(new StringReader(s))
+        j == p.parse(new ByteArrayInputStream(s.getBytes('UTF-8')))
+        j == binder().bindJSON(s)
+    }
+
+    def "test lazy parser"() {
+        setup:
+        def p = new JSONParser(true)
+        def s = '{"route":"lion","body":{ "tags" : [ 1, 2 ] },"size":2147483648}'
+        def j = p.parse(s)
+
+        expect:
+        j instanceof LazyJSONObject
+        j.toJSONString() == s
+        j.getAsString('route') == 'lion'
+        j.get('size') instanceof Long
+        j.toJSONString() == s
+        j.getAsObject('body').getAsArray('tags').size() == 2
+        j == new JSONParser().parse(s)
+    }
+
+    def "test structural equals"() {
+        setup:
+        def a = json(a: 1, b: [2L, 1.5f], c: [d: null])
+        def b = json(c: [d: null], b: [2, 1.5d], a: 1L)
+
+        expect:
+        Objects.equals(a, b)
+        a.hashCode() == b.hashCode()
+        false == Objects.equals(a, json(a: 1.0d, b: [2, 1.5d], c: [d: null]))
+        Objects.equals(new JSONParser(true).parse('{ "x" : { "y" : 1 } }'), json(x: [y: 1]))
+    }
+
+    def "test frozen JSON"() {
+        setup:
+        def o = json(name: "Lion", tags: ["big", [cat: true]], size: 2147483648L)
+        def f = o.freeze()
+
+        when:
+        f.getAsArray('tags').add('small')
+
+        then:
+        thrown(UnsupportedOperationException)
+        f.isFrozen()
+        f.toJSONString() == o.toJSONString()
+        f.toJSONString(true) == o.toJSONString(true)
+        f.toJSONBytes() == o.toJSONBytes()
+        f.toJSONString().is(f.toJSONString())
+        Objects.equals(f, o)
+    }
+
+    def "test shaped JSON"() {
+        setup:
+        def s = '{"rows":[{"id":1,"name":"a"},{"id":2,"name":"b"},{"name":"c","id":3}]}'
+        def j = new JSONParser(false, true).parse(s)
+        def r = j.getAsArray('rows').getAsObject(1)
+        r.put('extra', true)
+        r.remove('id')
+
+        expect:
+        r instanceof ShapedJSONObject
+        r.isShaped()
+        r.toJSONString() == '{"name":"b","extra":true}'
+        j.getAsArray('rows').getAsObject(2).toJSONString() == '{"name":"c","id":3}'
+        Objects.equals(new JSONParser().parse(s), new JSONParser(false, true).parse(s))
+    }
+
+    def "test primitive arrays"() {
+        setup:
+        def j = new JSONParser().parse('{"i":[1,2,3],"l":[1,3000000000],"d":[0.5,1.5],"b":[true,false],"m":[1,"x"]}')
+        def i = j.getAsArray('i')
+        def d = j.getAsArray('d')
+        i.add(4)
+        d.add('x')
+
+        expect:
+        i instanceof JSONIntArray
+        i.toJSONString() == '[1,2,3,4]'
+        j.getAsArray('l') instanceof JSONLongArray
+        j.getAsArray('l').get(0) instanceof Integer
+        j.getAsArray('b') instanceof JSONBooleanArray
+        j.getAsArray('m').getClass() == JSONArray
+        d instanceof JSONDoubleArray
+        d.isBoxed()
+        d.toJSONString() == '[0.5,1.5,"x"]'
+        new JSONLongArray().addLong(3000000000L).toJSONString(true) == '[null]'
+    }
+
+    def "test number writer"() {
+        setup:
+        def a = new JSONArray().push(7).push(-3000000000L).push(0.1d).push(1.0E-5d).push(1.0E21d).push(100.0d).push(Double.NaN).push(new BigInteger('12345678901')).push(new BigInteger('123456789012345678901234567890')).push((short) -2)
+
+        expect:
+        a.toJSONString() == '[7,-3000000000,0.1,1.0E-5,1.0E21,100.0,null,12345678901,null,-2]'
+        a.toJSONString(true) == '[7,null,0.1,1.0E-5,1.0E21,100.0,null,12345678901,null,-2]'
+        new String(a.toJSONBytes(), 'UTF-8') == a.toJSONString()
+    }
+
+    def "test pretty JSON"() {
+        setup:
+        def j = new JSONParser().parse('{"a":[1,{"b":"x,y"}],"c":{}}')
+        def c = new JSONContext().setIndentWidth(2)
+
+        expect:
+        JSONUtils.toJSONString(j, c, false) == '{\n  "a": [\n    1,\n    {\n      "b": "x,y"\n    }\n  ],\n  "c": {}\n}'
+        new String(JSONUtils.toJSONBytes(j, c, false), 'UTF-8') == JSONUtils.toJSONString(j, c, false)
+        JSONUtils.toJSONString(j, new JSONContext(), false) == j.toJSONString()
+        JSONUtils.getLineNumber(7) == '7---'
+        JSONUtils.getIndent(3) == '---'
+    }
+
+    def "test replacers and projection"() {
+        setup:
+        def j = new JSONParser().parse('{"id":5,"user":{"name":"x","address":{"city":"c","zip":1},"tags":[{"city":"d","zip":2}]}}')
+        def w = new JSONParser().parse('{"user":{"id":1,"name":"n","age":3},"acct":{"id":2}}')
+
+        expect:
+        JSONUtils.toJSONString(j, new JSONContext().setObjectReplacer(new JSONProjection('user.address.city', 'id')), false) == '{"id":5,"user":{"address":{"city":"c"}}}'
+        JSONUtils.toJSONString(j, new JSONContext().setObjectReplacer(new JSONProjection('user.*.zip')), false) == '{"user":{"name":"x","address":{"zip":1},"tags":[{"zip":2}]}}'
+        JSONUtils.toJSONString(w, new JSONContext().setObjectReplacer(new JSONProjection('*.id', 'user.name')), false) == '{"user":{"id":1,"name":"n"},"acct":{"id":2}}'
+        JSONUtils.toJSONString(w, new JSONContext().setObjectReplacer(new JSONProjection('*', 'user.name')), false) == w.toJSONString()
+        JSONUtils.toJSONString(j, new JSONContext().setObjectReplacer(new JSONReplacerBlack('zip', 'name')), false) == '{"id":5,"user":{"address":{"city":"c"},"tags":[{"city":"d"}]}}'
+        JSONUtils.toJSONString(j, new JSONContext().setObjectReplacer(new JSONReplacerWhite('id')), false) == '{"id":5}'
+    }
+
+    def "test time formatter"() {
+        setup:
+        def f = new JSONTimeFormatter()
+        def j = new JSONObject().set('d', new Date(1500L)).set('i', Instant.ofEpochSecond(1483326245L, 678000000)).set('l', LocalDateTime.of(2017, 1, 1, 0, 0))
+
+        expect:
+        f.format(new Date(0L)) == '1970-01-01T00:00:00.000Z'
+        f.format(ZonedDateTime.of(2017, 1, 2, 3, 4, 5, 678000000, ZoneId.of('Europe/Paris'))) == '2017-01-02T02:04:05.678Z'
+        f.parse('2017-01-02T03:04:05.678Z').getTime() == 1483326245678L
+        new JSONTimeFormatter('HH:mm:ss.SSSSSS').format(1L, 5000) == '00:00:01.000005'
+        j.toJSONString() == '{"d":"1970-01-01T00:00:01.500Z","i":"2017-01-02T03:04:05.678Z","l":"2017-01-01T00:00:00.000Z"}'
+        j.getJSONType('i') == JSONType.DATE
+        j.getJSONType('l') == JSONType.DATE
+    }
+
+    def "test JSON path and pointer"() {
+        setup:
+        def t = '{"store":{"book":[{"title":"a","price":8.95},{"title":"b","price":12.99,"isbn":"x"}],"bike":{"price":19.95}},"m~n":{"x/y":[1,2]}}'
+        def j = new JSONParser().parse(t)
+
+        expect:
+        JSONPath.compile('$.store.book[*].title').select(j).toJSONString() == '["a","b"]'
+        JSONPath.compile('$..price').select(j).toJSONString() == '[8.95,12.99,19.95]'
+        JSONPath.compile('$..book[?(@.price < 10)].title').select(j).toJSONString() == '["a"]'
+        JSONPath.compile('$..book[?(@.isbn)].title').parse(t).toJSONString() == '["b"]'
+        JSONPath.compile('$.store.book[-1].title').first(j) == 'b'
+        JSONPath.compile('$..price').parse(t) == JSONPath.compile('$..price').select(j)
+        JSONPointer.compile('/m~0n/x~1y/1').get(j) == 2
+        JSONPointer.compile('/store/book/01').exists(j) == false
+        JSONPointer.compile('/store/bike').toPath().parse(t).toJSONString() == '[{"price":19.95}]'
+    }
+
+    def "test JSON diff and patch"() {
+        setup:
+        def a = new JSONParser().parse('{"l":[1,2,3,4,5,6],"o":{"a":1,"x/y":true}}')
+        def b = new JSONParser().parse('{"l":[0,1,2,4,5,7,6],"o":{"a":2,"b":3}}')
+        def p = JSONDiff.diff(a, b)
+
+        expect:
+        p.toJSONString() == '[{"op":"add","path":"/l/0","value":0},{"op":"remove","path":"/l/3"},{"op":"add","path":"/l/5","value":7},{"op":"replace","path":"/o/a","value":2},{"op":"remove","path":"/o/x~1y"},{"op":"add","path":"/o/b","value":3}]'
+        Objects.equals(JSONDiff.apply(new JSONParser().parse(a.toJSONString()), p), b)
+        JSONDiff.diff(b, b).isEmpty()
+        JSONDiff.apply(new JSONParser().parse('{"a":{"b":1}}'), new JSONParser().parse('{"p":[{"op":"move","from":"/a/b","path":"/c"},{"op":"test","path":"/c","value":1}]}').getAsArray('p')).toJSONString() == '{"a":{},"c":1}'
+    }
+
+    def "test binary binders"() {
+        setup:
+        def json = new JSONParser().parse('{"name":"Dean","size":42,"long":1099511627776,"rate":3.5,"flag":true,"none":null,"list":[1,"x",{"k":1}]}')
+        def cbor = binder(BinderType.CBOR).toBytes(json)
+        def pack = binder(BinderType.MESSAGEPACK).toBytes(json)
+
+        expect:
+        binder(BinderType.CBOR).bindJSON(cbor).toJSONString() == json.toJSONString()
+        binder(BinderType.SMILE).bindJSON(binder(BinderType.SMILE).toBytes(json)).toJSONString() == json.toJSONString()
+        binder(BinderType.MESSAGEPACK).bindJSON(new ByteArrayInputStream(pack)).toJSONString() == json.toJSONString()
+        cbor.length < json.toJSONString().length()
+        BinderType.MESSAGEPACK.isBinary()
+        false == BinderType.JSON.isBinary()
+    }
+
+    def "test stream array"() {
+        setup:
+        def json = new JSONObject("rows", new JSONStreamArray([1, 2, 3].stream(), { new JSONObject("id", it) }))
+        def strw = new StringWriter()
+        new JSONStreamArray([1, null, 3].iterator()).setFlushBytes(1).writeJSONString(strw)
+
+        expect:
+        json.toJSONString() == '{"rows":[{"id":1},{"id":2},{"id":3}]}'
+        strw.toString() == '[1,null,3]'
+    }
+
+    def "test binder streams"() {
+        setup:
+        def rows = binder().stream(new StringReader('{"id":1}\n{"id":2}\n'), JSONObject).iterator().toList()
+        def list = binder().stream(new ByteArrayInputStream('[{"id":3},{"id":4}]'.bytes), JSONObject).iterator().toList()
+        def bout = new ByteArrayOutputStream()
+        binder(BinderType.CBOR).sendAll(bout, rows.iterator())
+        def back = binder(BinderType.CBOR).stream(new ByteArrayInputStream(bout.toByteArray()), JSONObject).iterator().toList()
+        def nout = new ByteArrayOutputStream()
+        binder().sendAll(nout, list.iterator())
+
+        expect:
+        rows*.toJSONString() == ['{"id":1}', '{"id":2}']
+        list*.toJSONString() == ['{"id":3}', '{"id":4}']
+        Objects.equals(back, rows)
+        nout.toString('UTF-8') == '{"id":3}\n{"id":4}\n'
+    }
+
+    def "test file channel IO"() {
+        setup:
+        def file = File.createTempFile('channel', '.json')
+        def json = new JSONObject("name", "Dëan €").set("list", [1, 2, 3])
+        new JSONParser().send(file, json)
+        def size = FileChannelIO.getMappedThreshold()
+        FileChannelIO.setMappedThreshold(0)
+        def mapped = new JSONParser().parse(file)
+        FileChannelIO.setMappedThreshold(size)
+        def stream = new JSONParser().parse(file)
+        file.delete()
+
+        expect:
+        Objects.equals(mapped, json)
+        Objects.equals(stream, json)
+    }
+
+    def "test schema validator"() {
+        setup:
+        def schema = JSONSchema.cast(new JSONParser().parse('{"type":"object","required":["name"],"properties":{"name":{"type":"string","minLength":2},"kids":{"type":"array","items":{"$ref":"#"}}},"additionalProperties":false}'))
+        def valid = new JSONParser().parse('{"name":"Dean","kids":[{"name":"Rosaria"}]}')
+        def wrong = new JSONParser().parse('{"name":"D","kids":[{"age":3}]}')
+        def check = new JSONSchemaValidator(new JSONSchemaValidatorConfiguration().setTerminationOnFirstError(false))
+        def whole = new JSONSchemaValidatorContext()
+        def first = new JSONSchemaValidatorContext()
+
+        expect:
+        check.validate(valid, schema, new JSONSchemaValidatorContext())
+        false == check.validate(wrong, schema, whole)
+        false == new JSONSchemaValidator().validate(wrong, schema, first)
+        whole.getMessages().size() == 3
+        first.getMessages().size() == 1
+        JSONSchemaValidator.compile(schema).is(JSONSchemaValidator.compile(schema))
+        false == JSONSchemaValidator.compile(schema).is(JSONSchemaValidator.compile(JSONSchema.cast(new JSONObject(schema))))
+    }
+
+    def "test schema compiled per instance"() {
+        setup:
+        def keep = JSONSchema.cast(new JSONObject(type: 'object'))
+        def kept = JSONSchemaValidator.compile(keep)
+        keep.put('type', 'string')
+
+        expect:
+        kept.is(keep.getCompiledSchema())
+        new JSONSchemaValidator().validate(new JSONObject(a: 1), keep)
+        false == JSONCompiledSchema.compile(keep).validate(new JSONObject(a: 1))
+    }
+
+    def keep = JSONSchema.cast(new JSONObject(type: 'object'))
+        def gone = JSONSchema.cast(new JSONObject(type: 'object'))
+        def made = JSONSchemaValidator.compile(gone)
+        def kept = JSONSchemaValidator.compile(keep)
+        1100.times {
+            JSONSchemaValidator.compile(JSONSchema.cast(new JSONObject(type: 'string')))
+            JSONSchemaValidator.compile(keep)
+        }
+
+        expect:
+        kept.is(JSONSchemaValidator.compile(keep))
+        false == made.is(JSONSchemaValidator.compile(gone))
+    }
+
+    def "test tree incremental"() {
+        setup:
+        def roots = []
+        JSONMapToTreeSolver tree = new JSONMapToTreeSolver([linked: 'pid', parent: 'id', column: 'kids']).setExcluded(['pid']).incremental({ roots << it })
+        tree << [id: 1]
+        tree << [id: 2, pid: 1]
+        tree << [id: 3, pid: 2]
+        tree << [id: 4]
+        tree << [id: 5, pid: 4]
+        tree.solve()
+
+        expect:
+        roots.size() == 2
+        roots[0].toJSONString() == '{"id":1,"kids":[{"id":2,"kids":[{"id":3}]}]}'
+        roots[1].toJSONString() == '{"id":4,"kids":[{"id":5}]}'
+    }
+
+    def "test binder tree conversion"() {
+        setup:
+        BinderPOJO pojo = new BinderPOJO('Dean', 9.99d)
+        pojo.setTime(1L << 40)
+        JSONObject json = binder().toJSONObject(pojo)
+        BinderPOJO make = binder().bind(json, BinderPOJO)
+        BinderPOJO yaml = binder(BinderType.YAML).bind(json, BinderPOJO)
+        BinderPOJO cast = json as BinderPOJO
+        BinderPOJO tight = BinderFactory.newBinder(BinderType.JSON).setStrict(true).bind(json, BinderPOJO)
+
+        expect:
+        json.toJSONString() == binder().toJSONString(pojo)
+        json['time'] == 1L << 40
+        make.getName() == 'Dean'
+        make.getCost() == 9.99d
+        yaml.getTime() == 1L << 40
+        cast.getCost() == 9.99d
+        tight.getTime() == 0L
+        tight.getName() == 'Dean'
+    }
+
+    def "test parser string deduplication"() {
+        setup:
+        def text = '{"status":"ACTIVE","list":[{"status":"ACTIVE"}]}'
+        def json = new JSONParser().parse(text)
+        def same = new JSONParser().parse(text)
+        def dedupe = new JSONParser(false, false, true).parse(text)
+
+        expect:
+        json.keySet().first().is(same.keySet().first())
+        false == json['status'].is(same['status'])
+        dedupe['status'].is(dedupe.getAsArray('list').getAsObject(0)['status'])
+        Objects.equals(json, dedupe)
+    }
+
+    @Timeout(10)
+    def "test parse open stream"() {
+        setup:
+        def data = '{"name":"Dëan €","list":[1,2]}'.getBytes('UTF-8')
+        def open = { ->
+            int posn = 0
+            [read: { byte[] buff, int off, int len ->
+                    if (posn >= data.length) {
+                        Thread.sleep(60000)
+                        return -1
+                    }
+                    int size = Math.min(len, Math.min(3, data.length - posn))
+                    System.arraycopy(data, posn, buff, off, size)
+                    posn += size
+                    size
+                }] as InputStream
+        }
+        def json = new JSONParser().parse(open())
+        def list = JSONPath.compile('$.list[*]').parse(open())
+
+        expect:
+        json['name'] == 'Dëan €'
+        json['list'] == [1, 2]
+        list == [1, 2]
+    }
+
+    def "test UTF-8 lone high surrogate"() {
+        setup:
+        def text = 'ab\uD83D'
+        def bytes = new ByteArrayOutputStream()
+        def utf8 = new NoSyncUTF8OutputStreamWriter(bytes)
+        utf8.write(text)
+        utf8.finish()
+        def json = new ByteArrayOutputStream()
+        JSONUtils.writeJSONBytes(text, json, null, false)
+
+        expect:
+        bytes.toString('UTF-8') == 'ab\uFFFD'
+        json.toString('UTF-8') == '"ab\uFFFD"'
+    }
+
+    def "test binary binder dates and text"() {
+        setup:
+        def cbor = binder(BinderType.CBOR)
+        def json = new JSONObject().set('d', new Date(1500L)).set('i', Instant.ofEpochMilli(2500L))
+        def back = cbor.bindJSON(cbor.toBytes(json))
+
+        when:
+        cbor.toString(json)
+
+        then:
+        def e = thrown(ParserException)
+        e.cause instanceof UnsupportedOperationException
+        back.toJSONString() == '{"d":1500,"i":2500}'
+
+        when:
+        cbor.bindJSON('{"a":1}')
+
+        then:
+        e = thrown(ParserException)
+        e.cause.message == 'CBOR is a binary format, bindJSON(String) is not supported'
+    }
+
+    def "test file channel IO missing file"() {
+        setup:
+        def file = new File(File.createTempDir(), 'missing.json')
+
+        when:
+        FileChannelIO.input(file)
+
+        then:
+        thrown(FileNotFoundException)
+
+        when:
+        FileChannelIO.map(file)
+
+        then:
+        thrown(FileNotFoundException)
+
+        when:
+        new JSONParser().parse(file)
+
+        then:
+        def e = thrown(ParserException)
+        e.cause instanceof FileNotFoundException
+    }
+
+    def "test parse trailing content"() {
+        when:
+        JSONPath.compile('$.a').parse('{"a":1} garbage')
+
+        then:
+        def e = thrown(ParserException)
+        e.getPosition() == 8
+
+        when:
+        new JSONParser().parse(new ByteArrayInputStream('{"a":1}}'.getBytes('UTF-8')))
+
+        then:
+        thrown(ParserException)
+        JSONPath.compile('$.a').parse('{"a":1} \n') == [1]
+        new JSONParser().parse('{"a":1}\t').toJSONString() == '{"a":1}'
+    }
+
+    def "test tree mutual parents"() {
+        setup:
+        JSONMapToTreeSolver tree = new JSONMapToTreeSolver([linked: 'pid', parent: 'id', column: 'kids']).setExcluded(['pid'])
+        tree << [id: 1, pid: 2]
+        tree << [id: 2, pid: 1]
+        tree << [id: 3, pid: 3]
+        tree << [id: 4, pid: 1]
+        def list = tree.solve()
+
+        expect:
+        list.size() == 2
+        list[0].toJSONString() == '{"id":2,"kids":[{"id":1,"kids":[{"id":4}]}]}'
+        list[1].toJSONString() == '{"id":3}'
+    }
+
+    def "test lazy parse reader BOM"() {
+        setup:
+        def json = new JSONParser(true).parse(new StringReader('\uFEFF{"a":1}'))
+
+        expect:
+        json.toJSONString() == '{"a":1}'
+    }
+
+    def "test frozen JSON dates"() {
+        setup:
+        def date = new Date(1500L)
+        def o = new JSONObject().set('d', date).set('s', new LinkedHashSet([1, 2]))
+        def text = o.toJSONString()
+        def f = o.freeze()
+        f.toJSONString()
+        date.setTime(0L)
+
+        expect:
+        f.get('d') instanceof Instant
+        f.toJSONString() == text
+        f.toJSONString() == '{"d":"1970-01-01T00:00:01.500Z","s":[1,2]}'
+    }
+
+    def "test serializer registry overrides built in types"() {
+        setup:
+        JSONValueSerializerRegistry.register(TreeMap, { valu, out, context, strict -> out.write('"TREE"') } as IJSONValueSerializer)
+        JSONValueSerializerRegistry.register(BigDecimal, { valu, out, context, strict -> out.write('"BIG"') } as IJSONValueSerializer)
+        def text = new JSONObject().set('t', new TreeMap([x: 1])).set('h', [x: 1]).set('b', 1.5G).set('n', 3).toJSONString()
+        JSONValueSerializerRegistry.unregister(TreeMap)
+        JSONValueSerializerRegistry.unregister(BigDecimal)
+
+        when:
+        JSONValueSerializerRegistry.register(Integer, { valu, out, context, strict -> out.write('0') } as IJSONValueSerializer)
+
+        then:
+        thrown(IllegalArgumentException)
+        text == '{"t":"TREE","h":{"x":1},"b":"BIG","n":3}'
+        new JSONObject().set('t', new TreeMap([x: 1])).set('b', 1.5G).toJSONString() == '{"t":{"x":1},"b":1.5}'
+    }
+
+    def "test binder sendAll never indents"() {
+        setup:
+        def pretty = new AbstractDataBinder(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)) {
+            BinderType getType() {
+                BinderType.JSON
+            }
+        }
+        def bout = new ByteArrayOutputStream()
+        pretty.sendAll(bout, [[a: 1, b: [1, 2]], [c: 2]].iterator())
+
+        expect:
+        bout.toString('UTF-8') == '{"a":1,"b":[1,2]}\n{"c":2}\n'
+        pretty.toString([a: 1]).contains('\n')
+    }
+
     def "Nano Timer Last"() {
         setup:
         def t = new NanoTimer()